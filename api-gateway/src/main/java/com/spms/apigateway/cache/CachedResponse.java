@@ -0,0 +1,39 @@
+package com.spms.apigateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+public record CachedResponse(int status, HttpHeaders headers, byte[] body, long storedAtMillis, Duration ttl) {
+    
+    public static final String AGE_HEADER = "Age";
+    
+    // Captures what the backend sent, minus the headers that describe this particular
+    // connection rather than the resource itself.
+    public static CachedResponse of(ServerHttpResponse response, byte[] body, Duration ttl) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        headers.remove(HttpHeaders.SET_COOKIE);
+        return new CachedResponse(response.getStatusCode().value(), HttpHeaders.readOnlyHttpHeaders(headers), body,
+                System.currentTimeMillis(), ttl);
+    }
+    
+    // Headers the gateway has already set on this response take precedence over stored ones
+    public Mono<Void> writeTo(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatusCode.valueOf(status));
+        headers.forEach((name, values) -> response.getHeaders().putIfAbsent(name, values));
+        response.getHeaders().setContentLength(body.length);
+        response.getHeaders().set(AGE_HEADER, String.valueOf((System.currentTimeMillis() - storedAtMillis) / 1000));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+    
+    public int weight() {
+        return body.length + headers.size() * 64;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.spms.apigateway.cache;
+
+import com.spms.apigateway.filter.JwtAuthenticationFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+
+// Two requests with the same key are interchangeable: same route, same resource and the
+// same caller, so one response can stand in for the other.
+public record RequestKey(String routeId, String path, String query, String identity) {
+    
+    public static RequestKey of(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        String userId = request.getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+        return new RequestKey(routeIdOf(exchange), request.getURI().getRawPath(), request.getURI().getRawQuery(),
+                userId != null ? userId : "");
+    }
+    
+    public static String routeIdOf(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : "";
+    }
+}
\ No newline at end of file
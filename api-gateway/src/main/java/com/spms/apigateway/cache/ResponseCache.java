@@ -0,0 +1,174 @@
+package com.spms.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Component
+public class ResponseCache {
+    
+    private final Cache<RequestKey, CachedResponse> cache;
+    private final Counter bytesServed;
+    
+    // Entries are indexed by route and by path, so an invalidation only visits the entries it
+    // drops instead of scanning the whole cache. The sorted paths find a prefix's paths; they
+    // are only changed inside keysByPath's compute for the same path.
+    private final Map<String, Set<RequestKey>> keysByRoute = new ConcurrentHashMap<>();
+    private final Map<String, Set<RequestKey>> keysByPath = new ConcurrentHashMap<>();
+    private final NavigableSet<String> paths = new ConcurrentSkipListSet<>();
+    
+    private final ExecutorService invalidationThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "response-cache-invalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    // Bounded by bytes rather than entry count, since one availability listing can be
+    // a hundred times larger than a single parking space. Each entry expires after the
+    // TTL of the route it was stored for.
+    public ResponseCache(@Value("${spms.gateway.cache.maximum-size:64MB}") DataSize maximumSize,
+                         MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((RequestKey key, CachedResponse response) -> response.weight())
+                .expireAfter(new Expiry<RequestKey, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(RequestKey key, CachedResponse response, long currentTime) {
+                        return response.ttl().toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(RequestKey key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.ttl().toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(RequestKey key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .evictionListener((RequestKey key, CachedResponse response, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+        this.bytesServed = Counter.builder("gateway.responses.cache.served.bytes")
+                .description("Response bytes served from the gateway cache instead of a backend")
+                .register(meterRegistry);
+    }
+    
+    public CachedResponse get(RequestKey key) {
+        CachedResponse response = cache.getIfPresent(key);
+        if (response != null) {
+            bytesServed.increment(response.body().length);
+        }
+        return response;
+    }
+    
+    // Indexing happens inside the entry's compute, as does unindexing on eviction, so the
+    // indexes never miss a live entry
+    public void put(RequestKey key, CachedResponse response) {
+        cache.asMap().compute(key, (k, previous) -> {
+            index(k);
+            return response;
+        });
+    }
+    
+    // Invalidations run on their own thread, so the write or event that caused them never waits
+    public void invalidateRoute(String routeId) {
+        invalidationThread.execute(() -> invalidateAll(keysByRoute.get(routeId)));
+    }
+    
+    public void invalidatePath(String path) {
+        invalidationThread.execute(() -> invalidateAll(keysByPath.get(path)));
+    }
+    
+    public void invalidatePathPrefix(String pathPrefix) {
+        invalidationThread.execute(() -> paths.tailSet(pathPrefix).stream()
+                .takeWhile(path -> path.startsWith(pathPrefix))
+                .toList()
+                .forEach(path -> invalidateAll(keysByPath.get(path))));
+    }
+    
+    public void invalidateAll() {
+        invalidationThread.execute(() -> invalidateAll(cache.asMap().keySet()));
+    }
+    
+    @PreDestroy
+    public void stop() {
+        invalidationThread.shutdownNow();
+    }
+    
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new HashMap<>();
+        result.put("entries", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRatio", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("bytesServed", (long) bytesServed.count());
+        cache.policy().eviction().ifPresent(eviction -> eviction.weightedSize()
+                .ifPresent(weightedSize -> result.put("sizeBytes", weightedSize)));
+        return result;
+    }
+    
+    private void invalidateAll(Set<RequestKey> keys) {
+        if (keys == null) {
+            return;
+        }
+        for (RequestKey key : Set.copyOf(keys)) {
+            cache.asMap().computeIfPresent(key, (k, response) -> {
+                unindex(k);
+                return null;
+            });
+        }
+    }
+    
+    private void index(RequestKey key) {
+        keysByRoute.compute(key.routeId(), (routeId, keys) -> added(keys, key));
+        keysByPath.compute(key.path(), (path, keys) -> {
+            paths.add(path);
+            return added(keys, key);
+        });
+    }
+    
+    private void unindex(RequestKey key) {
+        keysByRoute.computeIfPresent(key.routeId(), (routeId, keys) -> removed(keys, key));
+        keysByPath.computeIfPresent(key.path(), (path, keys) -> {
+            Set<RequestKey> remaining = removed(keys, key);
+            if (remaining == null) {
+                paths.remove(path);
+            }
+            return remaining;
+        });
+    }
+    
+    private static Set<RequestKey> added(Set<RequestKey> keys, RequestKey key) {
+        Set<RequestKey> result = keys != null ? keys : ConcurrentHashMap.newKeySet();
+        result.add(key);
+        return result;
+    }
+    
+    private static Set<RequestKey> removed(Set<RequestKey> keys, RequestKey key) {
+        keys.remove(key);
+        return keys.isEmpty() ? null : keys;
+    }
+}
\ No newline at end of file
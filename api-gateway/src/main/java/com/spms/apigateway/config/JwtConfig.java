@@ -0,0 +1,23 @@
+package com.spms.apigateway.config;
+
+import com.spms.apigateway.security.UserServiceJwkSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+
+@Configuration
+public class JwtConfig {
+    
+    // The keys are held in memory by UserServiceJwkSource, which only goes back to user-service
+    // when a token arrives signed with a key ID it has not seen yet.
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(UserServiceJwkSource userServiceJwkSource,
+                                         @Value("${spms.jwt.issuer}") String issuer) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSource(userServiceJwkSource).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+}
\ No newline at end of file
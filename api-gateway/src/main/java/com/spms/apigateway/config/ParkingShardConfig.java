@@ -0,0 +1,11 @@
+package com.spms.apigateway.config;
+
+import com.spms.apigateway.sharding.ParkingShardLoadBalancerConfiguration;
+import com.spms.apigateway.sharding.ParkingShards;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClient(name = ParkingShards.SERVICE_ID, configuration = ParkingShardLoadBalancerConfiguration.class)
+public class ParkingShardConfig {
+}
\ No newline at end of file
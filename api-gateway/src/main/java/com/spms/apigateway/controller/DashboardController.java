@@ -0,0 +1,24 @@
+package com.spms.apigateway.controller;
+
+import com.spms.apigateway.service.DashboardAggregator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+    
+    @Autowired
+    private DashboardAggregator dashboardAggregator;
+    
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Map<String, Object>>> getDashboard(@PathVariable Long userId) {
+        return dashboardAggregator.getDashboard(userId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
\ No newline at end of file
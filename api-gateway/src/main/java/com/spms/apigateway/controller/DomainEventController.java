@@ -0,0 +1,36 @@
+package com.spms.apigateway.controller;
+
+import com.spms.apigateway.cache.ResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Receives the services' relayed domain events. Writes that never pass through the gateway,
+// such as gate events, would otherwise leave cached responses stale until their TTL ran out.
+@RestController
+@RequestMapping("/api/gateway/events")
+public class DomainEventController {
+    
+    private static final Map<String, String> PATH_PREFIXES = Map.of(
+            "ParkingSpace", "/api/parking-spaces",
+            "Vehicle", "/api/vehicles",
+            "Payment", "/api/payments");
+    
+    @Autowired
+    private ResponseCache responseCache;
+    
+    // Invalidation is idempotent, so redelivered events need no de-duplication
+    @PostMapping
+    public ResponseEntity<Void> receive(@RequestBody List<Map<String, Object>> events) {
+        events.stream()
+                .map(event -> PATH_PREFIXES.get(String.valueOf(event.get("aggregateType"))))
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(responseCache::invalidatePathPrefix);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.spms.apigateway.controller;
+
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/fallback")
+public class FallbackController {
+    
+    // Target of the circuit breakers' fallbackUri: the breaker is open, the call timed
+    // out, or the backend failed
+    @RequestMapping("/{service}")
+    public ResponseEntity<Map<String, Object>> fallback(@PathVariable String service, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", service + " is temporarily unavailable");
+        response.put("service", service);
+        response.put("reason", cause != null ? cause.getClass().getSimpleName() : "Unknown");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+}
\ No newline at end of file
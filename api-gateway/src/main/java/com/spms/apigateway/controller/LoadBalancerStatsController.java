@@ -0,0 +1,21 @@
+package com.spms.apigateway.controller;
+
+import com.spms.apigateway.loadbalancer.InstanceLatencyTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/gateway/load-balancer")
+public class LoadBalancerStatsController {
+    
+    @Autowired
+    private InstanceLatencyTracker latencyTracker;
+    
+    @GetMapping
+    public ResponseEntity<Map<String, Map<String, Object>>> getStats() {
+        return ResponseEntity.ok(latencyTracker.getStats());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.spms.apigateway.controller;
+
+import com.spms.apigateway.dto.CheckInRequest;
+import com.spms.apigateway.dto.CheckOutRequest;
+import com.spms.apigateway.service.ParkingFlowOrchestrator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/parking-flow")
+public class ParkingFlowController {
+    
+    @Autowired
+    private ParkingFlowOrchestrator parkingFlowOrchestrator;
+    
+    @PostMapping("/check-in")
+    public Mono<ResponseEntity<Map<String, Object>>> checkIn(@RequestBody CheckInRequest request) {
+        if (request.getVehicleId() == null || request.getParkingSpaceId() == null
+                || request.getParkingDurationHours() == null || request.getParkingDurationHours() < 1) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return parkingFlowOrchestrator.checkIn(request)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(failure(e)));
+    }
+    
+    @PostMapping("/check-out")
+    public Mono<ResponseEntity<Map<String, Object>>> checkOut(@RequestBody CheckOutRequest request) {
+        if (request.getVehicleId() == null || request.getParkingSpaceId() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return parkingFlowOrchestrator.checkOut(request)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(failure(e)));
+    }
+    
+    private ResponseEntity<Map<String, Object>> failure(Throwable e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", String.valueOf(e.getMessage())));
+    }
+}
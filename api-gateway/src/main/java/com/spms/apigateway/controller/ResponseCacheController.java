@@ -0,0 +1,34 @@
+package com.spms.apigateway.controller;
+
+import com.spms.apigateway.cache.ResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/gateway/cache")
+public class ResponseCacheController {
+    
+    @Autowired
+    private ResponseCache responseCache;
+    
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(responseCache.getStats());
+    }
+    
+    @DeleteMapping
+    public ResponseEntity<Void> purge(@RequestParam(required = false) String routeId,
+                                      @RequestParam(required = false) String pathPrefix) {
+        if (routeId != null) {
+            responseCache.invalidateRoute(routeId);
+        } else if (pathPrefix != null) {
+            responseCache.invalidatePathPrefix(pathPrefix);
+        } else {
+            responseCache.invalidateAll();
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
\ No newline at end of file
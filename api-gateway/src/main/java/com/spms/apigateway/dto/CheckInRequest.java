@@ -0,0 +1,45 @@
+package com.spms.apigateway.dto;
+
+public class CheckInRequest {
+    
+    private Long vehicleId;
+    
+    private Long parkingSpaceId;
+    
+    private Integer parkingDurationHours = 1;
+    
+    private String paymentMethod = "CREDIT_CARD";
+    
+    // Getters and Setters
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+    
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+    
+    public Long getParkingSpaceId() {
+        return parkingSpaceId;
+    }
+    
+    public void setParkingSpaceId(Long parkingSpaceId) {
+        this.parkingSpaceId = parkingSpaceId;
+    }
+    
+    public Integer getParkingDurationHours() {
+        return parkingDurationHours;
+    }
+    
+    public void setParkingDurationHours(Integer parkingDurationHours) {
+        this.parkingDurationHours = parkingDurationHours;
+    }
+    
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+    
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+}
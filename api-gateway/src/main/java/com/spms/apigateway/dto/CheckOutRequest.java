@@ -0,0 +1,25 @@
+package com.spms.apigateway.dto;
+
+public class CheckOutRequest {
+    
+    private Long vehicleId;
+    
+    private Long parkingSpaceId;
+    
+    // Getters and Setters
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+    
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+    
+    public Long getParkingSpaceId() {
+        return parkingSpaceId;
+    }
+    
+    public void setParkingSpaceId(Long parkingSpaceId) {
+        this.parkingSpaceId = parkingSpaceId;
+    }
+}
@@ -0,0 +1,52 @@
+package com.spms.apigateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.function.Consumer;
+
+// Copies the response body on its way to the client without delaying it. Bodies larger
+// than the limit, and streamed responses written through writeAndFlushWith, are passed
+// through untouched and never reported.
+public class BodyCaptureResponseDecorator extends ServerHttpResponseDecorator {
+    
+    private final int maxBytes;
+    private final Consumer<byte[]> onCaptured;
+    
+    public BodyCaptureResponseDecorator(ServerHttpResponse delegate, int maxBytes, Consumer<byte[]> onCaptured) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+        this.onCaptured = onCaptured;
+    }
+    
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        boolean[] overflowed = new boolean[1];
+        
+        Flux<DataBuffer> copying = Flux.<DataBuffer>from(body).map(buffer -> {
+            int readable = buffer.readableByteCount();
+            if (overflowed[0] || captured.size() + readable > maxBytes) {
+                overflowed[0] = true;
+                return buffer;
+            }
+            byte[] bytes = new byte[readable];
+            int readPosition = buffer.readPosition();
+            buffer.read(bytes);
+            buffer.readPosition(readPosition);
+            captured.write(bytes, 0, readable);
+            return buffer;
+        });
+        
+        return super.writeWith(copying).doOnSuccess(done -> {
+            if (!overflowed[0]) {
+                onCaptured.accept(captured.toByteArray());
+            }
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.spms.apigateway.filter;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+@Component
+public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+    
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_TYPE_HEADER = "X-User-Type";
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    @Autowired
+    private ReactiveJwtDecoder jwtDecoder;
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // Identity headers are only ever set by the gateway, never trusted from the client
+        ServerWebExchange stripped = exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(USER_ID_HEADER);
+                    headers.remove(USER_TYPE_HEADER);
+                }))
+                .build();
+        
+        String authorization = stripped.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return chain.filter(stripped);
+        }
+        
+        String token = authorization.substring(BEARER_PREFIX.length()).trim();
+        return jwtDecoder.decode(token)
+                .map(jwt -> withIdentity(stripped, jwt))
+                .onErrorResume(JwtException.class, e -> reject(stripped).then(Mono.<ServerWebExchange>empty()))
+                .flatMap(chain::filter);
+    }
+    
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 100;
+    }
+    
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, Jwt jwt) {
+        return exchange.mutate()
+                .request(request -> request
+                        .header(USER_ID_HEADER, jwt.getSubject())
+                        .header(USER_TYPE_HEADER, jwt.getClaimAsString("userType")))
+                .build();
+    }
+    
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+        exchange.getResponse().getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        return exchange.getResponse().setComplete();
+    }
+}
\ No newline at end of file
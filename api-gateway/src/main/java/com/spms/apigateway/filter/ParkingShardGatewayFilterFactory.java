@@ -0,0 +1,153 @@
+package com.spms.apigateway.filter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.apigateway.sharding.ParkingShardFanOut;
+import com.spms.apigateway.sharding.ParkingShards;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Routes parking-space-service requests when spaces are sharded by city. Requests for one
+// space or one city are narrowed to their shard by the load balancer; this filter adds the
+// shard of a new space from its body, and fans reads that span every shard out to all of
+// them. Does nothing while there is a single shard.
+@Component
+public class ParkingShardGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+    
+    // Just before the load balancer picks an instance, so that the cache, bulkhead and
+    // circuit breaker also cover the fanned-out reads
+    public static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    
+    private static final String BASE_PATH = "/api/parking-spaces";
+    private static final Pattern LIST_PATH = Pattern.compile("^/api/parking-spaces(?:/available|/zone/[^/]+|/owner/[^/]+)?$");
+    private static final Pattern SPACE_NUMBER_PATH = Pattern.compile("^/api/parking-spaces/space-number/[^/]+$");
+    private static final Pattern SPACE_PATH = Pattern.compile("^/api/parking-spaces/(\\d+)$");
+    
+    @Autowired
+    private ParkingShards parkingShards;
+    
+    @Autowired
+    private ParkingShardFanOut parkingShardFanOut;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    public ParkingShardGatewayFilterFactory() {
+        super(Object.class);
+    }
+    
+    @Override
+    public GatewayFilter apply(Object config) {
+        return new OrderedGatewayFilter(this::filter, ORDER);
+    }
+    
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        // The shard header is only ever set by the gateway, so it is dropped even when unsharded
+        ServerWebExchange stripped = exchange.mutate()
+                .request(request -> request.headers(headers -> headers.remove(ParkingShards.SHARD_HEADER)))
+                .build();
+        if (!parkingShards.isSharded()) {
+            return chain.filter(stripped);
+        }
+        
+        ServerHttpRequest request = stripped.getRequest();
+        String path = request.getURI().getPath();
+        
+        if (HttpMethod.GET.equals(request.getMethod())) {
+            if (parkingShards.shardOf(path, request.getHeaders()).isPresent()) {
+                return chain.filter(stripped);
+            }
+            if (LIST_PATH.matcher(path).matches()) {
+                return parkingShardFanOut.mergeLists(request.getURI()).flatMap(merged -> write(stripped.getResponse(), merged));
+            }
+            if (SPACE_NUMBER_PATH.matcher(path).matches()) {
+                return parkingShardFanOut.findFirst(request.getURI()).flatMap(found -> write(stripped.getResponse(), found));
+            }
+            if (path.equals(BASE_PATH + "/search")) {
+                return parkingShardFanOut.mergeSearch(request.getURI(), request.getQueryParams())
+                        .flatMap(merged -> write(stripped.getResponse(), merged));
+            }
+            return chain.filter(stripped);
+        }
+        
+        if (HttpMethod.POST.equals(request.getMethod()) && path.equals(BASE_PATH)) {
+            return withCity(stripped, (cached, city) -> {
+                if (city.isEmpty()) {
+                    // Invalid anyway; any shard can reject it
+                    return chain.filter(cached);
+                }
+                String shard = String.valueOf(parkingShards.shardOfCity(city.get()));
+                return chain.filter(cached.mutate()
+                        .request(builder -> builder.header(ParkingShards.SHARD_HEADER, shard))
+                        .build());
+            });
+        }
+        
+        // A space stays on the shard it was created on, so it cannot move to a city of another shard
+        Matcher space = SPACE_PATH.matcher(path);
+        if (HttpMethod.PUT.equals(request.getMethod()) && space.matches()) {
+            int shard = parkingShards.shardOfId(Long.parseLong(space.group(1)));
+            return withCity(stripped, (cached, city) -> {
+                if (city.isPresent() && parkingShards.shardOfCity(city.get()) != shard) {
+                    cached.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+                    return cached.getResponse().setComplete();
+                }
+                return chain.filter(cached);
+            });
+        }
+        
+        return chain.filter(stripped);
+    }
+    
+    private Mono<Void> withCity(ServerWebExchange exchange, CityHandler handler) {
+        return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, cachedRequest -> {
+            ServerWebExchange cached = exchange.mutate().request(cachedRequest).build();
+            DataBuffer body = exchange.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+            return handler.handle(cached, body == null ? Optional.empty() : cityOf(body));
+        });
+    }
+    
+    private Optional<String> cityOf(DataBuffer body) {
+        try {
+            JsonNode city = objectMapper.readTree(body.toString(StandardCharsets.UTF_8)).path("city");
+            return city.isTextual() && !city.asText().isBlank() ? Optional.of(city.asText()) : Optional.empty();
+        } catch (JsonProcessingException e) {
+            return Optional.empty();
+        }
+    }
+    
+    private Mono<Void> write(ServerHttpResponse response, ParkingShardFanOut.ShardResponse shardResponse) {
+        response.setStatusCode(HttpStatusCode.valueOf(shardResponse.status()));
+        if (shardResponse.body().length == 0) {
+            return response.setComplete();
+        }
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shardResponse.body())));
+    }
+    
+    private interface CityHandler {
+        
+        Mono<Void> handle(ServerWebExchange cached, Optional<String> city);
+    }
+}
\ No newline at end of file
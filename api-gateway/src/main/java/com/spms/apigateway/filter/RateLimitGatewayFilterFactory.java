@@ -0,0 +1,181 @@
+package com.spms.apigateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spms.apigateway.ratelimit.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+    
+    public static final String API_KEY_HEADER = "X-API-Key";
+    public static final String LIMIT_HEADER = "RateLimit-Limit";
+    public static final String REMAINING_HEADER = "RateLimit-Remaining";
+    public static final String RESET_HEADER = "RateLimit-Reset";
+    
+    // After JwtAuthenticationFilter so users can be told apart, and before the response
+    // cache so a client over its limit is turned away even for cached responses
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 150;
+    
+    public enum KeyResolver {
+        USER, API_KEY, IP
+    }
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${spms.gateway.rate-limit.max-clients:100000}")
+    private long maxClients;
+    
+    @Value("${spms.gateway.rate-limit.idle-timeout:10m}")
+    private Duration idleTimeout;
+    
+    // The issued API keys; other X-API-Key values are ignored
+    @Value("${spms.gateway.rate-limit.api-keys:}")
+    private Set<String> apiKeys;
+    
+    public RateLimitGatewayFilterFactory() {
+        super(Config.class);
+    }
+    
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("capacity", "refillTokens", "refillPeriod");
+    }
+    
+    // Each route gets its own buckets; clients that stay idle past the timeout are
+    // forgotten, which is the same as finding their bucket full again
+    @Override
+    public GatewayFilter apply(Config config) {
+        Cache<String, TokenBucket> buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleTimeout)
+                .build();
+        Counter allowed = Counter.builder("gateway.rate.limit.requests")
+                .tags("route", String.valueOf(config.getRouteId()), "outcome", "allowed")
+                .register(meterRegistry);
+        Counter limited = Counter.builder("gateway.rate.limit.requests")
+                .tags("route", String.valueOf(config.getRouteId()), "outcome", "limited")
+                .register(meterRegistry);
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            TokenBucket.Decision decision = take(exchange, config, buckets);
+            if (!decision.allowed()) {
+                limited.increment();
+                exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                return exchange.getResponse().setComplete();
+            }
+            allowed.increment();
+            return chain.filter(exchange);
+        }, ORDER);
+    }
+    
+    private TokenBucket.Decision take(ServerWebExchange exchange, Config config, Cache<String, TokenBucket> buckets) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(clientOf(exchange.getRequest(), config.getKeyResolver()),
+                client -> new TokenBucket(config.getCapacity(), config.getRefillTokens(), config.getRefillPeriod(), now));
+        TokenBucket.Decision decision = bucket.tryConsume(now);
+        
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set(LIMIT_HEADER, String.valueOf(bucket.getCapacity()));
+        headers.set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        headers.set(RESET_HEADER, String.valueOf(toSeconds(decision.resetNanos())));
+        if (!decision.allowed()) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(toSeconds(decision.retryAfterNanos())));
+        }
+        return decision;
+    }
+    
+    // Only identities the gateway can vouch for get their own bucket: the user from a verified
+    // JWT, or an API key that was issued. Anything else is limited by address, so a caller cannot
+    // get a fresh bucket by sending a new X-API-Key or no token.
+    private String clientOf(ServerHttpRequest request, KeyResolver keyResolver) {
+        if (keyResolver == KeyResolver.USER) {
+            String userId = request.getHeaders().getFirst(JwtAuthenticationFilter.USER_ID_HEADER);
+            if (userId != null) {
+                return "user:" + userId;
+            }
+        }
+        if (keyResolver != KeyResolver.IP) {
+            String apiKey = request.getHeaders().getFirst(API_KEY_HEADER);
+            if (apiKey != null && apiKeys.contains(apiKey)) {
+                return "key:" + apiKey;
+            }
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return "ip:" + (remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown");
+    }
+    
+    private long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+    
+    public static class Config implements HasRouteId {
+        
+        private String routeId;
+        private long capacity = 20;
+        private long refillTokens = 10;
+        private Duration refillPeriod = Duration.ofSeconds(1);
+        private KeyResolver keyResolver = KeyResolver.USER;
+        
+        public long getCapacity() {
+            return capacity;
+        }
+        
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+        
+        public long getRefillTokens() {
+            return refillTokens;
+        }
+        
+        public void setRefillTokens(long refillTokens) {
+            this.refillTokens = refillTokens;
+        }
+        
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+        
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+        
+        public KeyResolver getKeyResolver() {
+            return keyResolver;
+        }
+        
+        public void setKeyResolver(KeyResolver keyResolver) {
+            this.keyResolver = keyResolver;
+        }
+        
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+        
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+    }
+}
\ No newline at end of file
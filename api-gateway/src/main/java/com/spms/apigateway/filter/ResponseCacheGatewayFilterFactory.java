@@ -0,0 +1,165 @@
+package com.spms.apigateway.filter;
+
+import com.spms.apigateway.cache.CachedResponse;
+import com.spms.apigateway.cache.RequestKey;
+import com.spms.apigateway.cache.ResponseCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+    
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+    public static final String INVALIDATE_HEADER = "X-Cache-Invalidate";
+    
+    // After JwtAuthenticationFilter, so the caller's identity is part of the cache key
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 200;
+    
+    private static final Pattern MAX_AGE = Pattern.compile("(?:s-maxage|max-age)\\s*=\\s*(\\d+)");
+    
+    @Autowired
+    private ResponseCache responseCache;
+    
+    @Value("${spms.gateway.cache.max-entry-size:256KB}")
+    private DataSize maxEntrySize;
+    
+    public ResponseCacheGatewayFilterFactory() {
+        super(Config.class);
+    }
+    
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl");
+    }
+    
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+    
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String routeId = RequestKey.routeIdOf(exchange);
+        
+        // Services name what a response made stale; successful writes through a cached
+        // route also drop everything stored for that route.
+        boolean write = !HttpMethod.GET.equals(request.getMethod()) && !HttpMethod.HEAD.equals(request.getMethod())
+                && !HttpMethod.OPTIONS.equals(request.getMethod());
+        response.beforeCommit(() -> {
+            List<String> stale = response.getHeaders().remove(INVALIDATE_HEADER);
+            if (stale != null) {
+                stale.stream()
+                        .flatMap(value -> StringUtils.commaDelimitedListToSet(value).stream())
+                        .map(String::trim)
+                        .filter(StringUtils::hasText)
+                        .forEach(responseCache::invalidatePathPrefix);
+            }
+            if (write && config.isInvalidateOnWrite() && response.getStatusCode() != null
+                    && response.getStatusCode().is2xxSuccessful()) {
+                responseCache.invalidateRoute(routeId);
+            }
+            return Mono.empty();
+        });
+        
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+        
+        String requestCacheControl = cacheControlOf(request.getHeaders());
+        if (requestCacheControl.contains("no-store")) {
+            response.getHeaders().set(CACHE_STATUS_HEADER, "BYPASS");
+            return chain.filter(exchange);
+        }
+        
+        RequestKey key = RequestKey.of(exchange);
+        if (!requestCacheControl.contains("no-cache")) {
+            CachedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                response.getHeaders().set(CACHE_STATUS_HEADER, "HIT");
+                return cached.writeTo(response);
+            }
+        }
+        
+        response.getHeaders().set(CACHE_STATUS_HEADER, "MISS");
+        BodyCaptureResponseDecorator capturing = new BodyCaptureResponseDecorator(response,
+                (int) maxEntrySize.toBytes(), body -> store(key, response, body, config.getTtl()));
+        return chain.filter(exchange.mutate().response(capturing).build());
+    }
+    
+    private void store(RequestKey key, ServerHttpResponse response, byte[] body, Duration routeTtl) {
+        if (response.getStatusCode() == null || response.getStatusCode().value() != HttpStatus.OK.value()
+                || response.getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+            return;
+        }
+        
+        String cacheControl = cacheControlOf(response.getHeaders());
+        if (cacheControl.contains("no-store") || cacheControl.contains("no-cache")) {
+            return;
+        }
+        
+        // A backend may shorten the route's TTL with max-age but never extend it
+        Duration ttl = routeTtl;
+        Matcher maxAge = MAX_AGE.matcher(cacheControl);
+        if (maxAge.find()) {
+            Duration backendTtl = Duration.ofSeconds(Long.parseLong(maxAge.group(1)));
+            ttl = backendTtl.compareTo(ttl) < 0 ? backendTtl : ttl;
+        }
+        if (ttl.isZero() || ttl.isNegative()) {
+            return;
+        }
+        
+        responseCache.put(key, CachedResponse.of(response, body, ttl));
+    }
+    
+    private String cacheControlOf(HttpHeaders headers) {
+        String cacheControl = String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL));
+        if (headers.getOrEmpty(HttpHeaders.PRAGMA).contains("no-cache")) {
+            cacheControl += ",no-cache";
+        }
+        return cacheControl.toLowerCase(Locale.ROOT);
+    }
+    
+    public static class Config {
+        
+        private Duration ttl = Duration.ofSeconds(30);
+        private boolean invalidateOnWrite = true;
+        
+        public Duration getTtl() {
+            return ttl;
+        }
+        
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+        
+        public boolean isInvalidateOnWrite() {
+            return invalidateOnWrite;
+        }
+        
+        public void setInvalidateOnWrite(boolean invalidateOnWrite) {
+            this.invalidateOnWrite = invalidateOnWrite;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.spms.apigateway.filter;
+
+import com.spms.apigateway.cache.CachedResponse;
+import com.spms.apigateway.cache.RequestKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class SingleFlightGatewayFilterFactory extends AbstractGatewayFilterFactory<SingleFlightGatewayFilterFactory.Config> {
+    
+    // After ResponseCacheGatewayFilterFactory, so only cache misses are coalesced and the
+    // one upstream response also fills the cache
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 300;
+    
+    private final Map<RequestKey, Flight> inFlight = new ConcurrentHashMap<>();
+    private final int maxResponseBytes;
+    private final Counter leaderCounter;
+    private final Counter followerCounter;
+    private final Counter overflowCounter;
+    private final Counter fallbackCounter;
+    
+    public SingleFlightGatewayFilterFactory(@Value("${spms.gateway.single-flight.max-response-size:1MB}") DataSize maxResponseSize,
+                                            MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.maxResponseBytes = (int) maxResponseSize.toBytes();
+        this.leaderCounter = Counter.builder("gateway.single.flight.requests").tag("role", "leader")
+                .description("Requests that went upstream on behalf of identical concurrent requests")
+                .register(meterRegistry);
+        this.followerCounter = Counter.builder("gateway.single.flight.requests").tag("role", "follower")
+                .description("Requests answered with the response of an identical in-flight request")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder("gateway.single.flight.requests").tag("role", "overflow")
+                .description("Requests sent upstream on their own because the in-flight request had too many waiters")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("gateway.single.flight.requests").tag("role", "fallback")
+                .description("Waiters sent upstream after the in-flight request failed or was too large to share")
+                .register(meterRegistry);
+        Gauge.builder("gateway.single.flight.in.flight", inFlight, Map::size).register(meterRegistry);
+    }
+    
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("maxWaiters");
+    }
+    
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> filter(exchange, chain, config), ORDER);
+    }
+    
+    private Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain, Config config) {
+        if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())) {
+            return chain.filter(exchange);
+        }
+        
+        RequestKey key = RequestKey.of(exchange);
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(exchange, chain, key, flight);
+        }
+        
+        if (existing.waiters.incrementAndGet() > config.getMaxWaiters()) {
+            existing.waiters.decrementAndGet();
+            overflowCounter.increment();
+            return chain.filter(exchange);
+        }
+        followerCounter.increment();
+        return follow(exchange, chain, existing);
+    }
+    
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, RequestKey key, Flight flight) {
+        leaderCounter.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        BodyCaptureResponseDecorator capturing = new BodyCaptureResponseDecorator(response, maxResponseBytes,
+                body -> flight.result.tryEmitValue(CachedResponse.of(response, body, Duration.ZERO)));
+        
+        return chain.filter(exchange.mutate().response(capturing).build())
+                .doFinally(signal -> {
+                    inFlight.remove(key, flight);
+                    // No-op when the response was already shared; otherwise releases the
+                    // waiters to make their own upstream calls
+                    flight.result.tryEmitEmpty();
+                });
+    }
+    
+    private Mono<Void> follow(ServerWebExchange exchange, GatewayFilterChain chain, Flight flight) {
+        return flight.result.asMono()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isPresent()) {
+                        return shared.get().writeTo(exchange.getResponse());
+                    }
+                    fallbackCounter.increment();
+                    return chain.filter(exchange);
+                });
+    }
+    
+    private static class Flight {
+        
+        private final Sinks.One<CachedResponse> result = Sinks.one();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+    
+    public static class Config {
+        
+        private int maxWaiters = 1000;
+        
+        public int getMaxWaiters() {
+            return maxWaiters;
+        }
+        
+        public void setMaxWaiters(int maxWaiters) {
+            this.maxWaiters = maxWaiters;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.spms.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class InstanceLatencyTracker {
+    
+    private final Map<String, InstanceStats> statsByInstance = new ConcurrentHashMap<>();
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    
+    public InstanceLatencyTracker(@Value("${spms.loadbalancer.decay:10s}") Duration decay,
+                                  @Value("${spms.loadbalancer.failure-penalty:1s}") Duration failurePenalty) {
+        this.decayNanos = decay.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+    }
+    
+    public void onStart(ServiceInstance instance) {
+        statsOf(instance).outstanding.incrementAndGet();
+    }
+    
+    public void onComplete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        InstanceStats stats = statsOf(instance);
+        stats.outstanding.decrementAndGet();
+        stats.observe(failed ? Math.max(latencyNanos, failurePenaltyNanos) : latencyNanos, System.nanoTime(), decayNanos);
+    }
+    
+    // Expected wait on this instance: its recent latency times the requests already
+    // queued on it. Instances never seen yet cost nothing, so new ones get tried.
+    public double costOf(ServiceInstance instance) {
+        InstanceStats stats = statsByInstance.get(keyOf(instance));
+        if (stats == null) {
+            return 0;
+        }
+        return stats.latency(System.nanoTime(), decayNanos) * (stats.outstanding.get() + 1);
+    }
+    
+    public Map<String, Map<String, Object>> getStats() {
+        long now = System.nanoTime();
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        statsByInstance.forEach((instance, stats) -> {
+            Map<String, Object> instanceStats = new LinkedHashMap<>();
+            instanceStats.put("latencyMillis", stats.latency(now, decayNanos) / TimeUnit.MILLISECONDS.toNanos(1));
+            instanceStats.put("outstanding", stats.outstanding.get());
+            result.put(instance, instanceStats);
+        });
+        return result;
+    }
+    
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return statsByInstance.computeIfAbsent(keyOf(instance), key -> new InstanceStats());
+    }
+    
+    private String keyOf(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+    
+    // Peak EWMA: a slower sample is taken as-is so a stalling instance is avoided at once,
+    // while faster samples only pull the average down gradually
+    private static class InstanceStats {
+        
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private double ewmaNanos;
+        private long lastObservedNanos;
+        
+        synchronized void observe(long latencyNanos, long now, double decayNanos) {
+            if (latencyNanos > ewmaNanos) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(now - lastObservedNanos) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            lastObservedNanos = now;
+        }
+        
+        // Without new samples the average decays towards zero, so an instance that was
+        // slow a while ago gets another chance
+        synchronized double latency(long now, double decayNanos) {
+            return ewmaNanos * Math.exp(-(now - lastObservedNanos) / decayNanos);
+        }
+    }
+}
\ No newline at end of file
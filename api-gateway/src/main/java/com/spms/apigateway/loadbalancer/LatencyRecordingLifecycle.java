@@ -0,0 +1,50 @@
+package com.spms.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+// Observes every load-balanced call the gateway makes, both routed requests and its own
+// WebClient calls, and reports per-instance latency to the tracker
+@Component
+public class LatencyRecordingLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    
+    @Autowired
+    private InstanceLatencyTracker latencyTracker;
+    
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return TimedRequestContext.class.isAssignableFrom(requestContextClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+    
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+    
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            ((TimedRequestContext) request.getContext()).setRequestStartTime(System.nanoTime());
+            latencyTracker.onStart(lbResponse.getServer());
+        }
+    }
+    
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+        
+        long start = ((TimedRequestContext) completionContext.getLoadBalancerRequest().getContext()).getRequestStartTime();
+        latencyTracker.onComplete(lbResponse.getServer(), System.nanoTime() - start,
+                completionContext.status() == CompletionContext.Status.FAILED);
+    }
+}
\ No newline at end of file
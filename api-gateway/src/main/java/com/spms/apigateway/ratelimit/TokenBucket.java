@@ -0,0 +1,43 @@
+package com.spms.apigateway.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A token bucket kept as a single timestamp: the time at which the bucket would be full
+// again (the GCRA formulation). Taking a token is one compare-and-set, so concurrent
+// requests of the same client never block each other.
+public class TokenBucket {
+    
+    private final long capacity;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+    
+    public record Decision(boolean allowed, long remaining, long resetNanos, long retryAfterNanos) {}
+    
+    public TokenBucket(long capacity, long refillTokens, Duration refillPeriod, long nowNanos) {
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, refillPeriod.toNanos() / refillTokens);
+        this.burstNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+    
+    public Decision tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - nowNanos > 0 ? current : nowNanos) + nanosPerToken;
+            long allowedAt = next - burstNanos;
+            if (allowedAt - nowNanos > 0) {
+                return new Decision(false, 0, Math.max(0, current - nowNanos), allowedAt - nowNanos);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                long remaining = Math.min(capacity, (nowNanos + burstNanos - next) / nanosPerToken);
+                return new Decision(true, remaining, next - nowNanos, 0);
+            }
+        }
+    }
+    
+    public long getCapacity() {
+        return capacity;
+    }
+}
\ No newline at end of file
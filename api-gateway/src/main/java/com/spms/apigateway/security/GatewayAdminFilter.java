@@ -0,0 +1,82 @@
+package com.spms.apigateway.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+// The gateway's own endpoints are not routes, so JwtAuthenticationFilter never sees them.
+// Purging the response cache and pushing domain events take an ADMIN token or the service
+// token the services send with their events. With no service token configured, events are
+// only taken from the gateway's own host.
+@Component
+public class GatewayAdminFilter implements WebFilter {
+    
+    public static final String SERVICE_TOKEN_HEADER = "X-SPMS-Service-Token";
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ADMIN = "ADMIN";
+    
+    @Autowired
+    private ReactiveJwtDecoder jwtDecoder;
+    
+    @Value("${spms.gateway.service-token:}")
+    private String serviceToken;
+    
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        boolean events = path.startsWith("/api/gateway/events");
+        boolean cachePurge = path.startsWith("/api/gateway/cache") && !HttpMethod.GET.equals(request.getMethod());
+        if (!events && !cachePurge) {
+            return chain.filter(exchange);
+        }
+        
+        if (hasServiceToken(request) || (events && !StringUtils.hasText(serviceToken) && fromLocalHost(request))) {
+            return chain.filter(exchange);
+        }
+        
+        String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED);
+        }
+        return jwtDecoder.decode(authorization.substring(BEARER_PREFIX.length()).trim())
+                .flatMap(jwt -> ADMIN.equals(jwt.getClaimAsString("userType"))
+                        ? chain.filter(exchange)
+                        : reject(exchange, HttpStatus.FORBIDDEN))
+                .onErrorResume(JwtException.class, e -> reject(exchange, HttpStatus.UNAUTHORIZED));
+    }
+    
+    private boolean hasServiceToken(ServerHttpRequest request) {
+        String presented = request.getHeaders().getFirst(SERVICE_TOKEN_HEADER);
+        return StringUtils.hasText(serviceToken) && presented != null
+                && MessageDigest.isEqual(serviceToken.getBytes(StandardCharsets.UTF_8),
+                        presented.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private boolean fromLocalHost(ServerHttpRequest request) {
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                && remoteAddress.getAddress().isLoopbackAddress();
+    }
+    
+    private Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        return exchange.getResponse().setComplete();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package com.spms.apigateway.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Every user-service instance signs with its own key pair, so the gateway needs the public keys
+// of all of them. An lb://<service-id>/<path> JWK set URI is fetched from every registered instance
+// and the sets are merged. A token with a key ID not seen yet triggers a refetch, at most once per
+// refresh-interval, so made-up key IDs cannot turn every request into a round of calls. A key that
+// a refresh no longer finds, because its instance went away, is kept for key-retention from that
+// refresh on. Its tokens were issued before then, so with key-retention at least the token TTL
+// they stay valid until they expire, however long ago the key was last refreshed.
+@Component
+public class UserServiceJwkSource implements Function<SignedJWT, Flux<JWK>> {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserServiceJwkSource.class);
+    
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final WebClient webClient = WebClient.create();
+    private final URI jwkSetUri;
+    private final Duration refreshInterval;
+    private final Duration keyRetention;
+    private final Duration fetchTimeout;
+    
+    private final Map<String, KnownKey> keys = new ConcurrentHashMap<>();
+    private Mono<Void> refreshing;
+    private long lastRefreshNanos;
+    private boolean refreshed;
+    
+    // missingSince is null while the key is served
+    private record KnownKey(JWK key, Instant missingSince) {}
+    
+    public UserServiceJwkSource(ReactiveDiscoveryClient discoveryClient,
+                                @Value("${spms.jwt.jwk-set-uri}") URI jwkSetUri,
+                                @Value("${spms.jwt.refresh-interval:10s}") Duration refreshInterval,
+                                @Value("${spms.jwt.key-retention:30m}") Duration keyRetention,
+                                @Value("${spms.jwt.fetch-timeout:2s}") Duration fetchTimeout) {
+        this.discoveryClient = discoveryClient;
+        this.jwkSetUri = jwkSetUri;
+        this.refreshInterval = refreshInterval;
+        this.keyRetention = keyRetention;
+        this.fetchTimeout = fetchTimeout;
+    }
+    
+    @Override
+    public Flux<JWK> apply(SignedJWT jwt) {
+        String keyId = jwt.getHeader().getKeyID();
+        if (keyId == null) {
+            return Flux.empty();
+        }
+        KnownKey cached = keys.get(keyId);
+        if (cached != null) {
+            return Flux.just(cached.key());
+        }
+        return refresh().thenMany(Flux.defer(() -> {
+            KnownKey known = keys.get(keyId);
+            return known != null ? Flux.just(known.key()) : Flux.empty();
+        }));
+    }
+    
+    // Requests with unknown key IDs that arrive together share one refresh
+    private synchronized Mono<Void> refresh() {
+        if (refreshing != null) {
+            return refreshing;
+        }
+        long now = System.nanoTime();
+        if (refreshed && now - lastRefreshNanos < refreshInterval.toNanos()) {
+            return Mono.empty();
+        }
+        refreshed = true;
+        lastRefreshNanos = now;
+        refreshing = fetchAll()
+                .doFinally(signal -> {
+                    synchronized (this) {
+                        refreshing = null;
+                    }
+                })
+                .cache();
+        return refreshing;
+    }
+    
+    private Mono<Void> fetchAll() {
+        Instant now = Instant.now();
+        Flux<URI> targets = !"lb".equals(jwkSetUri.getScheme())
+                ? Flux.just(jwkSetUri)
+                : discoveryClient.getInstances(jwkSetUri.getHost())
+                        .map(instance -> UriComponentsBuilder.fromUri(instance.getUri())
+                                .path(jwkSetUri.getPath())
+                                .build()
+                                .toUri());
+        return targets
+                .flatMap(target -> fetch(target)
+                        .onErrorResume(e -> {
+                            log.warn("Could not fetch the JWK set from {}: {}", target, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .collectList()
+                .doOnNext(jwkSets -> update(jwkSets, now))
+                .then();
+    }
+    
+    // A refresh that reached no instance says nothing about which keys went away
+    private void update(List<JWKSet> jwkSets, Instant now) {
+        if (jwkSets.isEmpty()) {
+            return;
+        }
+        Set<String> served = new HashSet<>();
+        for (JWKSet jwkSet : jwkSets) {
+            for (JWK key : jwkSet.getKeys()) {
+                served.add(key.getKeyID());
+                keys.put(key.getKeyID(), new KnownKey(key, null));
+            }
+        }
+        Instant expired = now.minus(keyRetention);
+        keys.replaceAll((keyId, known) -> served.contains(keyId) || known.missingSince() != null
+                ? known
+                : new KnownKey(known.key(), now));
+        keys.values().removeIf(known -> known.missingSince() != null && known.missingSince().isBefore(expired));
+    }
+    
+    private Mono<JWKSet> fetch(URI target) {
+        return webClient.get()
+                .uri(target)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(fetchTimeout)
+                .flatMap(body -> Mono.fromCallable(() -> JWKSet.parse(body)));
+    }
+}
\ No newline at end of file
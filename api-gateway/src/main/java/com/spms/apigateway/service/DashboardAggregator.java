@@ -0,0 +1,111 @@
+package com.spms.apigateway.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class DashboardAggregator {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardAggregator.class);
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_ARRAY =
+            new ParameterizedTypeReference<>() {};
+    
+    private final WebClient webClient;
+    private final Duration callTimeout;
+    private final int recentPayments;
+    private final Timer latencyTimer;
+    
+    public DashboardAggregator(@LoadBalanced WebClient.Builder webClientBuilder,
+                               @Value("${spms.dashboard.call-timeout:1s}") Duration callTimeout,
+                               @Value("${spms.dashboard.recent-payments:5}") int recentPayments,
+                               MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.callTimeout = callTimeout;
+        this.recentPayments = recentPayments;
+        this.latencyTimer = Timer.builder("dashboard.latency")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+    }
+    
+    // All four calls start at once and each is bounded by the call timeout, so the
+    // dashboard takes as long as its slowest section. A failed section is reported as
+    // unavailable instead of failing the whole dashboard; only an unknown user is empty.
+    public Mono<Map<String, Object>> getDashboard(Long userId) {
+        Mono<Map<String, Object>> dashboard = Mono.zip(
+                section(get("http://user-service/api/users/{id}", userId, JSON_OBJECT)),
+                section(get("http://vehicle-service/api/vehicles/user/{id}", userId, JSON_ARRAY)),
+                section(get("http://vehicle-service/api/vehicles/parked/user/{id}", userId, JSON_ARRAY)),
+                section(get("http://payment-service/api/payments/user/{id}", userId, JSON_ARRAY).map(this::mostRecent))
+        ).flatMap(sections -> {
+            if (sections.getT1().error() instanceof WebClientResponseException.NotFound) {
+                return Mono.<Map<String, Object>>empty();
+            }
+            
+            Map<String, Object> result = new LinkedHashMap<>();
+            List<String> unavailable = new ArrayList<>();
+            result.put("userId", userId);
+            put(result, unavailable, "user", sections.getT1());
+            put(result, unavailable, "vehicles", sections.getT2());
+            put(result, unavailable, "parkedVehicles", sections.getT3());
+            put(result, unavailable, "recentPayments", sections.getT4());
+            result.put("unavailable", unavailable);
+            return Mono.just(result);
+        });
+        
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return dashboard.doFinally(signal -> latencyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        });
+    }
+    
+    private <T> Mono<T> get(String uri, Long userId, ParameterizedTypeReference<T> type) {
+        return webClient.get()
+                .uri(uri, userId)
+                .retrieve()
+                .bodyToMono(type)
+                .timeout(callTimeout);
+    }
+    
+    private List<Map<String, Object>> mostRecent(List<Map<String, Object>> payments) {
+        // Payment IDs increase with creation time, and compare reliably unlike the timestamps
+        return payments.stream()
+                .sorted(Comparator.comparingLong((Map<String, Object> payment) ->
+                        ((Number) payment.get("id")).longValue()).reversed())
+                .limit(recentPayments)
+                .toList();
+    }
+    
+    private Mono<Section> section(Mono<?> call) {
+        return call.<Section>map(body -> new Section(body, null))
+                .defaultIfEmpty(new Section(null, null))
+                .onErrorResume(e -> Mono.just(new Section(null, e)));
+    }
+    
+    private void put(Map<String, Object> result, List<String> unavailable, String name, Section section) {
+        result.put(name, section.body());
+        if (section.error() != null) {
+            log.warn("Dashboard section {} unavailable: {}", name, section.error().toString());
+            unavailable.add(name);
+        }
+    }
+    
+    private record Section(Object body, Throwable error) {}
+}
\ No newline at end of file
@@ -0,0 +1,279 @@
+package com.spms.apigateway.service;
+
+import com.spms.apigateway.cache.ResponseCache;
+import com.spms.apigateway.dto.CheckInRequest;
+import com.spms.apigateway.dto.CheckOutRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Service
+public class ParkingFlowOrchestrator {
+    
+    private static final Logger log = LoggerFactory.getLogger(ParkingFlowOrchestrator.class);
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_OBJECT =
+            new ParameterizedTypeReference<>() {};
+    
+    private final WebClient webClient;
+    private final ResponseCache responseCache;
+    private final Duration callTimeout;
+    private final Timer checkInTimer;
+    private final Timer checkOutTimer;
+    
+    public ParkingFlowOrchestrator(@LoadBalanced WebClient.Builder webClientBuilder,
+                                   ResponseCache responseCache,
+                                   @Value("${spms.orchestration.call-timeout:3s}") Duration callTimeout,
+                                   MeterRegistry meterRegistry) {
+        this.webClient = webClientBuilder.build();
+        this.responseCache = responseCache;
+        this.callTimeout = callTimeout;
+        this.checkInTimer = Timer.builder("parking.flow.latency").tag("flow", "check-in")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+        this.checkOutTimer = Timer.builder("parking.flow.latency").tag("flow", "check-out")
+                .publishPercentiles(0.5, 0.99).register(meterRegistry);
+    }
+    
+    // Vehicle entry and space occupation do not depend on each other and run in parallel.
+    // The payment needs the owner from the vehicle and the rate from the space, so it
+    // runs once both have succeeded. Any failure undoes the steps that did succeed. A step
+    // that timed out is undone too unless the vehicle already held the space before this
+    // flow, and every undo is guarded so it only reverts this vehicle in this space.
+    public Mono<Map<String, Object>> checkIn(CheckInRequest request) {
+        Long vehicleId = request.getVehicleId();
+        Long parkingSpaceId = request.getParkingSpaceId();
+        Mono<Map<String, Object>> flow = Mono.zip(
+                attempt(enterVehicle(vehicleId, parkingSpaceId)),
+                attempt(occupySpace(parkingSpaceId, vehicleId))
+        ).flatMap(steps -> {
+            Outcome vehicle = steps.getT1();
+            Outcome space = steps.getT2();
+            
+            if (vehicle.failed() || space.failed()) {
+                String step = vehicle.failed() ? "vehicle entry" : "parking space occupation";
+                Throwable cause = vehicle.failed() ? vehicle.error() : space.error();
+                return compensate(
+                        undoCheckInStep(vehicle, space, spaceOccupiedBy(parkingSpaceId, vehicleId),
+                                exitVehicle(vehicleId, parkingSpaceId)),
+                        undoCheckInStep(space, vehicle, vehicleParkedIn(vehicleId, parkingSpaceId),
+                                releaseSpace(parkingSpaceId, vehicleId))
+                ).then(Mono.<Map<String, Object>>error(new RuntimeException("Check-in failed at " + step, cause)));
+            }
+            
+            return createPayment(request, vehicle.body(), space.body())
+                    .onErrorResume(e -> compensate(
+                            exitVehicle(vehicleId, parkingSpaceId),
+                            releaseSpace(parkingSpaceId, vehicleId)
+                    ).then(Mono.<Map<String, Object>>error(new RuntimeException("Check-in failed at payment creation", e))))
+                    .map(payment -> {
+                        Map<String, Object> result = new HashMap<>();
+                        result.put("vehicle", vehicle.body());
+                        result.put("parkingSpace", space.body());
+                        result.put("payment", payment);
+                        return result;
+                    });
+        });
+        return timed(flow, checkInTimer, vehicleId, parkingSpaceId);
+    }
+    
+    // Exit and release only apply while the vehicle is parked in the space and holds it, so
+    // a step that succeeded proves the vehicle was checked in there. A step that timed out
+    // is only undone once the other side shows that too; otherwise it cannot have applied.
+    public Mono<Map<String, Object>> checkOut(CheckOutRequest request) {
+        Long vehicleId = request.getVehicleId();
+        Long parkingSpaceId = request.getParkingSpaceId();
+        Mono<Map<String, Object>> flow = Mono.zip(
+                attempt(exitVehicle(vehicleId, parkingSpaceId)),
+                attempt(releaseSpace(parkingSpaceId, vehicleId))
+        ).flatMap(steps -> {
+            Outcome vehicle = steps.getT1();
+            Outcome space = steps.getT2();
+            
+            if (vehicle.failed() || space.failed()) {
+                String step = vehicle.failed() ? "vehicle exit" : "parking space release";
+                Throwable cause = vehicle.failed() ? vehicle.error() : space.error();
+                return compensate(
+                        undoCheckOutStep(vehicle, space, spaceOccupiedBy(parkingSpaceId, vehicleId),
+                                enterVehicle(vehicleId, parkingSpaceId)),
+                        undoCheckOutStep(space, vehicle, vehicleParkedIn(vehicleId, parkingSpaceId),
+                                occupySpace(parkingSpaceId, vehicleId))
+                ).then(Mono.<Map<String, Object>>error(new RuntimeException("Check-out failed at " + step, cause)));
+            }
+            
+            Map<String, Object> result = new HashMap<>();
+            result.put("vehicle", vehicle.body());
+            result.put("parkingSpace", space.body());
+            return Mono.just(result);
+        });
+        return timed(flow, checkOutTimer, vehicleId, parkingSpaceId);
+    }
+    
+    // A rejected other step means the vehicle or the space was taken before this flow. If
+    // it was taken by this very pairing, the timed-out step was rejected as well and the
+    // state it would undo is not this flow's.
+    private Mono<Map<String, Object>> undoCheckInStep(Outcome step, Outcome other, Mono<Boolean> alreadyPaired,
+                                                      Mono<Map<String, Object>> undo) {
+        if (!step.failed()) {
+            return undo;
+        }
+        if (!step.timedOut()) {
+            return Mono.empty();
+        }
+        if (!other.failed() || other.timedOut()) {
+            return undo;
+        }
+        return alreadyPaired.flatMap(paired -> paired ? Mono.<Map<String, Object>>empty() : undo);
+    }
+    
+    // When both steps timed out, the side still showing the pairing was not changed, so it
+    // was checked in and the timed-out step on the other side may have applied
+    private Mono<Map<String, Object>> undoCheckOutStep(Outcome step, Outcome other, Mono<Boolean> stillPaired,
+                                                       Mono<Map<String, Object>> undo) {
+        if (!step.failed()) {
+            return undo;
+        }
+        if (!step.timedOut() || (other.failed() && !other.timedOut())) {
+            return Mono.empty();
+        }
+        if (!other.failed()) {
+            return undo;
+        }
+        return stillPaired.flatMap(paired -> paired ? undo : Mono.<Map<String, Object>>empty());
+    }
+    
+    private Mono<Map<String, Object>> enterVehicle(Long vehicleId, Long parkingSpaceId) {
+        return webClient.put()
+                .uri("http://vehicle-service/api/vehicles/{id}/entry", vehicleId)
+                .bodyValue(Map.of("parkingSpaceId", parkingSpaceId))
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(callTimeout);
+    }
+    
+    private Mono<Map<String, Object>> exitVehicle(Long vehicleId, Long parkingSpaceId) {
+        return webClient.put()
+                .uri("http://vehicle-service/api/vehicles/{id}/exit?parkingSpaceId={parkingSpaceId}",
+                        vehicleId, parkingSpaceId)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(callTimeout);
+    }
+    
+    private Mono<Map<String, Object>> occupySpace(Long parkingSpaceId, Long vehicleId) {
+        return webClient.put()
+                .uri("http://parking-space-service/api/parking-spaces/{id}/occupy?vehicleId={vehicleId}",
+                        parkingSpaceId, vehicleId)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(callTimeout);
+    }
+    
+    private Mono<Map<String, Object>> releaseSpace(Long parkingSpaceId, Long vehicleId) {
+        return webClient.put()
+                .uri("http://parking-space-service/api/parking-spaces/{id}/release?vehicleId={vehicleId}",
+                        parkingSpaceId, vehicleId)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(callTimeout);
+    }
+    
+    private Mono<Boolean> vehicleParkedIn(Long vehicleId, Long parkingSpaceId) {
+        return webClient.get()
+                .uri("http://vehicle-service/api/vehicles/{id}", vehicleId)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(callTimeout)
+                .map(vehicle -> sameId(vehicle.get("currentParkingSpaceId"), parkingSpaceId));
+    }
+    
+    private Mono<Boolean> spaceOccupiedBy(Long parkingSpaceId, Long vehicleId) {
+        return webClient.get()
+                .uri("http://parking-space-service/api/parking-spaces/{id}", parkingSpaceId)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(callTimeout)
+                .map(space -> "OCCUPIED".equals(space.get("status"))
+                        && sameId(space.get("occupiedByVehicleId"), vehicleId));
+    }
+    
+    private static boolean sameId(Object value, Long id) {
+        return value instanceof Number number && number.longValue() == id;
+    }
+    
+    private Mono<Map<String, Object>> createPayment(CheckInRequest request, Map<String, Object> vehicle,
+                                                    Map<String, Object> space) {
+        BigDecimal hourlyRate = new BigDecimal(String.valueOf(space.get("hourlyRate")));
+        int durationHours = request.getParkingDurationHours();
+        
+        Map<String, Object> payment = new HashMap<>();
+        payment.put("userId", vehicle.get("userId"));
+        payment.put("vehicleId", request.getVehicleId());
+        payment.put("parkingSpaceId", request.getParkingSpaceId());
+        payment.put("parkingDurationHours", durationHours);
+        payment.put("hourlyRate", hourlyRate);
+        payment.put("amount", hourlyRate.multiply(BigDecimal.valueOf(durationHours)));
+        payment.put("paymentMethod", request.getPaymentMethod());
+        
+        return webClient.post()
+                .uri("http://payment-service/api/payments")
+                .bodyValue(payment)
+                .retrieve()
+                .bodyToMono(JSON_OBJECT)
+                .timeout(callTimeout);
+    }
+    
+    private Mono<Void> compensate(Mono<Map<String, Object>> first, Mono<Map<String, Object>> second) {
+        return Mono.when(
+                first.onErrorResume(e -> {
+                    log.error("Compensation step failed", e);
+                    return Mono.empty();
+                }),
+                second.onErrorResume(e -> {
+                    log.error("Compensation step failed", e);
+                    return Mono.empty();
+                }));
+    }
+    
+    private Mono<Outcome> attempt(Mono<Map<String, Object>> step) {
+        return step.map(body -> new Outcome(body, null))
+                .onErrorResume(e -> Mono.just(new Outcome(null, e)));
+    }
+    
+    // The flow calls the services directly rather than through the cached routes, so the
+    // vehicle and space it changed are dropped from the gateway cache here. Listings that
+    // include them are dropped when the services' domain events reach the gateway.
+    private <T> Mono<T> timed(Mono<T> flow, Timer timer, Long vehicleId, Long parkingSpaceId) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return flow.doFinally(signal -> {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                responseCache.invalidatePath("/api/vehicles/" + vehicleId);
+                responseCache.invalidatePath("/api/parking-spaces/" + parkingSpaceId);
+            });
+        });
+    }
+    
+    private record Outcome(Map<String, Object> body, Throwable error) {
+        boolean failed() {
+            return error != null;
+        }
+        
+        // The service may still have applied a step the flow stopped waiting for
+        boolean timedOut() {
+            return error instanceof TimeoutException;
+        }
+    }
+}
\ No newline at end of file
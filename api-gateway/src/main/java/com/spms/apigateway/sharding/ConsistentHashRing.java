@@ -0,0 +1,45 @@
+package com.spms.apigateway.sharding;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Each node is placed on the ring at virtualNodes points, and a key belongs to the first
+// node point at or after its own hash. Adding a node therefore only takes over the keys
+// just before its points, about 1/n of them, instead of reshuffling everything.
+public class ConsistentHashRing<T> {
+    
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+    
+    public ConsistentHashRing(Collection<T> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        for (T node : nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(node + "#" + i), node);
+            }
+        }
+    }
+    
+    public T nodeFor(String key) {
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+    
+    // MD5 rather than String.hashCode: the placement has to be well spread and identical
+    // on every gateway instance and across releases
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
\ No newline at end of file
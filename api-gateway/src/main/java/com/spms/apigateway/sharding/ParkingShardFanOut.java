@@ -0,0 +1,156 @@
+package com.spms.apigateway.sharding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Answers parking-space-service reads that span every shard by asking each shard and
+// merging the answers. Every shard has to answer: a partial list would look complete.
+@Service
+public class ParkingShardFanOut {
+    
+    private static final Comparator<JsonNode> BY_ID = Comparator.comparingLong(node -> node.path("id").asLong());
+    private static final Comparator<JsonNode> BY_RATE = Comparator.<JsonNode>comparingDouble(
+            node -> node.path("hourlyRate").asDouble()).thenComparing(BY_ID);
+    
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final ParkingShards parkingShards;
+    private final Duration callTimeout;
+    
+    public ParkingShardFanOut(@LoadBalanced WebClient.Builder webClientBuilder,
+                              ObjectMapper objectMapper,
+                              ParkingShards parkingShards,
+                              @Value("${spms.gateway.parking-shards.call-timeout:3s}") Duration callTimeout) {
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.parkingShards = parkingShards;
+        this.callTimeout = callTimeout;
+    }
+    
+    // Lists concatenated in id order
+    public Mono<ShardResponse> mergeLists(URI uri) {
+        return getFromAllShards(uri).map(responses -> {
+            Optional<ShardResponse> failed = responses.stream().filter(response -> response.status() != 200).findFirst();
+            if (failed.isPresent()) {
+                return failed.get();
+            }
+            List<JsonNode> items = new ArrayList<>();
+            responses.forEach(response -> read(response).forEach(items::add));
+            items.sort(BY_ID);
+            return ok(objectMapper.createArrayNode().addAll(items));
+        });
+    }
+    
+    // The one shard that has it, for lookups by a unique attribute other than the id
+    public Mono<ShardResponse> findFirst(URI uri) {
+        return getFromAllShards(uri).map(responses -> responses.stream()
+                .filter(response -> response.status() == 200)
+                .findFirst()
+                .or(() -> responses.stream().filter(response -> response.status() != 404).findFirst())
+                .orElse(responses.get(0)));
+    }
+    
+    // Each shard returns its own top `limit`, so the merged top `limit` is among them
+    public Mono<ShardResponse> mergeSearch(URI uri, MultiValueMap<String, String> query) {
+        Comparator<JsonNode> order = switch (query.getFirst("sort") == null ? "id" : query.getFirst("sort")) {
+            case "hourlyRate" -> BY_RATE;
+            case "-hourlyRate" -> BY_RATE.reversed();
+            default -> BY_ID;
+        };
+        int limit = Math.max(1, Math.min(parseLimit(query.getFirst("limit")), 1000));
+        
+        return getFromAllShards(uri).map(responses -> {
+            Optional<ShardResponse> failed = responses.stream().filter(response -> response.status() != 200).findFirst();
+            if (failed.isPresent()) {
+                return failed.get();
+            }
+            int total = 0;
+            List<JsonNode> items = new ArrayList<>();
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (ShardResponse response : responses) {
+                JsonNode result = read(response);
+                total += result.path("total").asInt();
+                result.path("items").forEach(items::add);
+                for (Iterator<Map.Entry<String, JsonNode>> facet = result.path("facets").fields(); facet.hasNext(); ) {
+                    Map.Entry<String, JsonNode> entry = facet.next();
+                    Map<String, Integer> counts = facets.computeIfAbsent(entry.getKey(), key -> new LinkedHashMap<>());
+                    entry.getValue().fields().forEachRemaining(count -> counts.merge(count.getKey(), count.getValue().asInt(), Integer::sum));
+                }
+            }
+            items.sort(order);
+            
+            ObjectNode merged = objectMapper.createObjectNode();
+            merged.put("total", total);
+            merged.putArray("items").addAll(items.subList(0, Math.min(limit, items.size())));
+            ObjectNode mergedFacets = merged.putObject("facets");
+            facets.forEach((name, counts) -> {
+                ObjectNode facet = mergedFacets.putObject(name);
+                counts.entrySet().stream()
+                        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                        .forEach(count -> facet.put(count.getKey(), count.getValue()));
+            });
+            return ok(merged);
+        });
+    }
+    
+    private Mono<List<ShardResponse>> getFromAllShards(URI uri) {
+        return Flux.fromIterable(parkingShards.shards())
+                .flatMapSequential(shard -> webClient.get()
+                        .uri(URI.create("http://" + ParkingShards.SERVICE_ID + uri.getRawPath()
+                                + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "")))
+                        .header(ParkingShards.SHARD_HEADER, String.valueOf(shard))
+                        .exchangeToMono(response -> response.bodyToMono(byte[].class)
+                                .defaultIfEmpty(new byte[0])
+                                .map(body -> new ShardResponse(response.statusCode().value(), body)))
+                        .timeout(callTimeout))
+                .collectList();
+    }
+    
+    private JsonNode read(ShardResponse response) {
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private ShardResponse ok(JsonNode body) {
+        try {
+            return new ShardResponse(HttpStatus.OK.value(), objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private int parseLimit(String limit) {
+        try {
+            return limit == null ? 20 : Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            return 20;
+        }
+    }
+    
+    public record ShardResponse(int status, byte[] body) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.spms.apigateway.sharding;
+
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+// Registered for parking-space-service only, through @LoadBalancerClient, so deliberately
+// not a @Configuration picked up by component scanning
+public class ParkingShardLoadBalancerConfiguration {
+    
+    @Bean
+    public ServiceInstanceListSupplier parkingShardServiceInstanceListSupplier(ConfigurableApplicationContext context) {
+        // Caching has to sit below the shard filter: the caching supplier drops the request
+        return ServiceInstanceListSupplier.builder()
+                .withDiscoveryClient()
+                .withCaching()
+                .with((ctx, delegate) -> new ShardServiceInstanceListSupplier(delegate, ctx.getBean(ParkingShards.class)))
+                .build(context);
+    }
+}
\ No newline at end of file
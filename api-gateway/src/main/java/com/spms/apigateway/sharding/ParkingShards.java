@@ -0,0 +1,78 @@
+package com.spms.apigateway.sharding;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+// Parking spaces are split across shards by city. A city's shard comes from a consistent
+// hash ring over the shard numbers; a space's shard is in the top bits of its id, which
+// parking-space-service instances allocate from their shard's range.
+@Component
+public class ParkingShards {
+    
+    public static final String SERVICE_ID = "parking-space-service";
+    // Set by the gateway when the shard is not in the path, such as for creating a space
+    public static final String SHARD_HEADER = "X-SPMS-Shard";
+    // Eureka metadata; instances without it belong to shard 0
+    public static final String METADATA_KEY = "shard";
+    
+    private static final int SHARD_SHIFT = 40;
+    private static final Pattern ID_PATH = Pattern.compile("^/api/parking-spaces/(\\d+)(?:/.*)?$");
+    private static final Pattern CITY_PATH = Pattern.compile("^/api/parking-spaces/(?:.+/)?city/([^/]+)(?:/.*)?$");
+    
+    private final int count;
+    private final ConsistentHashRing<Integer> ring;
+    
+    public ParkingShards(@Value("${spms.gateway.parking-shards.count:1}") int count,
+                         @Value("${spms.gateway.parking-shards.virtual-nodes:160}") int virtualNodes) {
+        this.count = count;
+        this.ring = new ConsistentHashRing<>(IntStream.range(0, count).boxed().toList(), virtualNodes);
+    }
+    
+    public boolean isSharded() {
+        return count > 1;
+    }
+    
+    public List<Integer> shards() {
+        return IntStream.range(0, count).boxed().toList();
+    }
+    
+    public int shardOfId(long id) {
+        return (int) (id >>> SHARD_SHIFT);
+    }
+    
+    // Cities compare case-insensitively in the database, so they must hash the same way too
+    public int shardOfCity(String city) {
+        return ring.nodeFor(city.trim().toLowerCase(Locale.ROOT));
+    }
+    
+    // The shard a parking-space-service request has to go to, if only one shard can answer it.
+    // Takes the decoded path.
+    public Optional<Integer> shardOf(String path, HttpHeaders headers) {
+        String shard = headers.getFirst(SHARD_HEADER);
+        if (shard != null) {
+            return Optional.of(Integer.parseInt(shard));
+        }
+        Matcher id = ID_PATH.matcher(path);
+        if (id.matches()) {
+            return Optional.of(shardOfId(Long.parseLong(id.group(1))));
+        }
+        Matcher city = CITY_PATH.matcher(path);
+        if (city.matches()) {
+            return Optional.of(shardOfCity(city.group(1)));
+        }
+        return Optional.empty();
+    }
+    
+    public static int shardOf(ServiceInstance instance) {
+        return Integer.parseInt(instance.getMetadata().getOrDefault(METADATA_KEY, "0"));
+    }
+}
\ No newline at end of file
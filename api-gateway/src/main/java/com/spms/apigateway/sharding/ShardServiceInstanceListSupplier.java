@@ -0,0 +1,49 @@
+package com.spms.apigateway.sharding;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Optional;
+
+// Narrows parking-space-service instances to the shard a request belongs to. Unlike Spring
+// Cloud's hint-based supplier it never falls back to other instances: a shard with nothing
+// up gets no instances, and so a 503, rather than a write landing in the wrong database.
+public class ShardServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+    
+    private final ParkingShards parkingShards;
+    
+    public ShardServiceInstanceListSupplier(ServiceInstanceListSupplier delegate, ParkingShards parkingShards) {
+        super(delegate);
+        this.parkingShards = parkingShards;
+    }
+    
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get();
+    }
+    
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        Optional<Integer> shard = shardOf(request);
+        if (shard.isEmpty()) {
+            return delegate.get(request);
+        }
+        return delegate.get(request).map(instances -> instances.stream()
+                .filter(instance -> ParkingShards.shardOf(instance) == shard.get())
+                .toList());
+    }
+    
+    private Optional<Integer> shardOf(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+            return Optional.empty();
+        }
+        RequestData clientRequest = context.getClientRequest();
+        return parkingShards.shardOf(clientRequest.getUrl().getPath(), clientRequest.getHeaders());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.spms.apigateway;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// vehicle-service answers after 10s, far past its route's 3s timeout; parking-space-service
+// answers at once. The slow route has to fail fast on its own without holding up the other.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spms.config.import=optional:file:no-config-server.properties",
+        "spring.cloud.config.enabled=false",
+        "eureka.client.enabled=false",
+        "resilience4j.bulkhead.instances.vehicle-service.max-concurrent-calls=" + RouteIsolationTest.VEHICLE_BULKHEAD
+})
+class RouteIsolationTest {
+    
+    static final int VEHICLE_BULKHEAD = 4;
+    
+    private static final Duration SLOW_BACKEND_DELAY = Duration.ofSeconds(10);
+    private static final Duration ROUTE_TIMEOUT = Duration.ofSeconds(3);
+    
+    private static final WireMockServer vehicleService = new WireMockServer(options().dynamicPort());
+    private static final WireMockServer parkingSpaceService = new WireMockServer(options().dynamicPort());
+    
+    @LocalServerPort
+    private int port;
+    
+    @DynamicPropertySource
+    static void backends(DynamicPropertyRegistry registry) {
+        vehicleService.start();
+        vehicleService.stubFor(get(urlPathMatching("/api/vehicles/.*"))
+                .willReturn(okJson("{\"id\":1}").withFixedDelay((int) SLOW_BACKEND_DELAY.toMillis())));
+        parkingSpaceService.start();
+        parkingSpaceService.stubFor(get(urlPathMatching("/api/parking-spaces/.*"))
+                .willReturn(okJson("{\"id\":1}")));
+        
+        registry.add("spring.cloud.discovery.client.simple.instances.vehicle-service[0].uri", vehicleService::baseUrl);
+        registry.add("spring.cloud.discovery.client.simple.instances.parking-space-service[0].uri", parkingSpaceService::baseUrl);
+    }
+    
+    @AfterAll
+    static void stopBackends() {
+        vehicleService.stop();
+        parkingSpaceService.stop();
+    }
+    
+    @Test
+    void slowRouteFallsBackAtItsTimeout() {
+        long start = System.nanoTime();
+        ResponseEntity<String> response = call("/api/vehicles/timeout");
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).contains("vehicle-service is temporarily unavailable");
+        assertThat(elapsed).isLessThan(ROUTE_TIMEOUT.plusSeconds(2));
+    }
+    
+    // Each slow request has its own path, so none of them share a flight or a cached response
+    @Test
+    void fullBulkheadRejectsAtOnceWhileOtherRoutesStayFast() throws Exception {
+        List<CompletableFuture<ResponseEntity<String>>> inFlight = new ArrayList<>();
+        for (int i = 0; i < VEHICLE_BULKHEAD; i++) {
+            inFlight.add(send("/api/vehicles/held-" + i).toFuture());
+        }
+        awaitRequestsAtVehicleService(VEHICLE_BULKHEAD);
+        
+        long start = System.nanoTime();
+        ResponseEntity<String> rejected = call("/api/vehicles/over-the-cap");
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(rejected.getBody()).contains("Too many concurrent requests");
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        
+        start = System.nanoTime();
+        ResponseEntity<String> other = call("/api/parking-spaces/1");
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+        
+        for (CompletableFuture<ResponseEntity<String>> held : inFlight) {
+            assertThat(held.get().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+    
+    private ResponseEntity<String> call(String path) {
+        return send(path).block(SLOW_BACKEND_DELAY);
+    }
+    
+    private Mono<ResponseEntity<String>> send(String path) {
+        return WebClient.create("http://localhost:" + port)
+                .get()
+                .uri(path)
+                .retrieve()
+                .onStatus(status -> true, clientResponse -> Mono.empty())
+                .toEntity(String.class);
+    }
+    
+    private void awaitRequestsAtVehicleService(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (vehicleService.findAll(getRequestedFor(urlPathMatching("/api/vehicles/held-.*"))).size() < count) {
+            assertThat(System.nanoTime()).as("requests held at vehicle-service").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
\ No newline at end of file
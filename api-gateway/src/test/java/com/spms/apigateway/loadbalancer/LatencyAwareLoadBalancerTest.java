@@ -0,0 +1,77 @@
+package com.spms.apigateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The slowed-instance run of the load test, without the services: one of two vehicle-service
+// instances answers in 300ms instead of 10ms, and every choice is fed back as a completed call
+class LatencyAwareLoadBalancerTest {
+    
+    private static final long FAST_NANOS = Duration.ofMillis(10).toNanos();
+    private static final long SLOW_NANOS = Duration.ofMillis(300).toNanos();
+    private static final int REQUESTS = 1000;
+    
+    private final ServiceInstance fast = new DefaultServiceInstance("vehicle-service-1", "vehicle-service", "fast", 8082, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("vehicle-service-2", "vehicle-service", "slow", 8082, false);
+    private final InstanceLatencyTracker latencyTracker = new InstanceLatencyTracker(Duration.ofSeconds(10), Duration.ofSeconds(1));
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+            new StaticListableBeanFactory(Map.<String, Object>of("instances", ServiceInstanceListSuppliers.from("vehicle-service", fast, slow)))
+                    .getBeanProvider(ServiceInstanceListSupplier.class),
+            latencyTracker);
+    
+    @Test
+    void slowedInstanceGetsAlmostNoTraffic() {
+        int slowCalls = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            ServiceInstance chosen = choose();
+            latencyTracker.onStart(chosen);
+            latencyTracker.onComplete(chosen, chosen == slow ? SLOW_NANOS : FAST_NANOS, false);
+            if (chosen == slow) {
+                slowCalls++;
+            }
+        }
+        
+        // An instance not measured yet is tried once; after that its latency keeps it out
+        assertThat(slowCalls).isLessThanOrEqualTo(1);
+    }
+    
+    @Test
+    void failingInstanceIsAvoided() {
+        latencyTracker.onStart(slow);
+        latencyTracker.onComplete(slow, Duration.ofMillis(1).toNanos(), true);
+        latencyTracker.onStart(fast);
+        latencyTracker.onComplete(fast, FAST_NANOS, false);
+        
+        for (int i = 0; i < REQUESTS; i++) {
+            assertThat(choose()).isSameAs(fast);
+        }
+    }
+    
+    // 10ms with 40 requests already waiting on it costs more than 300ms with none
+    @Test
+    void queuedUpInstanceSendsTrafficToTheOther() {
+        latencyTracker.onStart(slow);
+        latencyTracker.onComplete(slow, SLOW_NANOS, false);
+        latencyTracker.onStart(fast);
+        latencyTracker.onComplete(fast, FAST_NANOS, false);
+        for (int i = 0; i < 40; i++) {
+            latencyTracker.onStart(fast);
+        }
+        
+        assertThat(choose()).isSameAs(slow);
+    }
+    
+    private ServiceInstance choose() {
+        return loadBalancer.choose(new DefaultRequest<>()).block().getServer();
+    }
+}
\ No newline at end of file
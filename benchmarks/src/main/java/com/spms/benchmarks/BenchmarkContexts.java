@@ -0,0 +1,46 @@
+package com.spms.benchmarks;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+final class BenchmarkContexts {
+    
+    private BenchmarkContexts() {}
+    
+    // The services' second-level cache settings, for benchmarks that compare with and without it
+    static final List<String> SECOND_LEVEL_CACHE = List.of(
+            "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+            "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+            "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+            "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+            "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create");
+    
+    static ConfigurableApplicationContext start(String database, Class<?>... sources) {
+        return start(database, List.of(), sources);
+    }
+    
+    // Starts just the given classes against a private in-memory H2 database. The services'
+    // own application.yml is never read, so no config server, Eureka or MySQL is needed.
+    static ConfigurableApplicationContext start(String database, List<String> properties, Class<?>... sources) {
+        return new SpringApplicationBuilder(sources)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.config.name=benchmark",
+                        "spring.cloud.config.enabled=false",
+                        "spring.cloud.config.import-check.enabled=false",
+                        "spring.cloud.discovery.enabled=false",
+                        "eureka.client.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "logging.level.root=WARN")
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+}
\ No newline at end of file
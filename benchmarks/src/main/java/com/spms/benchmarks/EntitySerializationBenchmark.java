@@ -0,0 +1,124 @@
+package com.spms.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.parkingspace.entity.ParkingSpace;
+import com.spms.payment.entity.Payment;
+import com.spms.user.entity.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntitySerializationBenchmark {
+    
+    private static final TypeReference<List<ParkingSpace>> PARKING_SPACE_LIST = new TypeReference<>() {};
+    
+    // Built the same way Spring Boot builds the ObjectMapper the controllers use
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    private ParkingSpace parkingSpace;
+    private Payment payment;
+    private User user;
+    private List<ParkingSpace> searchResult;
+    
+    private String parkingSpaceJson;
+    private String paymentJson;
+    private String userJson;
+    private String searchResultJson;
+    
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        LocalDateTime now = LocalDateTime.now();
+        
+        parkingSpace = parkingSpace(1, now);
+        
+        payment = new Payment(42L, 7L, 1L, new BigDecimal("7.50"), 3, new BigDecimal("2.50"),
+                Payment.PaymentMethod.CREDIT_CARD);
+        payment.setId(1L);
+        payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+        payment.setTransactionId("TXN-8f3c2a91");
+        payment.setCardNumberMasked("**** **** **** 4242");
+        payment.setPaymentDate(now);
+        payment.setParkingStartTime(now.minusHours(3));
+        payment.setParkingEndTime(now);
+        payment.setCreatedAt(now.minusHours(3));
+        payment.setUpdatedAt(now);
+        
+        user = new User("driver42", "driver42@spms.lk", null, "Nimal", "Perera", "+94771234567",
+                User.UserType.REGULAR_USER);
+        user.setId(42L);
+        user.setCreatedAt(now.minusDays(30));
+        user.setUpdatedAt(now);
+        user.setLastLogin(now);
+        
+        searchResult = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            searchResult.add(parkingSpace(i, now));
+        }
+        
+        parkingSpaceJson = objectMapper.writeValueAsString(parkingSpace);
+        paymentJson = objectMapper.writeValueAsString(payment);
+        userJson = objectMapper.writeValueAsString(user);
+        searchResultJson = objectMapper.writeValueAsString(searchResult);
+    }
+    
+    @Benchmark
+    public String serializeParkingSpace() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(parkingSpace);
+    }
+    
+    @Benchmark
+    public ParkingSpace deserializeParkingSpace() throws JsonProcessingException {
+        return objectMapper.readValue(parkingSpaceJson, ParkingSpace.class);
+    }
+    
+    @Benchmark
+    public String serializePayment() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(payment);
+    }
+    
+    @Benchmark
+    public Payment deserializePayment() throws JsonProcessingException {
+        return objectMapper.readValue(paymentJson, Payment.class);
+    }
+    
+    @Benchmark
+    public String serializeUser() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(user);
+    }
+    
+    @Benchmark
+    public User deserializeUser() throws JsonProcessingException {
+        return objectMapper.readValue(userJson, User.class);
+    }
+    
+    @Benchmark
+    public String serializeSearchResult() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(searchResult);
+    }
+    
+    @Benchmark
+    public List<ParkingSpace> deserializeSearchResult() throws JsonProcessingException {
+        return objectMapper.readValue(searchResultJson, PARKING_SPACE_LIST);
+    }
+    
+    private ParkingSpace parkingSpace(int id, LocalDateTime now) {
+        ParkingSpace space = new ParkingSpace("P-" + id, "Level " + (id % 5), "A", "Colombo", 2.5, 7L);
+        space.setId((long) id);
+        space.setCreatedAt(now.minusDays(10));
+        space.setUpdatedAt(now);
+        return space;
+    }
+}
\ No newline at end of file
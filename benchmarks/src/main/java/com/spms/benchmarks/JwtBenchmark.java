@@ -0,0 +1,67 @@
+package com.spms.benchmarks;
+
+import com.nimbusds.jose.jwk.RSAKey;
+import com.spms.user.config.JwtConfig;
+import com.spms.user.entity.User;
+import com.spms.user.service.TokenService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private static final String ISSUER = "spms-user-service";
+    
+    private ConfigurableApplicationContext context;
+    private TokenService tokenService;
+    private NimbusReactiveJwtDecoder jwtDecoder;
+    private User user;
+    private String token;
+    
+    @SpringBootConfiguration
+    @Import({JwtConfig.class, TokenService.class})
+    static class Context {}
+    
+    // The decoder is set up like the gateway's, with the user-service key already known,
+    // which is the steady state once the gateway has fetched the JWK set
+    @Setup
+    public void setUp() throws Exception {
+        context = BenchmarkContexts.start("jwt", Context.class);
+        tokenService = context.getBean(TokenService.class);
+        
+        jwtDecoder = NimbusReactiveJwtDecoder.withPublicKey(context.getBean(RSAKey.class).toRSAPublicKey()).build();
+        jwtDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        
+        user = new User("driver42", "driver42@spms.lk", null, "Nimal", "Perera", "+94771234567",
+                User.UserType.REGULAR_USER);
+        user.setId(42L);
+        token = tokenService.issueToken(user);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public String issueToken() {
+        return tokenService.issueToken(user);
+    }
+    
+    @Benchmark
+    public Jwt verifyToken() {
+        return jwtDecoder.decode(token).block();
+    }
+}
\ No newline at end of file
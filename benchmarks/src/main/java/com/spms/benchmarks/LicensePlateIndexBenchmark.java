@@ -0,0 +1,73 @@
+package com.spms.benchmarks;
+
+import com.spms.vehicle.index.LicensePlateIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LicensePlateIndexBenchmark {
+    
+    @Param("1000000")
+    private int plates;
+    
+    private LicensePlateIndex index;
+    private Map<String, LicensePlateIndex.Entry> hashMap;
+    private String[] lookups;
+    private String[] missing;
+    
+    @Setup
+    public void setUp() {
+        index = new LicensePlateIndex();
+        hashMap = new HashMap<>();
+        for (int i = 0; i < plates; i++) {
+            String plate = SamplePlates.plate(i);
+            index.put(plate, i, i % 1000);
+            hashMap.put(plate, new LicensePlateIndex.Entry(i, i % 1000));
+        }
+        
+        // Fresh String instances, as a request would bring, so no cached hash codes are reused
+        lookups = new String[plates];
+        missing = new String[plates];
+        for (int i = 0; i < plates; i++) {
+            lookups[i] = new String(SamplePlates.plate(i).toCharArray());
+            missing[i] = SamplePlates.plate(plates + i);
+        }
+    }
+    
+    @Benchmark
+    public Optional<LicensePlateIndex.Entry> get() {
+        return index.get(randomLookup());
+    }
+    
+    @Benchmark
+    public Optional<LicensePlateIndex.Entry> getMissing() {
+        return index.get(missing[ThreadLocalRandom.current().nextInt(plates)]);
+    }
+    
+    // The boxed map the index replaced, for comparison
+    @Benchmark
+    public LicensePlateIndex.Entry hashMapGet() {
+        return hashMap.get(randomLookup());
+    }
+    
+    @Benchmark
+    public void removeAndPut() {
+        int i = ThreadLocalRandom.current().nextInt(plates);
+        index.remove(lookups[i]);
+        index.put(lookups[i], i, i % 1000);
+    }
+    
+    private String randomLookup() {
+        return lookups[ThreadLocalRandom.current().nextInt(plates)];
+    }
+}
\ No newline at end of file
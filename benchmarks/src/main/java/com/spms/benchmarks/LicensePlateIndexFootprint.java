@@ -0,0 +1,50 @@
+package com.spms.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.vehicle.index.LicensePlateIndex;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Retained heap of LicensePlateIndex for a fleet of the given size, next to a
+// HashMap<String, Entry> holding the same plates. The map is measured at up to a million
+// plates and reported per plate, since walking ten million of its nodes takes too long.
+public class LicensePlateIndexFootprint {
+    
+    private static final int MAX_MAP_PLATES = 1_000_000;
+    
+    public static void main(String[] args) throws IOException {
+        int plates = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        File output = new File(args.length > 1 ? args[1] : "target/license-plate-index-footprint.json");
+        
+        LicensePlateIndex index = new LicensePlateIndex();
+        for (int i = 0; i < plates; i++) {
+            index.put(SamplePlates.plate(i), i, i % 1000);
+        }
+        long indexBytes = GraphLayout.parseInstance(index).totalSize();
+        
+        int mapPlates = Math.min(plates, MAX_MAP_PLATES);
+        Map<String, LicensePlateIndex.Entry> hashMap = new HashMap<>();
+        for (int i = 0; i < mapPlates; i++) {
+            hashMap.put(SamplePlates.plate(i), new LicensePlateIndex.Entry(i, i % 1000));
+        }
+        long mapBytes = GraphLayout.parseInstance(hashMap).totalSize();
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("plates", plates);
+        result.put("indexBytes", indexBytes);
+        result.put("indexBytesPerPlate", (double) indexBytes / plates);
+        result.put("hashMapPlates", mapPlates);
+        result.put("hashMapBytes", mapBytes);
+        result.put("hashMapBytesPerPlate", (double) mapBytes / mapPlates);
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        output.getParentFile().mkdirs();
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(output, result);
+        System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.spms.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serializing a 10k-row list response in each shape a list endpoint can return it.
+// ListResponseSizes reports the payload sizes of the same responses.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListResponseBenchmark {
+    
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    
+    @Param({SampleListResponses.FULL, SampleListResponses.FIELDS, SampleListResponses.COMPACT})
+    private String view;
+    
+    @Param("10000")
+    private int rows;
+    
+    private List<?> parkingSpaces;
+    private List<?> users;
+    
+    @Setup
+    public void setUp() {
+        parkingSpaces = SampleListResponses.parkingSpaces(view, rows);
+        users = SampleListResponses.users(view, rows);
+    }
+    
+    @Benchmark
+    public byte[] serializeParkingSpaces() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(parkingSpaces);
+    }
+    
+    @Benchmark
+    public byte[] serializeUsers() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+}
\ No newline at end of file
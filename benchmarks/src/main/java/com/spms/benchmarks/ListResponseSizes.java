@@ -0,0 +1,64 @@
+package com.spms.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.zip.GZIPOutputStream;
+
+// JSON size of a list response of the given length in each shape, plain and gzipped, with
+// the share saved against the full entities. ListResponseBenchmark times the same responses.
+public class ListResponseSizes {
+    
+    private static final List<String> VIEWS =
+            List.of(SampleListResponses.FULL, SampleListResponses.FIELDS, SampleListResponses.COMPACT);
+    
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        File output = new File(args.length > 1 ? args[1] : "target/list-response-sizes.json");
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("rows", rows);
+        result.put("parkingSpaces", sizes(objectMapper, rows, SampleListResponses::parkingSpaces));
+        result.put("users", sizes(objectMapper, rows, SampleListResponses::users));
+        
+        ObjectMapper writer = new ObjectMapper();
+        output.getParentFile().mkdirs();
+        writer.writerWithDefaultPrettyPrinter().writeValue(output, result);
+        System.out.println(writer.writerWithDefaultPrettyPrinter().writeValueAsString(result));
+    }
+    
+    private static Map<String, Object> sizes(ObjectMapper objectMapper, int rows,
+                                             BiFunction<String, Integer, List<?>> responses) throws IOException {
+        Map<String, Object> sizes = new LinkedHashMap<>();
+        long fullBytes = 0;
+        for (String view : VIEWS) {
+            byte[] json = objectMapper.writeValueAsBytes(responses.apply(view, rows));
+            if (view.equals(SampleListResponses.FULL)) {
+                fullBytes = json.length;
+            }
+            
+            Map<String, Object> size = new LinkedHashMap<>();
+            size.put("bytes", json.length);
+            size.put("gzipBytes", gzipped(json));
+            size.put("reduction", 1 - (double) json.length / fullBytes);
+            sizes.put(view, size);
+        }
+        return sizes;
+    }
+    
+    private static int gzipped(byte[] json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        }
+        return bytes.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.spms.benchmarks;
+
+import com.spms.common.event.DomainEventPublisher;
+import com.spms.common.event.OutboxEvent;
+import com.spms.common.event.OutboxEventRepository;
+import com.spms.common.projection.Fieldset;
+import com.spms.parkingspace.entity.ParkingSpace;
+import com.spms.parkingspace.repository.ParkingSpaceProjectionRepository;
+import com.spms.parkingspace.repository.ParkingSpaceRepository;
+import com.spms.parkingspace.service.ParkingSpaceService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParkingSpaceServiceBenchmark {
+    
+    private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Jaffna"};
+    private static final String[] ZONES = {"A", "B", "C", "D", "E"};
+    
+    @Param("2000")
+    private int spaces;
+    
+    @Param({"false", "true"})
+    private boolean secondLevelCache;
+    
+    private ConfigurableApplicationContext context;
+    private ParkingSpaceService parkingSpaceService;
+    private long firstId;
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = {ParkingSpace.class, OutboxEvent.class})
+    @EnableJpaRepositories(basePackageClasses = {ParkingSpaceRepository.class, OutboxEventRepository.class})
+    @Import({ParkingSpaceService.class, ParkingSpaceProjectionRepository.class, DomainEventPublisher.class})
+    static class Context {}
+    
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("parking_space",
+                secondLevelCache ? BenchmarkContexts.SECOND_LEVEL_CACHE : List.of(), Context.class);
+        parkingSpaceService = context.getBean(ParkingSpaceService.class);
+        
+        for (int i = 0; i < spaces; i++) {
+            ParkingSpace space = parkingSpaceService.createParkingSpace(new ParkingSpace("P-" + i, "Level " + (i % 5),
+                    ZONES[i % ZONES.length], CITIES[i % CITIES.length], 2.5, (long) (i % 50)));
+            if (i == 0) {
+                firstId = space.getId();
+            }
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Optional<ParkingSpace> getParkingSpaceById() {
+        return parkingSpaceService.getParkingSpaceById(randomId());
+    }
+    
+    @Benchmark
+    public List<ParkingSpace> getAvailableSpacesByCityAndZone() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return parkingSpaceService.getAvailableSpacesByCityAndZone(CITIES[random.nextInt(CITIES.length)],
+                ZONES[random.nextInt(ZONES.length)]);
+    }
+    
+    // The same list as the compact view for mobile clients
+    @Benchmark
+    public List<?> getAvailableSpacesByCityAndZoneCompact() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return parkingSpaceService.getAvailableSpacesByCityAndZone(CITIES[random.nextInt(CITIES.length)],
+                ZONES[random.nextInt(ZONES.length)], Fieldset.of(null, Fieldset.COMPACT));
+    }
+    
+    @Benchmark
+    public Long getAvailableSpacesCount() {
+        return parkingSpaceService.getAvailableSpacesCount(CITIES[ThreadLocalRandom.current().nextInt(CITIES.length)]);
+    }
+    
+    // Releasing right after reserving leaves the table as it was between invocations
+    @Benchmark
+    public ParkingSpace reserveAndRelease() {
+        long id = randomId();
+        parkingSpaceService.reserveParkingSpace(id, 2);
+        return parkingSpaceService.releaseParkingSpace(id);
+    }
+    
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(spaces);
+    }
+}
\ No newline at end of file
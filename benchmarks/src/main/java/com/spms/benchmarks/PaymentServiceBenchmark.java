@@ -0,0 +1,89 @@
+package com.spms.benchmarks;
+
+import com.spms.common.event.DomainEventPublisher;
+import com.spms.common.event.OutboxEvent;
+import com.spms.common.event.OutboxEventRepository;
+import com.spms.payment.entity.Payment;
+import com.spms.payment.repository.PaymentRepository;
+import com.spms.payment.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentServiceBenchmark {
+    
+    private static final BigDecimal HOURLY_RATE = new BigDecimal("2.50");
+    
+    @Param("500")
+    private int users;
+    
+    @Param("20")
+    private int paymentsPerUser;
+    
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = {Payment.class, OutboxEvent.class})
+    @EnableJpaRepositories(basePackageClasses = {PaymentRepository.class, OutboxEventRepository.class})
+    @Import({PaymentService.class, DomainEventPublisher.class})
+    static class Context {}
+    
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("payment", Context.class);
+        paymentService = context.getBean(PaymentService.class);
+        
+        for (long user = 1; user <= users; user++) {
+            for (int i = 0; i < paymentsPerUser; i++) {
+                paymentService.createPayment(newPayment(user));
+            }
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Payment createPayment() {
+        return paymentService.createPayment(newPayment(randomUser()));
+    }
+    
+    @Benchmark
+    public List<Payment> getPaymentsByUserId() {
+        return paymentService.getPaymentsByUserId(randomUser());
+    }
+    
+    @Benchmark
+    public BigDecimal getUserTotalPayments() {
+        return paymentService.getUserTotalPayments(randomUser());
+    }
+    
+    private Payment newPayment(long userId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Payment(userId, random.nextLong(1, 10_000), random.nextLong(1, 2_000), null,
+                random.nextInt(1, 9), HOURLY_RATE, Payment.PaymentMethod.CREDIT_CARD);
+    }
+    
+    private long randomUser() {
+        return ThreadLocalRandom.current().nextLong(1, users + 1);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.spms.benchmarks;
+
+import com.spms.parkingspace.entity.ParkingSpace;
+import com.spms.parkingspace.search.ParkingSpaceSummary;
+import com.spms.user.dto.UserSummary;
+import com.spms.user.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// List responses as the controllers return them: the full entities, the rows of a ?fields=
+// fieldset, or the ?view=compact summaries
+final class SampleListResponses {
+    
+    static final String FULL = "full";
+    static final String FIELDS = "fields";
+    static final String COMPACT = "compact";
+    
+    private static final String[] CITIES = {"Colombo", "Kandy", "Galle", "Negombo"};
+    private static final String[] ZONES = {"A", "B", "C", "D", "E"};
+    
+    private SampleListResponses() {}
+    
+    static List<?> parkingSpaces(String view, int rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> response = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            ParkingSpace space = new ParkingSpace("P-" + i, "Level " + (i % 5) + ", Main Street",
+                    ZONES[i % ZONES.length], CITIES[i % CITIES.length], 2.5 + i % 4, (long) (i % 50));
+            space.setId((long) i);
+            space.setCreatedAt(now.minusDays(10));
+            space.setUpdatedAt(now);
+            
+            response.add(switch (view) {
+                case FULL -> space;
+                // ?fields=spaceNumber,status,hourlyRate, as a map screen would ask
+                case FIELDS -> row("id", space.getId(), "spaceNumber", space.getSpaceNumber(),
+                        "status", space.getStatus(), "hourlyRate", space.getHourlyRate());
+                case COMPACT -> new ParkingSpaceSummary(space.getId(), space.getSpaceNumber(), space.getLocation(),
+                        space.getCity(), space.getZone(), space.getStatus(), space.getHourlyRate(), space.getOwnerId());
+                default -> throw new IllegalArgumentException("Unknown view: " + view);
+            });
+        }
+        return response;
+    }
+    
+    static List<?> users(String view, int rows) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object> response = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            User user = new User("driver" + i, "driver" + i + "@spms.lk", null, "Nimal", "Perera",
+                    "+9477" + (1_000_000 + i), User.UserType.REGULAR_USER);
+            user.setId((long) i);
+            user.setCreatedAt(now.minusDays(30));
+            user.setUpdatedAt(now);
+            user.setLastLogin(now);
+            
+            response.add(switch (view) {
+                case FULL -> user;
+                // ?fields=username,firstName,lastName, as a user picker would ask
+                case FIELDS -> row("id", user.getId(), "username", user.getUsername(),
+                        "firstName", user.getFirstName(), "lastName", user.getLastName());
+                case COMPACT -> new UserSummary(user.getId(), user.getUsername(), user.getFirstName(),
+                        user.getLastName(), user.getUserType(), user.getIsActive());
+                default -> throw new IllegalArgumentException("Unknown view: " + view);
+            });
+        }
+        return response;
+    }
+    
+    private static Map<String, Object> row(Object... namesAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            row.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return row;
+    }
+}
\ No newline at end of file
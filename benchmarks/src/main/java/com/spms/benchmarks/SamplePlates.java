@@ -0,0 +1,21 @@
+package com.spms.benchmarks;
+
+final class SamplePlates {
+    
+    private SamplePlates() {}
+    
+    // Distinct normalized plates in the "ABC1234" format, for any index below 26^3 * 10^4
+    static String plate(int index) {
+        int letters = index / 10_000;
+        char[] plate = new char[7];
+        plate[0] = (char) ('A' + letters / (26 * 26) % 26);
+        plate[1] = (char) ('A' + letters / 26 % 26);
+        plate[2] = (char) ('A' + letters % 26);
+        int digits = index % 10_000;
+        for (int i = 6; i >= 3; i--) {
+            plate[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        return new String(plate);
+    }
+}
\ No newline at end of file
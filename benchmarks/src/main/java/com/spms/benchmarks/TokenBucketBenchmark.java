@@ -0,0 +1,76 @@
+package com.spms.benchmarks;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spms.apigateway.ratelimit.TokenBucket;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenBucketBenchmark {
+    
+    @Param("100000")
+    private int clients;
+    
+    private TokenBucket sharedBucket;
+    private Cache<String, TokenBucket> buckets;
+    private String[] clientKeys;
+    
+    @State(Scope.Thread)
+    public static class OwnBucket {
+        
+        private TokenBucket bucket;
+        
+        @Setup
+        public void setUp() {
+            bucket = newBucket();
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        sharedBucket = newBucket();
+        buckets = Caffeine.newBuilder()
+                .maximumSize(clients)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        clientKeys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            clientKeys[i] = "user:" + i;
+            buckets.put(clientKeys[i], newBucket());
+        }
+    }
+    
+    @Benchmark
+    public TokenBucket.Decision tryConsume(OwnBucket own) {
+        return own.bucket.tryConsume(System.nanoTime());
+    }
+    
+    // Every thread hits the same client's bucket, so compare-and-set retries show up here
+    @Benchmark
+    @Threads(4)
+    public TokenBucket.Decision tryConsumeContended() {
+        return sharedBucket.tryConsume(System.nanoTime());
+    }
+    
+    // What RateLimitGatewayFilterFactory does per request, minus the response headers
+    @Benchmark
+    public TokenBucket.Decision lookupAndConsume() {
+        long now = System.nanoTime();
+        String client = clientKeys[ThreadLocalRandom.current().nextInt(clients)];
+        return buckets.get(client, key -> newBucket()).tryConsume(now);
+    }
+    
+    // Refills faster than any thread can drain it, so every call takes the allow path
+    private static TokenBucket newBucket() {
+        return new TokenBucket(1_000_000, 1_000_000, Duration.ofMillis(1), System.nanoTime());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.spms.benchmarks;
+
+import com.spms.user.cache.UserCache;
+import com.spms.user.entity.User;
+import com.spms.user.repository.UserProjectionRepository;
+import com.spms.user.repository.UserRepository;
+import com.spms.user.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+    
+    private static final String PASSWORD = "benchmark-password";
+    
+    @Param("1000")
+    private int users;
+    
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private long firstId;
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = User.class)
+    @EnableJpaRepositories(basePackageClasses = UserRepository.class)
+    @Import({UserService.class, UserProjectionRepository.class, UserCache.class})
+    static class Context {}
+    
+    // Users are inserted directly with one shared hash; registering each one through the
+    // service would spend most of the setup in BCrypt
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.start("user", Context.class);
+        userService = context.getBean(UserService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        
+        String hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        for (int i = 0; i < users; i++) {
+            User user = userRepository.save(new User("user" + i, "user" + i + "@spms.lk", hash, "First" + i,
+                    "Last" + i, "+94770000000", User.UserType.REGULAR_USER));
+            if (i == 0) {
+                firstId = user.getId();
+            }
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public User authenticateUser() {
+        return userService.authenticateUser("user" + randomIndex(), PASSWORD);
+    }
+    
+    @Benchmark
+    public Optional<User> getUserById() {
+        return userService.getUserById(firstId + randomIndex());
+    }
+    
+    @Benchmark
+    public Optional<User> getUserByUsername() {
+        return userService.getUserByUsername("user" + randomIndex());
+    }
+    
+    private int randomIndex() {
+        return ThreadLocalRandom.current().nextInt(users);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.spms.configserver.controller;
+
+import com.spms.configserver.snapshot.ConfigSnapshotManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/config-snapshot")
+public class ConfigSnapshotController {
+    
+    @Autowired
+    private ConfigSnapshotManager configSnapshotManager;
+    
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(configSnapshotManager.getStatus());
+    }
+    
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh() {
+        configSnapshotManager.refresh();
+        return ResponseEntity.ok(configSnapshotManager.getStatus());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,174 @@
+package com.spms.configserver.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.ResetCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.config.server.environment.NativeEnvironmentRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Component
+public class ConfigSnapshotManager {
+    
+    private static final Logger log = LoggerFactory.getLogger(ConfigSnapshotManager.class);
+    private static final String POINTER_FILE = "current";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    
+    @Autowired
+    private NativeEnvironmentRepository nativeEnvironmentRepository;
+    
+    @Value("${spms.config.git.uri}")
+    private String gitUri;
+    
+    @Value("${spms.config.git.label:master}")
+    private String label;
+    
+    @Value("${spms.config.git.timeout:10s}")
+    private Duration timeout;
+    
+    @Value("${spms.config.cache-dir}")
+    private Path cacheDir;
+    
+    // Clients are always served from a snapshot directory through the native backend, so
+    // a slow or unreachable Git host never sits on the request path. Git is only read by
+    // the refresh, which copies each new commit into a fresh directory and then switches.
+    private volatile Path currentSnapshot;
+    private volatile String currentCommit;
+    private volatile LocalDateTime refreshedAt;
+    private volatile String lastError;
+    
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(cacheDir);
+        Path pointer = cacheDir.resolve(POINTER_FILE);
+        if (Files.exists(pointer)) {
+            Path snapshot = cacheDir.resolve(Files.readString(pointer).trim());
+            if (Files.isDirectory(snapshot)) {
+                activate(snapshot);
+                log.info("Serving cached config snapshot {} while Git refreshes in the background", currentCommit);
+                return;
+            }
+        }
+        
+        // Cold start: nothing to serve yet, so wait for the first clone like the Git backend would
+        log.info("No cached config snapshot in {}, cloning {} before serving", cacheDir, gitUri);
+        refresh();
+    }
+    
+    @Scheduled(fixedDelayString = "${spms.config.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        try {
+            Path repositoryDir = cacheDir.resolve("repository");
+            try (Git git = openOrClone(repositoryDir)) {
+                git.fetch().setRemote("origin").setTimeout((int) timeout.toSeconds()).call();
+                git.reset().setMode(ResetCommand.ResetType.HARD).setRef("origin/" + label).call();
+                String commit = git.getRepository().resolve("HEAD").name();
+                
+                if (!commit.equals(currentCommit)) {
+                    Path snapshot = cacheDir.resolve(SNAPSHOT_PREFIX + commit);
+                    if (!Files.isDirectory(snapshot)) {
+                        copyWorkingTree(repositoryDir, snapshot);
+                    }
+                    Path previous = currentSnapshot;
+                    activate(snapshot);
+                    writePointer(snapshot);
+                    deleteSnapshotsExcept(snapshot, previous);
+                    log.info("Config snapshot switched to commit {}", commit);
+                }
+            }
+            refreshedAt = LocalDateTime.now();
+            lastError = null;
+        } catch (Exception e) {
+            lastError = e.getMessage();
+            log.warn("Config refresh from {} failed, still serving snapshot {}", gitUri, currentCommit, e);
+        }
+    }
+    
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("uri", gitUri);
+        status.put("label", label);
+        status.put("commit", currentCommit);
+        status.put("snapshot", currentSnapshot != null ? currentSnapshot.toString() : null);
+        status.put("refreshedAt", refreshedAt);
+        status.put("lastError", lastError);
+        return status;
+    }
+    
+    private Git openOrClone(Path repositoryDir) throws Exception {
+        if (Files.isDirectory(repositoryDir.resolve(".git"))) {
+            return Git.open(repositoryDir.toFile());
+        }
+        FileSystemUtils.deleteRecursively(repositoryDir);
+        return Git.cloneRepository()
+                .setURI(gitUri)
+                .setBranch(label)
+                .setDirectory(repositoryDir.toFile())
+                .setTimeout((int) timeout.toSeconds())
+                .call();
+    }
+    
+    private void activate(Path snapshot) {
+        currentSnapshot = snapshot;
+        currentCommit = snapshot.getFileName().toString().substring(SNAPSHOT_PREFIX.length());
+        nativeEnvironmentRepository.setSearchLocations(snapshot.toUri().toString());
+        nativeEnvironmentRepository.setVersion(currentCommit);
+    }
+    
+    // Copied under a temporary name and renamed, so a half-written snapshot is never used
+    private void copyWorkingTree(Path repositoryDir, Path snapshot) throws IOException {
+        Path staging = cacheDir.resolve(snapshot.getFileName() + ".tmp");
+        FileSystemUtils.deleteRecursively(staging);
+        try (Stream<Path> files = Files.walk(repositoryDir)) {
+            for (Path source : (Iterable<Path>) files::iterator) {
+                Path relative = repositoryDir.relativize(source);
+                if (relative.startsWith(".git")) {
+                    continue;
+                }
+                Path target = staging.resolve(relative.toString());
+                if (Files.isDirectory(source)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+            }
+        }
+        Files.move(staging, snapshot, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private void writePointer(Path snapshot) throws IOException {
+        Path staging = cacheDir.resolve(POINTER_FILE + ".tmp");
+        Files.writeString(staging, snapshot.getFileName().toString());
+        Files.move(staging, cacheDir.resolve(POINTER_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    // The previous snapshot is kept for requests that may still be reading it
+    private void deleteSnapshotsExcept(Path current, Path previous) throws IOException {
+        List<Path> stale;
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            stale = entries.filter(path -> path.getFileName().toString().startsWith(SNAPSHOT_PREFIX))
+                    .filter(path -> !path.equals(current) && !path.equals(previous))
+                    .toList();
+        }
+        for (Path path : stale) {
+            FileSystemUtils.deleteRecursively(path);
+        }
+    }
+}
\ No newline at end of file
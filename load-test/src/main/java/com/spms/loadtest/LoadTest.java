@@ -0,0 +1,46 @@
+package com.spms.loadtest;
+
+import com.spms.loadtest.report.LoadTestReport;
+import com.spms.loadtest.stack.LocalStack;
+import com.spms.loadtest.workload.Driver;
+import com.spms.loadtest.workload.FleetSeeder;
+import com.spms.loadtest.workload.GatewayClient;
+import com.spms.loadtest.workload.Workload;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Starts Eureka, the gateway and the four business services on fresh H2 databases, seeds
+// them, drives the trips through the gateway and reports what the drivers saw.
+// Run from the root with: mvn -Pload-test verify -Dload-test.args="--drivers=500 --duration=1m"
+public class LoadTest {
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors() * 2),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "load-test-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        
+        try (LocalStack stack = new LocalStack(options)) {
+            stack.start();
+            GatewayClient client = new GatewayClient(stack.gateway(), executor);
+            List<Driver> drivers = new FleetSeeder(options, stack).seed(client, executor);
+            Workload.Result result = new Workload(options).run(drivers, client);
+            
+            LoadTestReport report = new LoadTestReport(options, result, Map.of(
+                    "cache", stack.gatewayStats("/api/gateway/cache"),
+                    "loadBalancer", stack.gatewayStats("/api/gateway/load-balancer")));
+            report.print(System.out);
+            report.write(options.output());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+package com.spms.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public record LoadTestOptions(Model model,
+                              List<Flow> flows,
+                              int drivers,
+                              double arrivalRate,
+                              Duration warmup,
+                              Duration duration,
+                              Duration thinkTime,
+                              Duration dwellTime,
+                              int spaces,
+                              Duration dbLatency,
+                              ServiceLatency slowService,
+                              ServiceLatency slowInstance,
+                              String serviceProfile,
+                              Path root,
+                              Path output) {
+    
+    private static final Set<String> KEYS = Set.of("model", "flow", "drivers", "arrival-rate", "warmup", "duration",
+            "think-time", "dwell-time", "spaces", "db-latency", "slow-service", "slow-instance", "service-profile");
+    
+    // Closed: a fixed population of drivers, each starting a new trip when the last one ends.
+    // Open: trips arrive at a fixed average rate whether or not earlier ones have finished.
+    public enum Model {
+        CLOSED, OPEN
+    }
+    
+    // Client: the driver calls each service route in turn. Orchestrated: check-in and check-out
+    // go through the gateway's /api/parking-flow, which makes those calls itself.
+    public enum Flow {
+        CLIENT, ORCHESTRATED
+    }
+    
+    public record ServiceLatency(String service, Duration latency) {
+        
+        static ServiceLatency parse(String value) {
+            if (value == null) {
+                return null;
+            }
+            int separator = value.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected <service>:<latency> but got " + value);
+            }
+            return new ServiceLatency(value.substring(0, separator), parseDuration(value.substring(separator + 1)));
+        }
+    }
+    
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --<option>=<value> but got " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!KEYS.contains(key)) {
+                throw new IllegalArgumentException("Unknown option --" + key + ", expected one of " + KEYS);
+            }
+            values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+        
+        int drivers = Integer.parseInt(values.getOrDefault("drivers", "2000"));
+        return new LoadTestOptions(
+                Model.valueOf(values.getOrDefault("model", "closed").toUpperCase()),
+                parseFlows(values.getOrDefault("flow", "client")),
+                drivers,
+                Double.parseDouble(values.getOrDefault("arrival-rate", "100")),
+                parseDuration(values.getOrDefault("warmup", "30s")),
+                parseDuration(values.getOrDefault("duration", "2m")),
+                parseDuration(values.getOrDefault("think-time", "500ms")),
+                parseDuration(values.getOrDefault("dwell-time", "5s")),
+                Integer.parseInt(values.getOrDefault("spaces", String.valueOf(drivers + drivers / 4))),
+                parseDuration(values.getOrDefault("db-latency", "0ms")),
+                ServiceLatency.parse(values.get("slow-service")),
+                ServiceLatency.parse(values.get("slow-instance")),
+                values.get("service-profile"),
+                Path.of(System.getProperty("spms.root", "..")).toAbsolutePath().normalize(),
+                Path.of(System.getProperty("spms.load-test.output", "target/load-test")).toAbsolutePath().normalize());
+    }
+    
+    // both splits the drivers evenly between the two flows
+    static List<Flow> parseFlows(String value) {
+        return value.equals("both") ? List.of(Flow.values()) : List.of(Flow.valueOf(value.toUpperCase()));
+    }
+    
+    // Accepts the same suffixes as the services' own duration properties: ms, s, m and h
+    static Duration parseDuration(String value) {
+        String trimmed = value.trim();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        long amount = Long.parseLong(trimmed.substring(0, trimmed.length() - 1));
+        return switch (trimmed.charAt(trimmed.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unsupported duration " + value);
+        };
+    }
+}
\ No newline at end of file
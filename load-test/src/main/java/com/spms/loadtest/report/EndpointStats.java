@@ -0,0 +1,76 @@
+package com.spms.loadtest.report;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies are recorded in microseconds. Responses count by status class; transport
+// failures and timeouts never got a status and count separately.
+public class EndpointStats {
+    
+    private final String endpoint;
+    private final ConcurrentHistogram latencies = new ConcurrentHistogram(3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    
+    public record Snapshot(String endpoint, Histogram latencies, long successes, long clientErrors, long rateLimited,
+                           long serverErrors, long failures, long cacheHits, long cacheMisses) {
+        
+        public long requests() {
+            return successes + clientErrors + rateLimited + serverErrors + failures;
+        }
+        
+        public long errors() {
+            return serverErrors + failures;
+        }
+    }
+    
+    public EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+    
+    public void record(long latencyMicros, int status, String cacheStatus) {
+        latencies.recordValue(latencyMicros);
+        if (status == 429) {
+            rateLimited.increment();
+        } else if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            successes.increment();
+        }
+        if ("HIT".equals(cacheStatus)) {
+            cacheHits.increment();
+        } else if ("MISS".equals(cacheStatus)) {
+            cacheMisses.increment();
+        }
+    }
+    
+    public void recordFailure(long latencyMicros) {
+        latencies.recordValue(latencyMicros);
+        failures.increment();
+    }
+    
+    public void reset() {
+        latencies.reset();
+        successes.reset();
+        clientErrors.reset();
+        rateLimited.reset();
+        serverErrors.reset();
+        failures.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+    }
+    
+    public Snapshot snapshot() {
+        return new Snapshot(endpoint, latencies.copy(), successes.sum(), clientErrors.sum(), rateLimited.sum(),
+                serverErrors.sum(), failures.sum(), cacheHits.sum(), cacheMisses.sum());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.spms.loadtest.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.spms.loadtest.LoadTestOptions;
+import com.spms.loadtest.workload.Workload;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Prints a table per endpoint and writes report.json plus one .hgrm percentile file per
+// endpoint, which HdrHistogram's plotter can overlay to compare runs
+public class LoadTestReport {
+    
+    private static final double MICROS_PER_MILLI = 1000.0;
+    
+    private final LoadTestOptions options;
+    private final Workload.Result result;
+    private final Map<String, JsonNode> gatewayStats;
+    private final List<EndpointStats.Snapshot> endpoints;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    
+    public LoadTestReport(LoadTestOptions options, Workload.Result result, Map<String, JsonNode> gatewayStats) {
+        this.options = options;
+        this.result = result;
+        this.gatewayStats = gatewayStats;
+        this.endpoints = result.endpoints().stream()
+                .sorted(Comparator.comparing(EndpointStats.Snapshot::endpoint))
+                .toList();
+    }
+    
+    public void print(PrintStream out) {
+        double seconds = result.measured().toMillis() / 1000.0;
+        out.printf("%n%-16s %9s %9s %8s %7s %7s %9s %9s %9s %9s %7s%n", "endpoint", "requests", "req/s",
+                "errors", "4xx", "429", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "hits");
+        for (EndpointStats.Snapshot endpoint : endpoints) {
+            Histogram latencies = endpoint.latencies();
+            out.printf("%-16s %9d %9.1f %7.2f%% %7d %7d %9.1f %9.1f %9.1f %9.1f %7s%n",
+                    endpoint.endpoint(),
+                    endpoint.requests(),
+                    endpoint.requests() / seconds,
+                    percentOf(endpoint.errors(), endpoint.requests()),
+                    endpoint.clientErrors(),
+                    endpoint.rateLimited(),
+                    latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                    latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    latencies.getMaxValue() / MICROS_PER_MILLI,
+                    cacheLookups(endpoint) == 0 ? "-" : String.format("%.1f%%", hitRatio(endpoint)));
+        }
+        out.println();
+        for (Map.Entry<LoadTestOptions.Flow, Workload.Trips> flow : result.trips().entrySet()) {
+            out.printf("%s trips: %d completed, %d failed (%.1f/s)%n", flow.getKey().name().toLowerCase(),
+                    flow.getValue().completed(), flow.getValue().failed(), flow.getValue().completed() / seconds);
+        }
+        if (options.model() == LoadTestOptions.Model.OPEN) {
+            out.printf("%d arrivals dropped with every driver busy%n", result.arrivalsDropped());
+        }
+    }
+    
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        ObjectNode report = objectMapper.createObjectNode();
+        
+        ObjectNode settings = report.putObject("options");
+        settings.put("model", options.model().name());
+        settings.put("flows", String.valueOf(options.flows()));
+        settings.put("drivers", options.drivers());
+        settings.put("arrivalRate", options.arrivalRate());
+        settings.put("warmup", options.warmup().toString());
+        settings.put("duration", options.duration().toString());
+        settings.put("thinkTime", options.thinkTime().toString());
+        settings.put("dwellTime", options.dwellTime().toString());
+        settings.put("spaces", options.spaces());
+        settings.put("dbLatency", options.dbLatency().toString());
+        settings.put("slowService", String.valueOf(options.slowService()));
+        settings.put("slowInstance", String.valueOf(options.slowInstance()));
+        settings.put("serviceProfile", options.serviceProfile());
+        
+        ObjectNode trips = report.putObject("trips");
+        trips.put("completed", result.tripsCompleted());
+        trips.put("failed", result.tripsFailed());
+        ObjectNode byFlow = trips.putObject("byFlow");
+        result.trips().forEach((flow, counts) -> byFlow.putObject(flow.name().toLowerCase())
+                .put("completed", counts.completed())
+                .put("failed", counts.failed()));
+        trips.put("arrivalsDropped", result.arrivalsDropped());
+        trips.put("measuredSeconds", result.measured().toMillis() / 1000.0);
+        
+        ArrayNode endpointNodes = report.putArray("endpoints");
+        for (EndpointStats.Snapshot endpoint : endpoints) {
+            Histogram latencies = endpoint.latencies();
+            ObjectNode node = endpointNodes.addObject();
+            node.put("endpoint", endpoint.endpoint());
+            node.put("requests", endpoint.requests());
+            node.put("successes", endpoint.successes());
+            node.put("clientErrors", endpoint.clientErrors());
+            node.put("rateLimited", endpoint.rateLimited());
+            node.put("serverErrors", endpoint.serverErrors());
+            node.put("failures", endpoint.failures());
+            node.put("cacheHits", endpoint.cacheHits());
+            node.put("cacheMisses", endpoint.cacheMisses());
+            ObjectNode latencyNode = node.putObject("latencyMs");
+            latencyNode.put("p50", latencies.getValueAtPercentile(50) / MICROS_PER_MILLI);
+            latencyNode.put("p90", latencies.getValueAtPercentile(90) / MICROS_PER_MILLI);
+            latencyNode.put("p99", latencies.getValueAtPercentile(99) / MICROS_PER_MILLI);
+            latencyNode.put("p99.9", latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI);
+            latencyNode.put("max", latencies.getMaxValue() / MICROS_PER_MILLI);
+            
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(directory.resolve(endpoint.endpoint() + ".hgrm")))) {
+                latencies.outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+        
+        ObjectNode gateway = report.putObject("gateway");
+        gatewayStats.forEach(gateway::set);
+        
+        objectMapper.writeValue(directory.resolve("report.json").toFile(), report);
+        System.out.printf("Report written to %s%n", directory);
+    }
+    
+    private long cacheLookups(EndpointStats.Snapshot endpoint) {
+        return endpoint.cacheHits() + endpoint.cacheMisses();
+    }
+    
+    private double hitRatio(EndpointStats.Snapshot endpoint) {
+        return percentOf(endpoint.cacheHits(), cacheLookups(endpoint));
+    }
+    
+    private double percentOf(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,318 @@
+package com.spms.loadtest.stack;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.loadtest.LoadTest;
+import com.spms.loadtest.LoadTestOptions;
+import com.spms.loadtest.workload.Driver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+// Runs Eureka, the four business services on H2 and the gateway as child processes from
+// their built jars. Nothing is read from the config server: each instance gets a generated
+// properties file through spms.config.import instead.
+public class LocalStack implements AutoCloseable {
+    
+    public static final int GATEWAY_PORT = 18080;
+    public static final int EUREKA_PORT = 18761;
+    
+    public static final Map<String, Integer> SERVICE_PORTS = Map.of(
+            "parking-space-service", 18081,
+            "vehicle-service", 18082,
+            "user-service", 18083,
+            "payment-service", 18084);
+    
+    // A cheap GET per route, used to tell when the gateway can reach each service
+    private static final Map<String, String> READINESS_PATHS = Map.of(
+            "parking-space-service", "/api/parking-spaces/stats/available-count/city/Colombo",
+            "vehicle-service", "/api/vehicles/stats/parked-count",
+            "user-service", "/api/users/stats/active-users-count",
+            "payment-service", "/api/payments/stats/pending-count");
+    
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+    private static final int EXTRA_INSTANCE_PORT_OFFSET = 100;
+    
+    private final LoadTestOptions options;
+    private final Path workDir;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Process> processes = new LinkedHashMap<>();
+    
+    public LocalStack(LoadTestOptions options) {
+        this.options = options;
+        this.workDir = options.output().resolve("stack");
+    }
+    
+    public URI gateway() {
+        return URI.create("http://localhost:" + GATEWAY_PORT);
+    }
+    
+    public URI service(String service) {
+        return URI.create("http://localhost:" + SERVICE_PORTS.get(service));
+    }
+    
+    public void start() throws IOException, InterruptedException {
+        deleteRecursively(workDir);
+        Files.createDirectories(workDir.resolve("logs"));
+        Files.createDirectories(workDir.resolve("config"));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+        
+        launch("eureka-server", "eureka-server", EUREKA_PORT, Duration.ZERO, Map.of());
+        waitUntilUp("eureka-server", EUREKA_PORT);
+        
+        Map<String, Integer> instances = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> service : SERVICE_PORTS.entrySet()) {
+            launchService(service.getKey(), service.getKey(), service.getValue(), latencyOf(service.getKey()));
+            instances.put(service.getKey(), 1);
+        }
+        // The extra instance shares its service's H2 database, so both see the same rows
+        if (options.slowInstance() != null) {
+            String service = options.slowInstance().service();
+            requireKnown(service);
+            launchService(service + "-slow", service, SERVICE_PORTS.get(service) + EXTRA_INSTANCE_PORT_OFFSET,
+                    options.slowInstance().latency());
+            instances.merge(service, 1, Integer::sum);
+        }
+        launch("api-gateway", "api-gateway", GATEWAY_PORT, Duration.ZERO, Map.of(
+                "eureka.client.registry-fetch-interval-seconds", "2",
+                "spring.cloud.loadbalancer.cache.ttl", "2s",
+                "spms.gateway.rate-limit.api-keys", LongStream.rangeClosed(1, options.drivers())
+                        .mapToObj(Driver::apiKey)
+                        .collect(Collectors.joining(","))));
+        
+        for (String instance : processes.keySet()) {
+            if (!instance.equals("eureka-server")) {
+                waitUntilUp(instance, portOf(instance));
+            }
+        }
+        for (Map.Entry<String, Integer> service : instances.entrySet()) {
+            waitUntilRegistered(service.getKey(), service.getValue());
+            waitUntilRoutable(service.getKey());
+        }
+    }
+    
+    public JsonNode gatewayStats(String path) {
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(gateway().resolve(path)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return objectMapper.readTree(response.body());
+        } catch (IOException e) {
+            return objectMapper.getNodeFactory().textNode("unavailable: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return objectMapper.getNodeFactory().textNode("interrupted");
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        List<String> instances = new ArrayList<>(processes.keySet());
+        for (int i = instances.size() - 1; i >= 0; i--) {
+            processes.get(instances.get(i)).destroy();
+        }
+        for (Process process : processes.values()) {
+            try {
+                if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        processes.clear();
+    }
+    
+    private Duration latencyOf(String service) {
+        if (options.slowService() != null && options.slowService().service().equals(service)) {
+            return options.slowService().latency();
+        }
+        return options.dbLatency();
+    }
+    
+    private void launchService(String instance, String service, int port, Duration dbLatency) throws IOException {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spms.h2.dir", workDir.resolve("h2").toString());
+        if (!dbLatency.isZero()) {
+            properties.put("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                    SimulatedDbLatency.class.getName());
+        }
+        launch(instance, service, port, dbLatency, properties);
+    }
+    
+    // Started through PropertiesLauncher so this module's classes (SimulatedDbLatency) can
+    // be put on the service's class path with loader.path
+    private void launch(String instance, String module, int port, Duration dbLatency,
+                        Map<String, String> extraProperties) throws IOException {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", String.valueOf(port));
+        properties.put("eureka.client.service-url.defaultZone", "http://localhost:" + EUREKA_PORT + "/eureka/");
+        properties.put("eureka.instance.lease-renewal-interval-in-seconds", "5");
+        properties.putAll(extraProperties);
+        Path config = workDir.resolve("config").resolve(instance + ".properties");
+        StringBuilder content = new StringBuilder();
+        properties.forEach((key, value) -> content.append(key).append('=').append(value.replace("\\", "\\\\")).append('\n'));
+        Files.writeString(config, content);
+        
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-D" + SimulatedDbLatency.LATENCY_PROPERTY + "=" + dbLatency.toMillis());
+        command.add("-Dloader.path=" + harnessClassPath());
+        command.add("-cp");
+        command.add(executableJar(module).toString());
+        command.add("org.springframework.boot.loader.launch.PropertiesLauncher");
+        command.add("--spms.config.import=optional:file:" + config);
+        if (!module.equals("eureka-server") && !module.equals("api-gateway")) {
+            command.add("--spring.profiles.active=h2" + (options.serviceProfile() != null ? "," + options.serviceProfile() : ""));
+        }
+        
+        File log = workDir.resolve("logs").resolve(instance + ".log").toFile();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        processes.put(instance, process);
+        System.out.printf("Started %s on port %d (log: %s)%n", instance, port, log);
+    }
+    
+    private int portOf(String instance) {
+        if (instance.equals("api-gateway")) {
+            return GATEWAY_PORT;
+        }
+        if (instance.endsWith("-slow")) {
+            return SERVICE_PORTS.get(instance.substring(0, instance.length() - "-slow".length()))
+                    + EXTRA_INSTANCE_PORT_OFFSET;
+        }
+        return SERVICE_PORTS.get(instance);
+    }
+    
+    private void waitUntilUp(String instance, int port) throws InterruptedException {
+        URI health = URI.create("http://localhost:" + port + "/actuator/health");
+        waitFor(instance + " to report UP", instance, () -> {
+            HttpResponse<String> response = get(health);
+            return response != null && response.body().contains("\"status\":\"UP\"");
+        });
+    }
+    
+    private void waitUntilRegistered(String service, int instances) throws InterruptedException {
+        URI application = URI.create("http://localhost:" + EUREKA_PORT + "/eureka/apps/" + service.toUpperCase());
+        waitFor(instances + " instance(s) of " + service + " in Eureka", service, () -> {
+            HttpResponse<String> response = get(application, "application/json");
+            if (response == null || response.statusCode() != 200) {
+                return false;
+            }
+            JsonNode registered = objectMapper.readTree(response.body()).path("application").path("instance");
+            return (registered.isArray() ? registered.size() : 1) >= instances;
+        });
+    }
+    
+    // The gateway answers 503 from its fallback until its load balancer has an instance
+    private void waitUntilRoutable(String service) throws InterruptedException {
+        URI path = gateway().resolve(READINESS_PATHS.get(service));
+        waitFor("the gateway to route to " + service, "api-gateway", () -> {
+            HttpResponse<String> response = get(path);
+            return response != null && response.statusCode() == 200;
+        });
+    }
+    
+    private void waitFor(String description, String instance, Check check) throws InterruptedException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (true) {
+            Process process = processes.get(instance);
+            if (process != null && !process.isAlive()) {
+                throw new IllegalStateException(instance + " exited while waiting for " + description
+                        + ", see " + workDir.resolve("logs").resolve(instance + ".log"));
+            }
+            try {
+                if (check.passed()) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not ready yet
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out waiting for " + description);
+            }
+            Thread.sleep(500);
+        }
+    }
+    
+    private HttpResponse<String> get(URI uri) throws InterruptedException {
+        return get(uri, "*/*");
+    }
+    
+    private HttpResponse<String> get(URI uri, String accept) throws InterruptedException {
+        try {
+            return httpClient.send(HttpRequest.newBuilder(uri).header("Accept", accept).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
+    private Path executableJar(String module) throws IOException {
+        Path target = options.root().resolve(module).resolve("target");
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith("-exec.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No executable jar in " + target
+                            + ", build with 'mvn package -DskipTests' first"));
+        } catch (NoSuchFileException e) {
+            throw new IllegalStateException("Module " + module + " has not been built", e);
+        }
+    }
+    
+    private String harnessClassPath() {
+        try {
+            return Path.of(LoadTest.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private void requireKnown(String service) {
+        if (!SERVICE_PORTS.containsKey(service)) {
+            throw new IllegalArgumentException("Unknown service " + service + ", expected one of " + SERVICE_PORTS.keySet());
+        }
+    }
+    
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+    
+    @FunctionalInterface
+    private interface Check {
+        boolean passed() throws IOException, InterruptedException;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.spms.loadtest.stack;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Loaded into a service by LocalStack to make every statement that service sends take at
+// least the configured time. Hibernate calls it while the transaction already holds its
+// connection, so the delay occupies a pooled connection just like a slow database would.
+public class SimulatedDbLatency implements StatementInspector {
+    
+    public static final String LATENCY_PROPERTY = "spms.load-test.db-latency-ms";
+    
+    private static final long LATENCY_MILLIS = Long.getLong(LATENCY_PROPERTY, 0);
+    
+    @Override
+    public String inspect(String sql) {
+        if (LATENCY_MILLIS > 0) {
+            try {
+                Thread.sleep(LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
\ No newline at end of file
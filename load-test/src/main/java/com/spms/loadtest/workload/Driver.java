@@ -0,0 +1,180 @@
+package com.spms.loadtest.workload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.spms.loadtest.LoadTestOptions;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// One driver with one vehicle. A trip searches the driver's zone, reserves a space, enters,
+// occupies it, pays, stays for the dwell time, exits and releases the space, all through the
+// gateway: step by step, or through the orchestrated parking flow. Each driver sends its own
+// API key so the gateway rate-limits drivers separately.
+public class Driver {
+    
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    private static final Map<String, String> CARD = Map.of(
+            "cardNumber", "4242424242424242",
+            "cardHolderName", "Load Test",
+            "expiryDate", "12/30",
+            "cvv", "123");
+    
+    private final GatewayClient client;
+    private final Executor executor;
+    private final LoadTestOptions.Flow flow;
+    private final long vehicleId;
+    private final long userId;
+    private final String apiKey;
+    private final String city;
+    private final String zone;
+    private final Duration thinkTime;
+    private final Duration dwellTime;
+    
+    public Driver(GatewayClient client, Executor executor, LoadTestOptions.Flow flow, long vehicleId, long userId,
+                  String city, String zone, Duration thinkTime, Duration dwellTime) {
+        this.client = client;
+        this.executor = executor;
+        this.flow = flow;
+        this.vehicleId = vehicleId;
+        this.userId = userId;
+        this.apiKey = apiKey(userId);
+        this.city = city;
+        this.zone = zone;
+        this.thinkTime = thinkTime;
+        this.dwellTime = dwellTime;
+    }
+    
+    // LocalStack issues these keys to the gateway, which only rate-limits issued keys separately
+    public static String apiKey(long userId) {
+        return "load-test-driver-" + userId;
+    }
+    
+    public LoadTestOptions.Flow flow() {
+        return flow;
+    }
+    
+    // Completes with whether the whole trip succeeded; never completes exceptionally
+    public CompletableFuture<Boolean> trip() {
+        return reserveSpace(0)
+                .thenCompose(space -> {
+                    if (space == null) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    return flow == LoadTestOptions.Flow.ORCHESTRATED ? parkThroughFlow(space) : park(space);
+                })
+                .exceptionally(e -> false);
+    }
+    
+    // Search results may be as old as the gateway cache TTL, so a space that looked free
+    // can be taken by the time it is reserved. The driver then searches again.
+    private CompletableFuture<JsonNode> reserveSpace(int attempt) {
+        return client.get("search", "/api/parking-spaces/available/city/" + city + "/zone/" + zone, apiKey)
+                .thenCompose(search -> {
+                    JsonNode spaces = search.isSuccess() ? search.json() : NullNode.getInstance();
+                    if (!spaces.isArray() || spaces.isEmpty()) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    long spaceId = spaces.get(ThreadLocalRandom.current().nextInt(spaces.size())).path("id").asLong();
+                    return pause(thinkTime)
+                            .thenCompose(ignored -> client.put("reserve", "/api/parking-spaces/" + spaceId + "/reserve",
+                                    Map.of("durationHours", 1), apiKey))
+                            .thenCompose(reserve -> {
+                                if (reserve.isSuccess()) {
+                                    return CompletableFuture.completedFuture(reserve.json());
+                                }
+                                return attempt + 1 < MAX_RESERVE_ATTEMPTS
+                                        ? reserveSpace(attempt + 1)
+                                        : CompletableFuture.completedFuture(null);
+                            });
+                });
+    }
+    
+    private CompletableFuture<Boolean> park(JsonNode space) {
+        long spaceId = space.path("id").asLong();
+        return pause(thinkTime)
+                .thenCompose(ignored -> expect(client.put("entry", "/api/vehicles/" + vehicleId + "/entry",
+                        Map.of("parkingSpaceId", spaceId), apiKey)))
+                .thenCompose(ignored -> expect(client.put("occupy", "/api/parking-spaces/" + spaceId + "/occupy", null, apiKey)))
+                .thenCompose(ignored -> expect(client.post("create-payment", "/api/payments", payment(space), apiKey)))
+                .thenCompose(payment -> expect(client.post("process-payment",
+                        "/api/payments/" + payment.path("id").asLong() + "/process", CARD, apiKey)))
+                .thenCompose(ignored -> pause(dwellTime))
+                .thenCompose(ignored -> expect(client.put("exit", "/api/vehicles/" + vehicleId + "/exit", null, apiKey)))
+                .thenCompose(ignored -> pause(thinkTime))
+                .thenCompose(ignored -> expect(client.put("release", "/api/parking-spaces/" + spaceId + "/release", null, apiKey)))
+                .thenApply(ignored -> true)
+                .exceptionallyCompose(e -> leave(spaceId).thenApply(ignored -> false));
+    }
+    
+    // Check-in enters, occupies and creates the payment in one call; check-out exits and releases
+    private CompletableFuture<Boolean> parkThroughFlow(JsonNode space) {
+        long spaceId = space.path("id").asLong();
+        return pause(thinkTime)
+                .thenCompose(ignored -> expect(client.post("flow-check-in", "/api/parking-flow/check-in", Map.of(
+                        "vehicleId", vehicleId,
+                        "parkingSpaceId", spaceId,
+                        "parkingDurationHours", 1,
+                        "paymentMethod", "CREDIT_CARD"), apiKey)))
+                .thenCompose(checkIn -> expect(client.post("process-payment",
+                        "/api/payments/" + checkIn.path("payment").path("id").asLong() + "/process", CARD, apiKey)))
+                .thenCompose(ignored -> pause(dwellTime))
+                .thenCompose(ignored -> expect(client.post("flow-check-out", "/api/parking-flow/check-out",
+                        Map.of("vehicleId", vehicleId, "parkingSpaceId", spaceId), apiKey)))
+                .thenApply(ignored -> true)
+                .exceptionallyCompose(e -> leave(spaceId).thenApply(ignored -> false));
+    }
+    
+    // Best effort after a failed step, so the vehicle and space are free for the next trip
+    private CompletableFuture<Void> leave(long spaceId) {
+        return CompletableFuture.allOf(
+                client.put("cleanup-exit", "/api/vehicles/" + vehicleId + "/exit", null, apiKey),
+                client.put("cleanup-release", "/api/parking-spaces/" + spaceId + "/release", null, apiKey)
+        ).exceptionally(e -> null);
+    }
+    
+    private Map<String, Object> payment(JsonNode space) {
+        BigDecimal hourlyRate = new BigDecimal(space.path("hourlyRate").asText("1"));
+        Map<String, Object> payment = new HashMap<>();
+        payment.put("userId", userId);
+        payment.put("vehicleId", vehicleId);
+        payment.put("parkingSpaceId", space.path("id").asLong());
+        payment.put("parkingDurationHours", 1);
+        payment.put("hourlyRate", hourlyRate);
+        payment.put("amount", hourlyRate);
+        payment.put("paymentMethod", "CREDIT_CARD");
+        return payment;
+    }
+    
+    private CompletableFuture<JsonNode> expect(CompletableFuture<GatewayClient.Response> call) {
+        return call.thenApply(response -> {
+            if (!response.isSuccess()) {
+                throw new StepFailedException(response.status());
+            }
+            return response.body().length == 0 ? NullNode.getInstance() : response.json();
+        });
+    }
+    
+    private CompletableFuture<Void> pause(Duration duration) {
+        return CompletableFuture.runAsync(() -> {},
+                CompletableFuture.delayedExecutor(jittered(duration).toMillis(), TimeUnit.MILLISECONDS, executor));
+    }
+    
+    // Between half and one and a half times the given duration, so drivers drift apart
+    static Duration jittered(Duration duration) {
+        return Duration.ofMillis((long) (duration.toMillis() * (0.5 + ThreadLocalRandom.current().nextDouble())));
+    }
+    
+    private static class StepFailedException extends RuntimeException {
+        
+        StepFailedException(int status) {
+            super("Step failed with status " + status, null, false, false);
+        }
+    }
+}
\ No newline at end of file
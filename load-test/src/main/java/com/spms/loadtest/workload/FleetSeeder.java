@@ -0,0 +1,104 @@
+package com.spms.loadtest.workload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.loadtest.LoadTestOptions;
+import com.spms.loadtest.stack.LocalStack;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+// Creates the parking spaces and one vehicle per driver directly on the services, bypassing
+// the gateway, so seeding neither counts towards the results nor runs into rate limits
+public class FleetSeeder {
+    
+    public static final String[] CITIES = {"Colombo", "Kandy", "Galle"};
+    public static final String[] ZONES = {"A", "B", "C", "D", "E"};
+    
+    private static final int CONCURRENCY = 32;
+    
+    private final LoadTestOptions options;
+    private final LocalStack stack;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Semaphore permits = new Semaphore(CONCURRENCY);
+    
+    public FleetSeeder(LoadTestOptions options, LocalStack stack) {
+        this.options = options;
+        this.stack = stack;
+    }
+    
+    public List<Driver> seed(GatewayClient client, Executor executor) throws InterruptedException {
+        URI spaces = stack.service("parking-space-service").resolve("/api/parking-spaces");
+        List<CompletableFuture<Long>> created = new ArrayList<>();
+        for (int i = 0; i < options.spaces(); i++) {
+            created.add(post(spaces, Map.of(
+                    "spaceNumber", "LT-" + i,
+                    "location", "Level " + (i % 5),
+                    "city", CITIES[i % CITIES.length],
+                    "zone", ZONES[i / CITIES.length % ZONES.length],
+                    "hourlyRate", 2.0 + (i % 4) * 0.5,
+                    "ownerId", 1)));
+        }
+        CompletableFuture.allOf(created.toArray(CompletableFuture[]::new)).join();
+        System.out.printf("Seeded %d parking spaces%n", options.spaces());
+        
+        URI vehicles = stack.service("vehicle-service").resolve("/api/vehicles");
+        List<CompletableFuture<Long>> vehicleIds = new ArrayList<>();
+        for (int i = 0; i < options.drivers(); i++) {
+            vehicleIds.add(post(vehicles, Map.of(
+                    "licensePlate", String.format("LT-%06d", i),
+                    "make", "Toyota",
+                    "model", "Aqua",
+                    "year", 2020,
+                    "color", "White",
+                    "vehicleType", "CAR",
+                    "userId", i + 1)));
+        }
+        
+        List<Driver> drivers = new ArrayList<>();
+        for (int i = 0; i < options.drivers(); i++) {
+            drivers.add(new Driver(client, executor, options.flows().get(i % options.flows().size()),
+                    vehicleIds.get(i).join(), i + 1, CITIES[i % CITIES.length],
+                    ZONES[i / CITIES.length % ZONES.length], options.thinkTime(), options.dwellTime()));
+        }
+        System.out.printf("Seeded %d vehicles%n", options.drivers());
+        return drivers;
+    }
+    
+    private CompletableFuture<Long> post(URI uri, Map<String, Object> body) throws InterruptedException {
+        permits.acquire();
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            permits.release();
+            throw new IllegalStateException(e);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> permits.release())
+                .thenApply(response -> {
+                    if (response.statusCode() != 201) {
+                        throw new IllegalStateException("Seeding " + uri + " failed with status " + response.statusCode());
+                    }
+                    try {
+                        return objectMapper.readTree(response.body()).path("id").asLong();
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.spms.loadtest.workload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.loadtest.report.EndpointStats;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+// Sends the drivers' requests and records every one of them under its endpoint name
+public class GatewayClient {
+    
+    public static final String API_KEY_HEADER = "X-API-Key";
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    
+    private final URI gateway;
+    private final HttpClient httpClient;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    
+    public record Response(int status, byte[] body) {
+        
+        public boolean isSuccess() {
+            return status >= 200 && status < 300;
+        }
+        
+        public JsonNode json() {
+            try {
+                return OBJECT_MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+    
+    public GatewayClient(URI gateway, Executor executor) {
+        this.gateway = gateway;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+    }
+    
+    public CompletableFuture<Response> get(String endpoint, String path, String apiKey) {
+        return send(endpoint, request(path, apiKey).GET().build());
+    }
+    
+    public CompletableFuture<Response> put(String endpoint, String path, Object body, String apiKey) {
+        return send(endpoint, request(path, apiKey).PUT(json(body)).build());
+    }
+    
+    public CompletableFuture<Response> post(String endpoint, String path, Object body, String apiKey) {
+        return send(endpoint, request(path, apiKey).POST(json(body)).build());
+    }
+    
+    public void reset() {
+        stats.values().forEach(EndpointStats::reset);
+    }
+    
+    public List<EndpointStats.Snapshot> snapshot() {
+        return stats.values().stream().map(EndpointStats::snapshot).toList();
+    }
+    
+    private CompletableFuture<Response> send(String endpoint, HttpRequest request) {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, error) -> {
+                    long latencyMicros = (System.nanoTime() - start) / 1000;
+                    if (error != null) {
+                        endpointStats.recordFailure(latencyMicros);
+                        throw error instanceof CompletionException completion ? completion : new CompletionException(error);
+                    }
+                    endpointStats.record(latencyMicros, response.statusCode(),
+                            response.headers().firstValue("X-Cache").orElse(null));
+                    return new Response(response.statusCode(), response.body());
+                });
+    }
+    
+    private HttpRequest.Builder request(String path, String apiKey) {
+        return HttpRequest.newBuilder(gateway.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header(API_KEY_HEADER, apiKey);
+    }
+    
+    private HttpRequest.BodyPublisher json(Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+package com.spms.loadtest.workload;
+
+import com.spms.loadtest.LoadTestOptions;
+import com.spms.loadtest.report.EndpointStats;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Runs the drivers' trips for the warmup and then the measured duration. Only requests and
+// trips from the measured window are reported; trips still running at the end are drained
+// so the services are quiet before the stack is stopped.
+public class Workload {
+    
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final LoadTestOptions options;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "load-test-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<LoadTestOptions.Flow, LongAdder> tripsCompleted = new EnumMap<>(LoadTestOptions.Flow.class);
+    private final Map<LoadTestOptions.Flow, LongAdder> tripsFailed = new EnumMap<>(LoadTestOptions.Flow.class);
+    private final LongAdder arrivalsDropped = new LongAdder();
+    private final AtomicInteger tripsInFlight = new AtomicInteger();
+    private volatile boolean running = true;
+    
+    public record Result(List<EndpointStats.Snapshot> endpoints, Map<LoadTestOptions.Flow, Trips> trips,
+                         long arrivalsDropped, Duration measured) {
+        
+        public long tripsCompleted() {
+            return trips.values().stream().mapToLong(Trips::completed).sum();
+        }
+        
+        public long tripsFailed() {
+            return trips.values().stream().mapToLong(Trips::failed).sum();
+        }
+    }
+    
+    public record Trips(long completed, long failed) {
+    }
+    
+    public Workload(LoadTestOptions options) {
+        this.options = options;
+        for (LoadTestOptions.Flow flow : options.flows()) {
+            tripsCompleted.put(flow, new LongAdder());
+            tripsFailed.put(flow, new LongAdder());
+        }
+    }
+    
+    public Result run(List<Driver> drivers, GatewayClient client) throws InterruptedException {
+        if (options.model() == LoadTestOptions.Model.CLOSED) {
+            // Drivers join evenly over the warmup instead of all searching in the same instant
+            long stagger = options.warmup().toNanos() / Math.max(1, drivers.size());
+            for (int i = 0; i < drivers.size(); i++) {
+                Driver driver = drivers.get(i);
+                scheduler.schedule(() -> loop(driver), i * stagger, TimeUnit.NANOSECONDS);
+            }
+        } else {
+            scheduleArrival(new ConcurrentLinkedQueue<>(drivers));
+        }
+        
+        System.out.printf("Warming up for %s%n", options.warmup());
+        Thread.sleep(options.warmup().toMillis());
+        client.reset();
+        tripsCompleted.values().forEach(LongAdder::reset);
+        tripsFailed.values().forEach(LongAdder::reset);
+        arrivalsDropped.reset();
+        
+        System.out.printf("Measuring for %s%n", options.duration());
+        long start = System.nanoTime();
+        Thread.sleep(options.duration().toMillis());
+        Map<LoadTestOptions.Flow, Trips> trips = new EnumMap<>(LoadTestOptions.Flow.class);
+        for (LoadTestOptions.Flow flow : options.flows()) {
+            trips.put(flow, new Trips(tripsCompleted.get(flow).sum(), tripsFailed.get(flow).sum()));
+        }
+        Result result = new Result(client.snapshot(), trips, arrivalsDropped.sum(),
+                Duration.ofNanos(System.nanoTime() - start));
+        
+        running = false;
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (tripsInFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(100);
+        }
+        scheduler.shutdownNow();
+        return result;
+    }
+    
+    private void loop(Driver driver) {
+        if (!running) {
+            return;
+        }
+        tripsInFlight.incrementAndGet();
+        driver.trip().thenAccept(success -> {
+            finished(driver, success);
+            if (running) {
+                scheduler.schedule(() -> loop(driver), Driver.jittered(options.thinkTime()).toMillis(), TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+    
+    // Exponential gaps give Poisson arrivals at the configured rate. An arrival that finds
+    // every driver busy is dropped and counted rather than queued, so a slow system cannot
+    // quietly lower the offered load.
+    private void scheduleArrival(Queue<Driver> idle) {
+        double gapSeconds = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) / options.arrivalRate();
+        scheduler.schedule(() -> {
+            if (!running) {
+                return;
+            }
+            scheduleArrival(idle);
+            Driver driver = idle.poll();
+            if (driver == null) {
+                arrivalsDropped.increment();
+                return;
+            }
+            tripsInFlight.incrementAndGet();
+            driver.trip().thenAccept(success -> {
+                finished(driver, success);
+                idle.add(driver);
+            });
+        }, (long) (gapSeconds * 1_000_000), TimeUnit.MICROSECONDS);
+    }
+    
+    private void finished(Driver driver, boolean success) {
+        if (success) {
+            tripsCompleted.get(driver.flow()).increment();
+        } else {
+            tripsFailed.get(driver.flow()).increment();
+        }
+        tripsInFlight.decrementAndGet();
+    }
+}
\ No newline at end of file
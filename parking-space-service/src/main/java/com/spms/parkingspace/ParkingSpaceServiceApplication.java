@@ -1,11 +1,16 @@
 package com.spms.parkingspace;
 
+import com.spms.common.cache.SecondLevelCacheConfiguration;
+import com.spms.common.datasource.ReadReplicaConfig;
+import com.spms.common.event.OutboxConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import({OutboxConfiguration.class, ReadReplicaConfig.class, SecondLevelCacheConfiguration.class})
 public class ParkingSpaceServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(ParkingSpaceServiceApplication.class, args);
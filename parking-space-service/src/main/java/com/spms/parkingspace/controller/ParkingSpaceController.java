@@ -1,6 +1,10 @@
 package com.spms.parkingspace.controller;
 
+import com.spms.common.projection.ProjectedList;
 import com.spms.parkingspace.entity.ParkingSpace;
+import com.spms.parkingspace.search.ParkingSearchIndex;
+import com.spms.parkingspace.search.ParkingSearchQuery;
+import com.spms.parkingspace.search.ParkingSearchResult;
 import com.spms.parkingspace.service.ParkingSpaceService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,9 +12,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/parking-spaces")
@@ -19,10 +26,51 @@ public class ParkingSpaceController {
     @Autowired
     private ParkingSpaceService parkingSpaceService;
     
+    @Autowired
+    private ParkingSearchIndex parkingSearchIndex;
+    
     @GetMapping
-    public ResponseEntity<List<ParkingSpace>> getAllParkingSpaces() {
-        List<ParkingSpace> spaces = parkingSpaceService.getAllParkingSpaces();
-        return ResponseEntity.ok(spaces);
+    public ResponseEntity<List<?>> getAllParkingSpaces(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, parkingSpaceService::getAllParkingSpaces, parkingSpaceService::getAllParkingSpaces);
+    }
+    
+    // Served from the in-memory read model, which trails writes by up to the outbox relay interval
+    @GetMapping("/search")
+    public ResponseEntity<ParkingSearchResult> searchParkingSpaces(
+            @RequestParam(required = false, defaultValue = "") List<String> city,
+            @RequestParam(required = false, defaultValue = "") List<String> zone,
+            @RequestParam(required = false, defaultValue = "") List<ParkingSpace.ParkingStatus> status,
+            @RequestParam(required = false) Long ownerId,
+            @RequestParam(required = false) Double minRate,
+            @RequestParam(required = false) Double maxRate,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false, defaultValue = "") List<String> facets) {
+        if (!parkingSearchIndex.isLoaded()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        
+        ParkingSearchQuery.Sort order;
+        switch (sort) {
+            case "id" -> order = ParkingSearchQuery.Sort.ID;
+            case "hourlyRate" -> order = ParkingSearchQuery.Sort.HOURLY_RATE;
+            case "-hourlyRate" -> order = ParkingSearchQuery.Sort.HOURLY_RATE_DESC;
+            default -> {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        Set<ParkingSearchQuery.Facet> facetSet = EnumSet.noneOf(ParkingSearchQuery.Facet.class);
+        try {
+            facets.forEach(facet -> facetSet.add(ParkingSearchQuery.Facet.valueOf(facet.trim().toUpperCase(Locale.ROOT))));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        ParkingSearchQuery query = new ParkingSearchQuery(city, zone, status, ownerId, minRate, maxRate, order,
+                Math.max(1, Math.min(limit, 1000)), facetSet);
+        return ResponseEntity.ok(parkingSearchIndex.search(query));
     }
     
     @GetMapping("/{id}")
@@ -40,34 +88,44 @@ public class ParkingSpaceController {
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<ParkingSpace>> getAvailableParkingSpaces() {
-        List<ParkingSpace> spaces = parkingSpaceService.getAvailableParkingSpaces();
-        return ResponseEntity.ok(spaces);
+    public ResponseEntity<List<?>> getAvailableParkingSpaces(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, parkingSpaceService::getAvailableParkingSpaces,
+                parkingSpaceService::getAvailableParkingSpaces);
     }
     
     @GetMapping("/city/{city}")
-    public ResponseEntity<List<ParkingSpace>> getParkingSpacesByCity(@PathVariable String city) {
-        List<ParkingSpace> spaces = parkingSpaceService.getParkingSpacesByCity(city);
-        return ResponseEntity.ok(spaces);
+    public ResponseEntity<List<?>> getParkingSpacesByCity(
+            @PathVariable String city, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> parkingSpaceService.getParkingSpacesByCity(city),
+                fieldset -> parkingSpaceService.getParkingSpacesByCity(city, fieldset));
     }
     
     @GetMapping("/zone/{zone}")
-    public ResponseEntity<List<ParkingSpace>> getParkingSpacesByZone(@PathVariable String zone) {
-        List<ParkingSpace> spaces = parkingSpaceService.getParkingSpacesByZone(zone);
-        return ResponseEntity.ok(spaces);
+    public ResponseEntity<List<?>> getParkingSpacesByZone(
+            @PathVariable String zone, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> parkingSpaceService.getParkingSpacesByZone(zone),
+                fieldset -> parkingSpaceService.getParkingSpacesByZone(zone, fieldset));
     }
     
     @GetMapping("/owner/{ownerId}")
-    public ResponseEntity<List<ParkingSpace>> getParkingSpacesByOwner(@PathVariable Long ownerId) {
-        List<ParkingSpace> spaces = parkingSpaceService.getParkingSpacesByOwner(ownerId);
-        return ResponseEntity.ok(spaces);
+    public ResponseEntity<List<?>> getParkingSpacesByOwner(
+            @PathVariable Long ownerId, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> parkingSpaceService.getParkingSpacesByOwner(ownerId),
+                fieldset -> parkingSpaceService.getParkingSpacesByOwner(ownerId, fieldset));
     }
     
     @GetMapping("/available/city/{city}/zone/{zone}")
-    public ResponseEntity<List<ParkingSpace>> getAvailableSpacesByCityAndZone(
-            @PathVariable String city, @PathVariable String zone) {
-        List<ParkingSpace> spaces = parkingSpaceService.getAvailableSpacesByCityAndZone(city, zone);
-        return ResponseEntity.ok(spaces);
+    public ResponseEntity<List<?>> getAvailableSpacesByCityAndZone(
+            @PathVariable String city, @PathVariable String zone,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> parkingSpaceService.getAvailableSpacesByCityAndZone(city, zone),
+                fieldset -> parkingSpaceService.getAvailableSpacesByCityAndZone(city, zone, fieldset));
     }
     
     @PostMapping
@@ -104,9 +162,10 @@ public class ParkingSpaceController {
     }
     
     @PutMapping("/{id}/release")
-    public ResponseEntity<ParkingSpace> releaseParkingSpace(@PathVariable Long id) {
+    public ResponseEntity<ParkingSpace> releaseParkingSpace(
+            @PathVariable Long id, @RequestParam(required = false) Long vehicleId) {
         try {
-            ParkingSpace releasedSpace = parkingSpaceService.releaseParkingSpace(id);
+            ParkingSpace releasedSpace = parkingSpaceService.releaseParkingSpace(id, vehicleId);
             return ResponseEntity.ok(releasedSpace);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
@@ -114,9 +173,10 @@ public class ParkingSpaceController {
     }
     
     @PutMapping("/{id}/occupy")
-    public ResponseEntity<ParkingSpace> occupyParkingSpace(@PathVariable Long id) {
+    public ResponseEntity<ParkingSpace> occupyParkingSpace(
+            @PathVariable Long id, @RequestParam(required = false) Long vehicleId) {
         try {
-            ParkingSpace occupiedSpace = parkingSpaceService.occupyParkingSpace(id);
+            ParkingSpace occupiedSpace = parkingSpaceService.occupyParkingSpace(id, vehicleId);
             return ResponseEntity.ok(occupiedSpace);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
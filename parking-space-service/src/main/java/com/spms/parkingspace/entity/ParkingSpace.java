@@ -4,10 +4,16 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
+// Read far more than written, but reservations and occupancy change a space concurrently,
+// so cached copies are soft-locked while a change is in flight
 @Entity
 @Table(name = "parking_spaces")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ParkingSpace {
     
     @Id
@@ -51,6 +57,11 @@ public class ParkingSpace {
     @Column(name = "reserved_until")
     private LocalDateTime reservedUntil;
     
+    // The vehicle an orchestrated check-in parked here, so its compensation and the matching
+    // check-out only release the space while that vehicle still holds it
+    @Column(name = "occupied_by_vehicle_id")
+    private Long occupiedByVehicleId;
+    
     public enum ParkingStatus {
         AVAILABLE, OCCUPIED, RESERVED, OUT_OF_ORDER
     }
@@ -166,4 +177,12 @@ public class ParkingSpace {
     public void setReservedUntil(LocalDateTime reservedUntil) {
         this.reservedUntil = reservedUntil;
     }
+    
+    public Long getOccupiedByVehicleId() {
+        return occupiedByVehicleId;
+    }
+    
+    public void setOccupiedByVehicleId(Long occupiedByVehicleId) {
+        this.occupiedByVehicleId = occupiedByVehicleId;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.spms.parkingspace.repository;
+
+import com.spms.common.projection.ProjectionRepository;
+import com.spms.parkingspace.search.ParkingSpaceSummary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// The compact view is the same ParkingSpaceSummary that search returns
+@Repository
+public class ParkingSpaceProjectionRepository extends ProjectionRepository<ParkingSpaceSummary> {
+    
+    public ParkingSpaceProjectionRepository() {
+        super("ParkingSpace", "p",
+                List.of("id", "spaceNumber", "location", "zone", "city", "hourlyRate", "status", "ownerId",
+                        "createdAt", "updatedAt", "reservedUntil", "occupiedByVehicleId"),
+                ParkingSpaceSummary.class,
+                "p.id, p.spaceNumber, p.location, p.city, p.zone, p.status, p.hourlyRate, p.ownerId");
+    }
+}
\ No newline at end of file
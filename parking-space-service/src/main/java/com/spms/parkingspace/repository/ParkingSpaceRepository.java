@@ -1,8 +1,12 @@
 package com.spms.parkingspace.repository;
 
 import com.spms.parkingspace.entity.ParkingSpace;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,18 +18,25 @@ public interface ParkingSpaceRepository extends JpaRepository<ParkingSpace, Long
     
     List<ParkingSpace> findByStatus(ParkingSpace.ParkingStatus status);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ParkingSpace> findByCity(String city);
     
     List<ParkingSpace> findByZone(String zone);
     
     List<ParkingSpace> findByOwnerId(Long ownerId);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<ParkingSpace> findByCityAndZone(String city, String zone);
     
     List<ParkingSpace> findByCityAndStatus(String city, ParkingSpace.ParkingStatus status);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ParkingSpace> findBySpaceNumber(String spaceNumber);
     
+    // Bulk reads for the search index would only push the hot entries out of the cache
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    List<ParkingSpace> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
     @Query("SELECT p FROM ParkingSpace p WHERE p.city = :city AND p.zone = :zone AND p.status = :status")
     List<ParkingSpace> findAvailableSpacesByCityAndZone(@Param("city") String city, 
                                                         @Param("zone") String zone, 
@@ -0,0 +1,446 @@
+package com.spms.parkingspace.search;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.parkingspace.entity.ParkingSpace;
+import com.spms.common.event.DomainEvent;
+import com.spms.common.event.DomainEventListener;
+import com.spms.parkingspace.service.ParkingSpaceService;
+import com.spms.parkingspace.shard.ShardIds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+// Read model behind /api/parking-spaces/search, kept up to date from the service's own
+// domain events. Each searchable attribute is a column indexed by slot, and the secondary
+// indexes are bit sets of slots per city, zone, status and owner plus the slots sorted by
+// hourly rate, so a search is a few bit set intersections and one ordered walk.
+@Component
+public class ParkingSearchIndex implements DomainEventListener {
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long NO_OWNER = 0;
+    private static final ParkingSpace.ParkingStatus[] STATUSES = ParkingSpace.ParkingStatus.values();
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${spms.shard.id:0}")
+    private int shardId;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // Columns; the slots of deleted spaces are reused
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] cities = new int[INITIAL_CAPACITY];
+    private int[] zones = new int[INITIAL_CAPACITY];
+    private byte[] statuses = new byte[INITIAL_CAPACITY];
+    private double[] rates = new double[INITIAL_CAPACITY];
+    private long[] owners = new long[INITIAL_CAPACITY];
+    private String[] spaceNumbers = new String[INITIAL_CAPACITY];
+    private String[] locations = new String[INITIAL_CAPACITY];
+    private int slotCount;
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    
+    private final Dictionary cityDictionary = new Dictionary();
+    private final Dictionary zoneDictionary = new Dictionary();
+    
+    // Secondary indexes
+    private final List<BitSet> slotsByCity = new ArrayList<>();
+    private final List<BitSet> slotsByZone = new ArrayList<>();
+    private final BitSet[] slotsByStatus = new BitSet[STATUSES.length];
+    private final Map<Long, BitSet> slotsByOwner = new HashMap<>();
+    private int[] slotsByRate = new int[INITIAL_CAPACITY];
+    private int rateIndexSize;
+    
+    // The outbox id of the last event applied per space. Kept after a delete, so a late
+    // duplicate cannot bring the space back.
+    private final Map<Long, Long> lastEventIds = new HashMap<>();
+    
+    // Until the initial load finishes the rate index is left alone and rebuilt once at the end
+    private volatile boolean loaded;
+    
+    public ParkingSearchIndex() {
+        for (int i = 0; i < slotsByStatus.length; i++) {
+            slotsByStatus[i] = new BitSet();
+        }
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (!ParkingSpaceService.AGGREGATE_TYPE.equals(event.aggregateType())) {
+            return;
+        }
+        long id = Long.parseLong(event.aggregateId());
+        // Every instance of every shard receives the relayed events; only this shard's are kept
+        if (ShardIds.shardOf(id) != shardId) {
+            return;
+        }
+        ParkingSpace parkingSpace = "ParkingSpaceDeleted".equals(event.type()) ? null : toParkingSpace(event);
+        
+        lock.writeLock().lock();
+        try {
+            // At-least-once delivery: skip redelivered events and those the load already saw
+            if (lastEventIds.getOrDefault(id, 0L) >= event.id()) {
+                return;
+            }
+            lastEventIds.put(id, event.id());
+            if (parkingSpace == null) {
+                remove(id);
+            } else {
+                upsert(parkingSpace);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // lastLoadedEventIds must be read before the rows: a row is then at least as new as the
+    // event id recorded for it. A row older than an event already applied is skipped.
+    public void load(List<ParkingSpace> parkingSpaces, Map<Long, Long> lastLoadedEventIds) {
+        lock.writeLock().lock();
+        try {
+            for (ParkingSpace parkingSpace : parkingSpaces) {
+                long loadedEventId = lastLoadedEventIds.getOrDefault(parkingSpace.getId(), 0L);
+                if (lastEventIds.getOrDefault(parkingSpace.getId(), 0L) > loadedEventId) {
+                    continue;
+                }
+                if (loadedEventId > 0) {
+                    lastEventIds.put(parkingSpace.getId(), loadedEventId);
+                }
+                upsert(parkingSpace);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            int[] sorted = live.stream().boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(slot -> rates[slot]).thenComparingLong(slot -> ids[slot]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            slotsByRate = Arrays.copyOf(sorted, Math.max(INITIAL_CAPACITY, sorted.length * 2));
+            rateIndexSize = sorted.length;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public ParkingSearchResult search(ParkingSearchQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            restrict(matches, slotsByCity, cityDictionary, query.cities());
+            restrict(matches, slotsByZone, zoneDictionary, query.zones());
+            if (!query.statuses().isEmpty()) {
+                BitSet anyStatus = new BitSet();
+                for (ParkingSpace.ParkingStatus status : query.statuses()) {
+                    anyStatus.or(slotsByStatus[status.ordinal()]);
+                }
+                matches.and(anyStatus);
+            }
+            if (query.ownerId() != null) {
+                matches.and(slotsByOwner.getOrDefault(query.ownerId(), new BitSet()));
+            }
+            
+            Collector collector = new Collector(query);
+            boolean sortedByRate = query.sort() != ParkingSearchQuery.Sort.ID;
+            if (sortedByRate || query.minRate() != null || query.maxRate() != null) {
+                // Walk the rate range in sort order; for a rate sort the first matches are the top K
+                int from = query.minRate() == null ? 0 : rateIndexPosition(query.minRate(), Long.MIN_VALUE);
+                int to = query.maxRate() == null ? rateIndexSize : rateIndexPosition(query.maxRate(), Long.MAX_VALUE);
+                boolean descending = query.sort() == ParkingSearchQuery.Sort.HOURLY_RATE_DESC;
+                for (int i = 0; i < to - from; i++) {
+                    int slot = slotsByRate[descending ? to - 1 - i : from + i];
+                    if (matches.get(slot)) {
+                        collector.accept(slot);
+                    }
+                }
+            } else {
+                for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                    collector.accept(slot);
+                }
+            }
+            return collector.result();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void restrict(BitSet matches, List<BitSet> index, Dictionary dictionary, List<String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        BitSet anyValue = new BitSet();
+        for (String value : values) {
+            int code = dictionary.find(value);
+            if (code >= 0) {
+                anyValue.or(index.get(code));
+            }
+        }
+        matches.and(anyValue);
+    }
+    
+    private void upsert(ParkingSpace parkingSpace) {
+        Integer slot = slotsById.get(parkingSpace.getId());
+        if (slot != null) {
+            unindex(slot);
+        } else {
+            slot = allocateSlot();
+            slotsById.put(parkingSpace.getId(), slot);
+        }
+        
+        ids[slot] = parkingSpace.getId();
+        cities[slot] = cityDictionary.encode(parkingSpace.getCity());
+        zones[slot] = zoneDictionary.encode(parkingSpace.getZone());
+        statuses[slot] = (byte) parkingSpace.getStatus().ordinal();
+        rates[slot] = parkingSpace.getHourlyRate();
+        owners[slot] = parkingSpace.getOwnerId() == null ? NO_OWNER : parkingSpace.getOwnerId();
+        spaceNumbers[slot] = parkingSpace.getSpaceNumber();
+        locations[slot] = parkingSpace.getLocation();
+        index(slot);
+    }
+    
+    private void remove(long id) {
+        Integer slot = slotsById.remove(id);
+        if (slot != null) {
+            unindex(slot);
+            spaceNumbers[slot] = null;
+            locations[slot] = null;
+            freeSlots.push(slot);
+        }
+    }
+    
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        if (slotCount == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            cities = Arrays.copyOf(cities, capacity);
+            zones = Arrays.copyOf(zones, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            rates = Arrays.copyOf(rates, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            spaceNumbers = Arrays.copyOf(spaceNumbers, capacity);
+            locations = Arrays.copyOf(locations, capacity);
+        }
+        return slotCount++;
+    }
+    
+    private void index(int slot) {
+        live.set(slot);
+        bitSetFor(slotsByCity, cities[slot]).set(slot);
+        bitSetFor(slotsByZone, zones[slot]).set(slot);
+        slotsByStatus[statuses[slot]].set(slot);
+        if (owners[slot] != NO_OWNER) {
+            slotsByOwner.computeIfAbsent(owners[slot], owner -> new BitSet()).set(slot);
+        }
+        if (loaded) {
+            int position = rateIndexPosition(rates[slot], ids[slot]);
+            if (rateIndexSize == slotsByRate.length) {
+                slotsByRate = Arrays.copyOf(slotsByRate, slotsByRate.length * 2);
+            }
+            System.arraycopy(slotsByRate, position, slotsByRate, position + 1, rateIndexSize - position);
+            slotsByRate[position] = slot;
+            rateIndexSize++;
+        }
+    }
+    
+    private void unindex(int slot) {
+        live.clear(slot);
+        slotsByCity.get(cities[slot]).clear(slot);
+        slotsByZone.get(zones[slot]).clear(slot);
+        slotsByStatus[statuses[slot]].clear(slot);
+        if (owners[slot] != NO_OWNER) {
+            BitSet ownerSlots = slotsByOwner.get(owners[slot]);
+            ownerSlots.clear(slot);
+            if (ownerSlots.isEmpty()) {
+                slotsByOwner.remove(owners[slot]);
+            }
+        }
+        if (loaded) {
+            int position = rateIndexPosition(rates[slot], ids[slot]);
+            System.arraycopy(slotsByRate, position + 1, slotsByRate, position, rateIndexSize - position - 1);
+            rateIndexSize--;
+        }
+    }
+    
+    private BitSet bitSetFor(List<BitSet> index, int code) {
+        while (index.size() <= code) {
+            index.add(new BitSet());
+        }
+        return index.get(code);
+    }
+    
+    // First position in the rate index whose (rate, id) is not below the given pair
+    private int rateIndexPosition(double rate, long id) {
+        int low = 0;
+        int high = rateIndexSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int slot = slotsByRate[middle];
+            int comparison = rates[slot] != rate ? Double.compare(rates[slot], rate) : Long.compare(ids[slot], id);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    
+    private ParkingSpace toParkingSpace(DomainEvent event) {
+        try {
+            return objectMapper.treeToValue(event.payload(), ParkingSpace.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable " + event.type() + " event " + event.id(), e);
+        }
+    }
+    
+    // Counts matches and facets and keeps the top K. Matches arrive in sort order for rate
+    // sorts, so the first K are kept; for the ID sort a heap keeps the K lowest ids.
+    private class Collector {
+        
+        private final ParkingSearchQuery query;
+        private final int[] top;
+        private final PriorityQueue<Integer> lowestIds;
+        private final int[] cityCounts;
+        private final int[] zoneCounts;
+        private final int[] statusCounts;
+        private int kept;
+        private int total;
+        
+        Collector(ParkingSearchQuery query) {
+            this.query = query;
+            this.top = new int[query.limit()];
+            this.lowestIds = query.sort() == ParkingSearchQuery.Sort.ID
+                    ? new PriorityQueue<>(query.limit() + 1, Comparator.<Integer>comparingLong(slot -> ids[slot]).reversed())
+                    : null;
+            this.cityCounts = query.facets().contains(ParkingSearchQuery.Facet.CITY) ? new int[cityDictionary.size()] : null;
+            this.zoneCounts = query.facets().contains(ParkingSearchQuery.Facet.ZONE) ? new int[zoneDictionary.size()] : null;
+            this.statusCounts = query.facets().contains(ParkingSearchQuery.Facet.STATUS) ? new int[STATUSES.length] : null;
+        }
+        
+        void accept(int slot) {
+            total++;
+            if (cityCounts != null) {
+                cityCounts[cities[slot]]++;
+            }
+            if (zoneCounts != null) {
+                zoneCounts[zones[slot]]++;
+            }
+            if (statusCounts != null) {
+                statusCounts[statuses[slot]]++;
+            }
+            if (lowestIds != null) {
+                lowestIds.add(slot);
+                if (lowestIds.size() > query.limit()) {
+                    lowestIds.poll();
+                }
+            } else if (kept < top.length) {
+                top[kept++] = slot;
+            }
+        }
+        
+        ParkingSearchResult result() {
+            int[] slots = lowestIds != null
+                    ? lowestIds.stream().sorted(Comparator.comparingLong(slot -> ids[slot])).mapToInt(Integer::intValue).toArray()
+                    : Arrays.copyOf(top, kept);
+            
+            List<ParkingSpaceSummary> items = new ArrayList<>(slots.length);
+            for (int slot : slots) {
+                items.add(new ParkingSpaceSummary(ids[slot], spaceNumbers[slot], locations[slot],
+                        cityDictionary.decode(cities[slot]), zoneDictionary.decode(zones[slot]),
+                        STATUSES[statuses[slot]], rates[slot], owners[slot] == NO_OWNER ? null : owners[slot]));
+            }
+            
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            if (cityCounts != null) {
+                facets.put("city", counts(cityCounts, cityDictionary::decode));
+            }
+            if (zoneCounts != null) {
+                facets.put("zone", counts(zoneCounts, zoneDictionary::decode));
+            }
+            if (statusCounts != null) {
+                facets.put("status", counts(statusCounts, code -> STATUSES[code].name()));
+            }
+            return new ParkingSearchResult(total, items, facets);
+        }
+        
+        // Highest count first
+        private Map<String, Integer> counts(int[] countsByCode, IntFunction<String> decode) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            IntStream.range(0, countsByCode.length)
+                    .filter(code -> countsByCode[code] > 0)
+                    .boxed()
+                    .sorted(Comparator.comparingInt((Integer code) -> countsByCode[code]).reversed())
+                    .forEach(code -> counts.put(decode.apply(code), countsByCode[code]));
+            return counts;
+        }
+    }
+    
+    // Dense codes for a column's values. Lookups ignore case, like the database's default
+    // collation; the first spelling seen is the one reported.
+    private static class Dictionary {
+        
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        
+        int encode(String value) {
+            return codes.computeIfAbsent(value.toLowerCase(Locale.ROOT), key -> {
+                values.add(value);
+                return values.size() - 1;
+            });
+        }
+        
+        int find(String value) {
+            return codes.getOrDefault(value.toLowerCase(Locale.ROOT), -1);
+        }
+        
+        String decode(int code) {
+            return values.get(code);
+        }
+        
+        int size() {
+            return values.size();
+        }
+    }
+}
\ No newline at end of file
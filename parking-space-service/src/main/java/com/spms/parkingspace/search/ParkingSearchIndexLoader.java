@@ -0,0 +1,61 @@
+package com.spms.parkingspace.search;
+
+import com.spms.common.event.OutboxEventRepository;
+import com.spms.parkingspace.entity.ParkingSpace;
+import com.spms.parkingspace.repository.ParkingSpaceRepository;
+import com.spms.parkingspace.service.ParkingSpaceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class ParkingSearchIndexLoader {
+    
+    private static final Logger log = LoggerFactory.getLogger(ParkingSearchIndexLoader.class);
+    
+    @Autowired
+    private ParkingSearchIndex parkingSearchIndex;
+    
+    @Autowired
+    private ParkingSpaceRepository parkingSpaceRepository;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Value("${spms.search.load-batch-size:10000}")
+    private int batchSize;
+    
+    // Events relayed while this runs are applied as they arrive; the last event id per space
+    // tells the index which of the two is newer.
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.nanoTime();
+        Map<Long, Long> lastEventIds = new HashMap<>();
+        for (Object[] row : outboxEventRepository.findLastEventIds(ParkingSpaceService.AGGREGATE_TYPE)) {
+            lastEventIds.put(Long.valueOf((String) row[0]), (Long) row[1]);
+        }
+        
+        long lastId = 0;
+        List<ParkingSpace> batch;
+        do {
+            batch = parkingSpaceRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            parkingSearchIndex.load(batch, lastEventIds);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == batchSize);
+        
+        parkingSearchIndex.finishLoad();
+        log.info("Loaded {} parking spaces into the search index in {} ms", parkingSearchIndex.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
\ No newline at end of file
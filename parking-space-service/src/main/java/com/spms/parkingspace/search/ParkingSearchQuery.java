@@ -0,0 +1,27 @@
+package com.spms.parkingspace.search;
+
+import com.spms.parkingspace.entity.ParkingSpace;
+
+import java.util.List;
+import java.util.Set;
+
+// Values within one filter are alternatives (city=Colombo&city=Kandy); different filters
+// must all match. Empty lists and null bounds do not filter.
+public record ParkingSearchQuery(List<String> cities,
+                                 List<String> zones,
+                                 List<ParkingSpace.ParkingStatus> statuses,
+                                 Long ownerId,
+                                 Double minRate,
+                                 Double maxRate,
+                                 Sort sort,
+                                 int limit,
+                                 Set<Facet> facets) {
+    
+    public enum Sort {
+        ID, HOURLY_RATE, HOURLY_RATE_DESC
+    }
+    
+    public enum Facet {
+        CITY, ZONE, STATUS
+    }
+}
\ No newline at end of file
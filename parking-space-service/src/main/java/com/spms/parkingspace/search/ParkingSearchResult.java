@@ -0,0 +1,11 @@
+package com.spms.parkingspace.search;
+
+import java.util.List;
+import java.util.Map;
+
+// total counts every match, items holds at most the query's limit of them, and facets
+// count the matches per value of each requested facet
+public record ParkingSearchResult(int total,
+                                  List<ParkingSpaceSummary> items,
+                                  Map<String, Map<String, Integer>> facets) {
+}
\ No newline at end of file
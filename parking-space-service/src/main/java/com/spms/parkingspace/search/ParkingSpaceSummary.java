@@ -0,0 +1,13 @@
+package com.spms.parkingspace.search;
+
+import com.spms.parkingspace.entity.ParkingSpace;
+
+public record ParkingSpaceSummary(Long id,
+                                  String spaceNumber,
+                                  String location,
+                                  String city,
+                                  String zone,
+                                  ParkingSpace.ParkingStatus status,
+                                  Double hourlyRate,
+                                  Long ownerId) {
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.spms.parkingspace.service;
 
+import com.spms.common.event.DomainEventPublisher;
+import com.spms.common.projection.Fieldset;
 import com.spms.parkingspace.entity.ParkingSpace;
+import com.spms.parkingspace.repository.ParkingSpaceProjectionRepository;
 import com.spms.parkingspace.repository.ParkingSpaceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -14,47 +17,94 @@ import java.util.Optional;
 @Transactional
 public class ParkingSpaceService {
     
+    public static final String AGGREGATE_TYPE = "ParkingSpace";
+    
     @Autowired
     private ParkingSpaceRepository parkingSpaceRepository;
     
+    @Autowired
+    private ParkingSpaceProjectionRepository parkingSpaceProjectionRepository;
+    
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+    
+    @Transactional(readOnly = true)
     public List<ParkingSpace> getAllParkingSpaces() {
         return parkingSpaceRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getAllParkingSpaces(Fieldset fieldset) {
+        return parkingSpaceProjectionRepository.find(fieldset, "");
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<ParkingSpace> getParkingSpaceById(Long id) {
         return parkingSpaceRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<ParkingSpace> getParkingSpaceByNumber(String spaceNumber) {
         return parkingSpaceRepository.findBySpaceNumber(spaceNumber);
     }
     
+    @Transactional(readOnly = true)
     public List<ParkingSpace> getAvailableParkingSpaces() {
         return parkingSpaceRepository.findByStatus(ParkingSpace.ParkingStatus.AVAILABLE);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getAvailableParkingSpaces(Fieldset fieldset) {
+        return parkingSpaceProjectionRepository.find(fieldset, "p.status = ?1", ParkingSpace.ParkingStatus.AVAILABLE);
+    }
+    
+    @Transactional(readOnly = true)
     public List<ParkingSpace> getParkingSpacesByCity(String city) {
         return parkingSpaceRepository.findByCity(city);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getParkingSpacesByCity(String city, Fieldset fieldset) {
+        return parkingSpaceProjectionRepository.find(fieldset, "p.city = ?1", city);
+    }
+    
+    @Transactional(readOnly = true)
     public List<ParkingSpace> getParkingSpacesByZone(String zone) {
         return parkingSpaceRepository.findByZone(zone);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getParkingSpacesByZone(String zone, Fieldset fieldset) {
+        return parkingSpaceProjectionRepository.find(fieldset, "p.zone = ?1", zone);
+    }
+    
+    @Transactional(readOnly = true)
     public List<ParkingSpace> getParkingSpacesByOwner(Long ownerId) {
         return parkingSpaceRepository.findByOwnerId(ownerId);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getParkingSpacesByOwner(Long ownerId, Fieldset fieldset) {
+        return parkingSpaceProjectionRepository.find(fieldset, "p.ownerId = ?1", ownerId);
+    }
+    
+    @Transactional(readOnly = true)
     public List<ParkingSpace> getAvailableSpacesByCityAndZone(String city, String zone) {
         return parkingSpaceRepository.findAvailableSpacesByCityAndZone(city, zone, ParkingSpace.ParkingStatus.AVAILABLE);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getAvailableSpacesByCityAndZone(String city, String zone, Fieldset fieldset) {
+        return parkingSpaceProjectionRepository.find(fieldset, "p.city = ?1 AND p.zone = ?2 AND p.status = ?3",
+                city, zone, ParkingSpace.ParkingStatus.AVAILABLE);
+    }
+    
     public ParkingSpace createParkingSpace(ParkingSpace parkingSpace) {
         // Check if space number already exists
         if (parkingSpaceRepository.findBySpaceNumber(parkingSpace.getSpaceNumber()).isPresent()) {
             throw new RuntimeException("Parking space with number " + parkingSpace.getSpaceNumber() + " already exists");
         }
-        return parkingSpaceRepository.save(parkingSpace);
+        return saveAndPublish(parkingSpace, "ParkingSpaceCreated");
     }
     
     public ParkingSpace updateParkingSpace(Long id, ParkingSpace parkingSpaceDetails) {
@@ -66,8 +116,11 @@ public class ParkingSpaceService {
         parkingSpace.setCity(parkingSpaceDetails.getCity());
         parkingSpace.setHourlyRate(parkingSpaceDetails.getHourlyRate());
         parkingSpace.setStatus(parkingSpaceDetails.getStatus());
+        if (parkingSpace.getStatus() != ParkingSpace.ParkingStatus.OCCUPIED) {
+            parkingSpace.setOccupiedByVehicleId(null);
+        }
         
-        return parkingSpaceRepository.save(parkingSpace);
+        return saveAndPublish(parkingSpace, "ParkingSpaceUpdated");
     }
     
     public ParkingSpace reserveParkingSpace(Long id, int durationHours) {
@@ -81,20 +134,35 @@ public class ParkingSpaceService {
         parkingSpace.setStatus(ParkingSpace.ParkingStatus.RESERVED);
         parkingSpace.setReservedUntil(LocalDateTime.now().plusHours(durationHours));
         
-        return parkingSpaceRepository.save(parkingSpace);
+        return saveAndPublish(parkingSpace, "ParkingSpaceReserved");
     }
     
     public ParkingSpace releaseParkingSpace(Long id) {
+        return releaseParkingSpace(id, null);
+    }
+    
+    // With a vehicle given, the space is only released while that vehicle occupies it
+    public ParkingSpace releaseParkingSpace(Long id, Long vehicleId) {
         ParkingSpace parkingSpace = parkingSpaceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Parking space not found with id: " + id));
         
+        if (vehicleId != null && (parkingSpace.getStatus() != ParkingSpace.ParkingStatus.OCCUPIED
+                || !vehicleId.equals(parkingSpace.getOccupiedByVehicleId()))) {
+            throw new RuntimeException("Parking space is not occupied by vehicle " + vehicleId);
+        }
+        
         parkingSpace.setStatus(ParkingSpace.ParkingStatus.AVAILABLE);
         parkingSpace.setReservedUntil(null);
+        parkingSpace.setOccupiedByVehicleId(null);
         
-        return parkingSpaceRepository.save(parkingSpace);
+        return saveAndPublish(parkingSpace, "ParkingSpaceReleased");
     }
     
     public ParkingSpace occupyParkingSpace(Long id) {
+        return occupyParkingSpace(id, null);
+    }
+    
+    public ParkingSpace occupyParkingSpace(Long id, Long vehicleId) {
         ParkingSpace parkingSpace = parkingSpaceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Parking space not found with id: " + id));
         
@@ -103,8 +171,9 @@ public class ParkingSpaceService {
         }
         
         parkingSpace.setStatus(ParkingSpace.ParkingStatus.OCCUPIED);
+        parkingSpace.setOccupiedByVehicleId(vehicleId);
         
-        return parkingSpaceRepository.save(parkingSpace);
+        return saveAndPublish(parkingSpace, "ParkingSpaceOccupied");
     }
     
     public void deleteParkingSpace(Long id) {
@@ -112,9 +181,17 @@ public class ParkingSpaceService {
                 .orElseThrow(() -> new RuntimeException("Parking space not found with id: " + id));
         
         parkingSpaceRepository.delete(parkingSpace);
+        domainEventPublisher.publish(AGGREGATE_TYPE, id, "ParkingSpaceDeleted", parkingSpace);
     }
     
+    @Transactional(readOnly = true)
     public Long getAvailableSpacesCount(String city) {
         return parkingSpaceRepository.countByCityAndStatus(city, ParkingSpace.ParkingStatus.AVAILABLE);
     }
+    
+    private ParkingSpace saveAndPublish(ParkingSpace parkingSpace, String eventType) {
+        ParkingSpace savedParkingSpace = parkingSpaceRepository.save(parkingSpace);
+        domainEventPublisher.publish(AGGREGATE_TYPE, savedParkingSpace.getId(), eventType, savedParkingSpace);
+        return savedParkingSpace;
+    }
 }
\ No newline at end of file
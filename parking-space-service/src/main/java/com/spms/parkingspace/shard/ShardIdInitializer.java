@@ -0,0 +1,44 @@
+package com.spms.parkingspace.shard;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Moves the parking_spaces id sequence into this shard's range before anything is inserted.
+// After the schema is created, and never lazy, since nothing else depends on it.
+@Component
+@Lazy(false)
+@DependsOn("entityManagerFactory")
+public class ShardIdInitializer {
+    
+    private static final Logger log = LoggerFactory.getLogger(ShardIdInitializer.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${spms.shard.id:0}")
+    private int shardId;
+    
+    @PostConstruct
+    public void reserveIdRange() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM parking_spaces", Long.class);
+        if (maxId != null) {
+            // Instances of different shards sharing a database would hand out each other's ids
+            if (ShardIds.shardOf(maxId) != shardId) {
+                throw new IllegalStateException("parking_spaces holds ids of shard " + ShardIds.shardOf(maxId)
+                        + ", but this instance is configured as shard " + shardId);
+            }
+            return;
+        }
+        if (shardId != 0) {
+            jdbcTemplate.execute("ALTER TABLE parking_spaces AUTO_INCREMENT = " + ShardIds.firstIdOf(shardId));
+            log.info("Parking space ids of shard {} start at {}", shardId, ShardIds.firstIdOf(shardId));
+        }
+    }
+}
\ No newline at end of file
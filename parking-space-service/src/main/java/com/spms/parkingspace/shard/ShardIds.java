@@ -0,0 +1,20 @@
+package com.spms.parkingspace.shard;
+
+// A parking space id carries its shard in the bits above SHARD_SHIFT, so the gateway can
+// route a request for a space without looking it up. 2^40 ids per shard, and ids stay
+// below 2^53 for JavaScript clients up to shard 8191.
+public final class ShardIds {
+    
+    public static final int SHARD_SHIFT = 40;
+    
+    private ShardIds() {
+    }
+    
+    public static int shardOf(long id) {
+        return (int) (id >>> SHARD_SHIFT);
+    }
+    
+    public static long firstIdOf(int shard) {
+        return ((long) shard << SHARD_SHIFT) + 1;
+    }
+}
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.spms.payment;
 
+import com.spms.common.datasource.ReadReplicaConfig;
+import com.spms.common.event.OutboxConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import({OutboxConfiguration.class, ReadReplicaConfig.class})
 public class PaymentServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(PaymentServiceApplication.class, args);
@@ -1,5 +1,6 @@
 package com.spms.payment.controller;
 
+import com.spms.common.projection.ProjectedList;
 import com.spms.payment.entity.Payment;
 import com.spms.payment.service.PaymentService;
 import jakarta.validation.Valid;
@@ -23,9 +24,10 @@ public class PaymentController {
     private PaymentService paymentService;
     
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        List<Payment> payments = paymentService.getAllPayments();
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<?>> getAllPayments(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, paymentService::getAllPayments, paymentService::getAllPayments);
     }
     
     @GetMapping("/{id}")
@@ -43,57 +45,71 @@ public class PaymentController {
     }
     
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Payment>> getPaymentsByUserId(@PathVariable Long userId) {
-        List<Payment> payments = paymentService.getPaymentsByUserId(userId);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<?>> getPaymentsByUserId(
+            @PathVariable Long userId, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> paymentService.getPaymentsByUserId(userId),
+                fieldset -> paymentService.getPaymentsByUserId(userId, fieldset));
     }
     
     @GetMapping("/vehicle/{vehicleId}")
-    public ResponseEntity<List<Payment>> getPaymentsByVehicleId(@PathVariable Long vehicleId) {
-        List<Payment> payments = paymentService.getPaymentsByVehicleId(vehicleId);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<?>> getPaymentsByVehicleId(
+            @PathVariable Long vehicleId, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> paymentService.getPaymentsByVehicleId(vehicleId),
+                fieldset -> paymentService.getPaymentsByVehicleId(vehicleId, fieldset));
     }
     
     @GetMapping("/parking-space/{parkingSpaceId}")
-    public ResponseEntity<List<Payment>> getPaymentsByParkingSpaceId(@PathVariable Long parkingSpaceId) {
-        List<Payment> payments = paymentService.getPaymentsByParkingSpaceId(parkingSpaceId);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<?>> getPaymentsByParkingSpaceId(
+            @PathVariable Long parkingSpaceId, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> paymentService.getPaymentsByParkingSpaceId(parkingSpaceId),
+                fieldset -> paymentService.getPaymentsByParkingSpaceId(parkingSpaceId, fieldset));
     }
     
     @GetMapping("/status/{paymentStatus}")
-    public ResponseEntity<List<Payment>> getPaymentsByStatus(@PathVariable Payment.PaymentStatus paymentStatus) {
-        List<Payment> payments = paymentService.getPaymentsByStatus(paymentStatus);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<?>> getPaymentsByStatus(
+            @PathVariable Payment.PaymentStatus paymentStatus, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> paymentService.getPaymentsByStatus(paymentStatus),
+                fieldset -> paymentService.getPaymentsByStatus(paymentStatus, fieldset));
     }
     
     @GetMapping("/method/{paymentMethod}")
-    public ResponseEntity<List<Payment>> getPaymentsByMethod(@PathVariable Payment.PaymentMethod paymentMethod) {
-        List<Payment> payments = paymentService.getPaymentsByMethod(paymentMethod);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<?>> getPaymentsByMethod(
+            @PathVariable Payment.PaymentMethod paymentMethod, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> paymentService.getPaymentsByMethod(paymentMethod),
+                fieldset -> paymentService.getPaymentsByMethod(paymentMethod, fieldset));
     }
     
     @GetMapping("/user/{userId}/status/{paymentStatus}")
-    public ResponseEntity<List<Payment>> getUserPaymentsByStatus(
-            @PathVariable Long userId, @PathVariable Payment.PaymentStatus paymentStatus) {
-        List<Payment> payments = paymentService.getUserPaymentsByStatus(userId, paymentStatus);
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<?>> getUserPaymentsByStatus(
+            @PathVariable Long userId, @PathVariable Payment.PaymentStatus paymentStatus,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> paymentService.getUserPaymentsByStatus(userId, paymentStatus),
+                fieldset -> paymentService.getUserPaymentsByStatus(userId, paymentStatus, fieldset));
     }
     
     @GetMapping("/date-range")
-    public ResponseEntity<List<Payment>> getPaymentsBetweenDates(
+    public ResponseEntity<List<?>> getPaymentsBetweenDates(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Payment> payments = paymentService.getPaymentsBetweenDates(startDate, endDate);
-        return ResponseEntity.ok(payments);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> paymentService.getPaymentsBetweenDates(startDate, endDate),
+                fieldset -> paymentService.getPaymentsBetweenDates(startDate, endDate, fieldset));
     }
     
     @GetMapping("/user/{userId}/date-range")
-    public ResponseEntity<List<Payment>> getUserPaymentsBetweenDates(
+    public ResponseEntity<List<?>> getUserPaymentsBetweenDates(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Payment> payments = paymentService.getUserPaymentsBetweenDates(userId, startDate, endDate);
-        return ResponseEntity.ok(payments);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String fields, @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view,
+                () -> paymentService.getUserPaymentsBetweenDates(userId, startDate, endDate),
+                fieldset -> paymentService.getUserPaymentsBetweenDates(userId, startDate, endDate, fieldset));
     }
     
     @PostMapping
@@ -0,0 +1,11 @@
+package com.spms.payment.dto;
+
+import com.spms.payment.entity.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// The compact view of a payment, for mobile clients
+public record PaymentSummary(Long id, Long vehicleId, Long parkingSpaceId, BigDecimal amount,
+                             Payment.PaymentStatus paymentStatus, LocalDateTime paymentDate) {
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.spms.payment.repository;
+
+import com.spms.common.projection.ProjectionRepository;
+import com.spms.payment.dto.PaymentSummary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class PaymentProjectionRepository extends ProjectionRepository<PaymentSummary> {
+    
+    public PaymentProjectionRepository() {
+        super("Payment", "p",
+                List.of("id", "userId", "vehicleId", "parkingSpaceId", "amount", "parkingDurationHours",
+                        "hourlyRate", "paymentMethod", "paymentStatus", "transactionId", "cardNumberMasked",
+                        "paymentDate", "parkingStartTime", "parkingEndTime", "createdAt", "updatedAt"),
+                PaymentSummary.class,
+                "p.id, p.vehicleId, p.parkingSpaceId, p.amount, p.paymentStatus, p.paymentDate");
+    }
+}
\ No newline at end of file
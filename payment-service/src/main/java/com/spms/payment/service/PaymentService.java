@@ -1,6 +1,9 @@
 package com.spms.payment.service;
 
+import com.spms.common.event.DomainEventPublisher;
+import com.spms.common.projection.Fieldset;
 import com.spms.payment.entity.Payment;
+import com.spms.payment.repository.PaymentProjectionRepository;
 import com.spms.payment.repository.PaymentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,55 +19,122 @@ import java.util.Random;
 @Transactional
 public class PaymentService {
     
+    public static final String AGGREGATE_TYPE = "Payment";
+    
     @Autowired
     private PaymentRepository paymentRepository;
     
+    @Autowired
+    private PaymentProjectionRepository paymentProjectionRepository;
+    
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+    
     private final Random random = new Random();
     
+    @Transactional(readOnly = true)
     public List<Payment> getAllPayments() {
         return paymentRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getAllPayments(Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "");
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Payment> getPaymentById(Long id) {
         return paymentRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Payment> getPaymentByTransactionId(String transactionId) {
         return paymentRepository.findByTransactionId(transactionId);
     }
     
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByUserId(Long userId) {
         return paymentRepository.findByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getPaymentsByUserId(Long userId, Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.userId = ?1", userId);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByVehicleId(Long vehicleId) {
         return paymentRepository.findByVehicleId(vehicleId);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getPaymentsByVehicleId(Long vehicleId, Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.vehicleId = ?1", vehicleId);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByParkingSpaceId(Long parkingSpaceId) {
         return paymentRepository.findByParkingSpaceId(parkingSpaceId);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getPaymentsByParkingSpaceId(Long parkingSpaceId, Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.parkingSpaceId = ?1", parkingSpaceId);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByStatus(Payment.PaymentStatus paymentStatus) {
         return paymentRepository.findByPaymentStatus(paymentStatus);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getPaymentsByStatus(Payment.PaymentStatus paymentStatus, Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.paymentStatus = ?1", paymentStatus);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsByMethod(Payment.PaymentMethod paymentMethod) {
         return paymentRepository.findByPaymentMethod(paymentMethod);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getPaymentsByMethod(Payment.PaymentMethod paymentMethod, Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.paymentMethod = ?1", paymentMethod);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Payment> getUserPaymentsByStatus(Long userId, Payment.PaymentStatus paymentStatus) {
         return paymentRepository.findByUserIdAndPaymentStatus(userId, paymentStatus);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getUserPaymentsByStatus(Long userId, Payment.PaymentStatus paymentStatus, Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.userId = ?1 AND p.paymentStatus = ?2",
+                userId, paymentStatus);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Payment> getPaymentsBetweenDates(LocalDateTime startDate, LocalDateTime endDate) {
         return paymentRepository.findPaymentsBetweenDates(startDate, endDate);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getPaymentsBetweenDates(LocalDateTime startDate, LocalDateTime endDate, Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.paymentDate BETWEEN ?1 AND ?2", startDate, endDate);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Payment> getUserPaymentsBetweenDates(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
         return paymentRepository.findUserPaymentsBetweenDates(userId, startDate, endDate);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getUserPaymentsBetweenDates(Long userId, LocalDateTime startDate, LocalDateTime endDate,
+                                               Fieldset fieldset) {
+        return paymentProjectionRepository.find(fieldset, "p.userId = ?1 AND p.paymentDate BETWEEN ?2 AND ?3",
+                userId, startDate, endDate);
+    }
+    
     public Payment createPayment(Payment payment) {
         // Calculate amount based on duration and hourly rate
         BigDecimal calculatedAmount = payment.getHourlyRate()
@@ -75,7 +145,7 @@ public class PaymentService {
         payment.setParkingStartTime(LocalDateTime.now());
         payment.setParkingEndTime(LocalDateTime.now().plusHours(payment.getParkingDurationHours()));
         
-        return paymentRepository.save(payment);
+        return saveAndPublish(payment, "PaymentCreated");
     }
     
     public Payment processPayment(Long paymentId, String cardNumber, String cardHolderName, 
@@ -105,7 +175,8 @@ public class PaymentService {
             payment.setPaymentStatus(Payment.PaymentStatus.FAILED);
         }
         
-        return paymentRepository.save(payment);
+        return saveAndPublish(payment, payment.getPaymentStatus() == Payment.PaymentStatus.COMPLETED
+                ? "PaymentCompleted" : "PaymentFailed");
     }
     
     public Payment refundPayment(Long paymentId) {
@@ -125,7 +196,7 @@ public class PaymentService {
             throw new RuntimeException("Refund processing failed");
         }
         
-        return paymentRepository.save(payment);
+        return saveAndPublish(payment, "PaymentRefunded");
     }
     
     public Payment cancelPayment(Long paymentId) {
@@ -137,7 +208,7 @@ public class PaymentService {
         }
         
         payment.setPaymentStatus(Payment.PaymentStatus.CANCELLED);
-        return paymentRepository.save(payment);
+        return saveAndPublish(payment, "PaymentCancelled");
     }
     
     public void deletePayment(Long id) {
@@ -151,22 +222,32 @@ public class PaymentService {
         paymentRepository.delete(payment);
     }
     
+    @Transactional(readOnly = true)
     public BigDecimal getTotalRevenue() {
         return paymentRepository.getTotalAmountByStatus(Payment.PaymentStatus.COMPLETED);
     }
     
+    @Transactional(readOnly = true)
     public BigDecimal getUserTotalPayments(Long userId) {
         return paymentRepository.getTotalAmountByUserAndStatus(userId, Payment.PaymentStatus.COMPLETED);
     }
     
+    @Transactional(readOnly = true)
     public Long getCompletedPaymentsCount() {
         return paymentRepository.countByPaymentStatus(Payment.PaymentStatus.COMPLETED);
     }
     
+    @Transactional(readOnly = true)
     public Long getPendingPaymentsCount() {
         return paymentRepository.countByPaymentStatus(Payment.PaymentStatus.PENDING);
     }
     
+    private Payment saveAndPublish(Payment payment, String eventType) {
+        Payment savedPayment = paymentRepository.save(payment);
+        domainEventPublisher.publish(AGGREGATE_TYPE, savedPayment.getId(), eventType, savedPayment);
+        return savedPayment;
+    }
+    
     // Mock validation and processing methods
     private boolean validateMockCard(String cardNumber, String cardHolderName, String expiryDate, String cvv) {
         // Simple mock validation
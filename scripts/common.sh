@@ -0,0 +1,40 @@
+#!/usr/bin/env bash
+#
+# Helpers shared by the startup scripts; source it, don't run it.
+
+ROOT="$(cd "$(dirname "${BASH_SOURCE[0]}")/.." && pwd)"
+TIMEOUT_SECONDS="${STARTUP_TIMEOUT_SECONDS:-180}"
+
+now_ms() {
+    date +%s%3N
+}
+
+# Prints the milliseconds from $2 (as returned by now_ms) until the service on port $1
+# reports UP, or "timeout"
+wait_until_up() {
+    local port="$1" started="$2"
+    local deadline=$(( $(date +%s) + TIMEOUT_SECONDS ))
+    until curl -fs "http://localhost:$port/actuator/health" 2>/dev/null | grep -q '"status":"UP"'; do
+        if [ "$(date +%s)" -ge "$deadline" ]; then
+            echo "timeout"
+            return
+        fi
+        sleep 0.2
+    done
+    echo $(( $(now_ms) - started ))
+}
+
+# Resident set size of a process in MB
+rss_mb() {
+    echo $(( $(ps -o rss= -p "$1") / 1024 ))
+}
+
+executable_jar() {
+    local module="$1" jar
+    jar="$(ls "$ROOT/$module"/target/"$module"-*-exec.jar 2>/dev/null | head -n 1)"
+    if [ -z "$jar" ]; then
+        echo "No jar for $module, run 'mvn clean package -DskipTests' first" >&2
+        exit 1
+    fi
+    echo "$jar"
+}
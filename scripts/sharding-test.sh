@@ -0,0 +1,154 @@
+#!/usr/bin/env bash
+#
+# Runs city sharding locally: Eureka, the gateway and two parking-space-service shards of
+# two instances each, every shard on its own H2 database. Creates spaces in a dozen cities
+# through the gateway and checks that each space and city is served by exactly one shard,
+# and that lists spanning every shard come back complete. Needs no config server or MySQL.
+#
+# Usage: scripts/sharding-test.sh   (build first: mvn clean package -DskipTests)
+
+set -euo pipefail
+
+source "$(dirname "$0")/common.sh"
+
+WORK_DIR="$ROOT/target/sharding-test"
+LOG_DIR="$WORK_DIR/logs"
+GATEWAY="http://localhost:8080"
+CITIES=(Colombo Kandy Galle Jaffna Negombo Matara Kurunegala Anuradhapura Trincomalee Batticaloa Ratnapura Badulla)
+SPACES_PER_CITY=3
+
+# instance name:port:shard
+SHARD_INSTANCES=("shard0-a:8181:0" "shard0-b:8182:0" "shard1-a:8191:1" "shard1-b:8192:1")
+
+PIDS=()
+FAILURES=0
+
+stop_all() {
+    for pid in "${PIDS[@]:-}"; do
+        [ -n "$pid" ] && kill "$pid" 2>/dev/null || true
+    done
+    for pid in "${PIDS[@]:-}"; do
+        [ -n "$pid" ] && wait "$pid" 2>/dev/null || true
+    done
+}
+trap stop_all EXIT
+
+# The config server import is replaced by a missing optional file, which also enables the
+# services' h2 profile
+start() {
+    local name="$1" module="$2"
+    shift 2
+    java -jar "$(executable_jar "$module")" \
+        --spms.config.import="optional:file:$WORK_DIR/none.properties" \
+        --eureka.client.registry-fetch-interval-seconds=2 \
+        --eureka.instance.lease-renewal-interval-in-seconds=5 \
+        "$@" > "$LOG_DIR/$name.log" 2>&1 &
+    PIDS+=("$!")
+}
+
+check() {
+    local description="$1" expected="$2" actual="$3"
+    if [ "$expected" = "$actual" ]; then
+        printf '  ok    %s\n' "$description"
+    else
+        printf '  FAIL  %s: expected %s, got %s\n' "$description" "$expected" "$actual"
+        FAILURES=$((FAILURES + 1))
+    fi
+}
+
+status_of() {
+    curl -s -o /dev/null -w '%{http_code}' -H 'Cache-Control: no-store' "$1"
+}
+
+count_ids() {
+    { curl -fs -H 'Cache-Control: no-store' "$1" || true; } | { grep -o '"id":[0-9]*' || true; } | wc -l | tr -d ' '
+}
+
+rm -rf "$WORK_DIR"
+mkdir -p "$LOG_DIR"
+
+echo "Starting eureka-server, api-gateway and ${#SHARD_INSTANCES[@]} parking-space-service instances"
+start eureka-server eureka-server
+if [ "$(wait_until_up 8761 "$(now_ms)")" = "timeout" ]; then
+    echo "eureka-server did not start, see $LOG_DIR" >&2
+    exit 1
+fi
+
+for entry in "${SHARD_INSTANCES[@]}"; do
+    IFS=: read -r name port shard <<< "$entry"
+    # Both instances of a shard share its database
+    start "$name" parking-space-service --server.port="$port" --spms.shard.id="$shard" \
+        --spring.profiles.active=h2 --spms.h2.dir="$WORK_DIR/h2-shard$shard"
+done
+start api-gateway api-gateway --spms.gateway.parking-shards.count=2 --spring.cloud.loadbalancer.cache.ttl=2s
+
+started="$(now_ms)"
+for port in 8080 8181 8182 8191 8192; do
+    if [ "$(wait_until_up "$port" "$started")" = "timeout" ]; then
+        echo "The service on port $port did not start, see $LOG_DIR" >&2
+        exit 1
+    fi
+done
+
+# The merged list only succeeds once the gateway can reach an instance of every shard
+deadline=$(( $(date +%s) + TIMEOUT_SECONDS ))
+until [ "$(status_of "$GATEWAY/api/parking-spaces")" = "200" ]; do
+    if [ "$(date +%s)" -ge "$deadline" ]; then
+        echo "The gateway cannot reach both shards, see $LOG_DIR" >&2
+        exit 1
+    fi
+    sleep 1
+done
+# Give the gateway time to see the second instance of each shard as well
+sleep 5
+
+echo "Creating $SPACES_PER_CITY spaces in each of ${#CITIES[@]} cities"
+declare -A CITY_SHARD=()
+IDS=()
+for city in "${CITIES[@]}"; do
+    for i in $(seq 1 "$SPACES_PER_CITY"); do
+        id="$(curl -fs -X POST "$GATEWAY/api/parking-spaces" -H 'Content-Type: application/json' \
+            -d "{\"spaceNumber\":\"$city-$i\",\"location\":\"Street $i\",\"zone\":\"Z$i\",\"city\":\"$city\",\"hourlyRate\":$((100 * i))}" \
+            | grep -o '"id":[0-9]*' | head -n 1 | cut -d: -f2)"
+        IDS+=("$id")
+        shard=$(( id >> 40 ))
+        if [ -n "${CITY_SHARD[$city]:-}" ] && [ "${CITY_SHARD[$city]}" != "$shard" ]; then
+            check "$city stays on one shard" "${CITY_SHARD[$city]}" "$shard"
+        fi
+        CITY_SHARD[$city]="$shard"
+    done
+done
+
+echo "Checking"
+shard0_cities=0
+for city in "${CITIES[@]}"; do
+    [ "${CITY_SHARD[$city]}" = "0" ] && shard0_cities=$((shard0_cities + 1))
+done
+check "cities on shard 0 out of ${#CITIES[@]} (expected some on each shard)" true \
+    "$([ "$shard0_cities" -gt 0 ] && [ "$shard0_cities" -lt "${#CITIES[@]}" ] && echo true || echo false)"
+
+for id in "${IDS[@]}"; do
+    shard=$(( id >> 40 ))
+    own_port=$([ "$shard" = "0" ] && echo 8181 || echo 8191)
+    other_port=$([ "$shard" = "0" ] && echo 8191 || echo 8181)
+    check "space $id through the gateway" 200 "$(status_of "$GATEWAY/api/parking-spaces/$id")"
+    check "space $id on shard $shard" 200 "$(status_of "http://localhost:$own_port/api/parking-spaces/$id")"
+    check "space $id not on the other shard" 404 "$(status_of "http://localhost:$other_port/api/parking-spaces/$id")"
+done
+
+for city in "${CITIES[@]}"; do
+    check "spaces in $city through the gateway" "$SPACES_PER_CITY" "$(count_ids "$GATEWAY/api/parking-spaces/city/$city")"
+done
+
+total=$(( ${#CITIES[@]} * SPACES_PER_CITY ))
+check "all spaces, merged from both shards" "$total" "$(count_ids "$GATEWAY/api/parking-spaces")"
+check "available spaces, merged from both shards" "$total" "$(count_ids "$GATEWAY/api/parking-spaces/available")"
+check "zone Z1, merged from both shards" "${#CITIES[@]}" "$(count_ids "$GATEWAY/api/parking-spaces/zone/Z1")"
+check "lookup by space number on either shard" 200 "$(status_of "$GATEWAY/api/parking-spaces/space-number/${CITIES[0]}-1")"
+
+echo
+if [ "$FAILURES" -gt 0 ]; then
+    echo "$FAILURES checks failed, logs are in $LOG_DIR"
+    exit 1
+fi
+echo "All checks passed"
@@ -0,0 +1,142 @@
+#!/usr/bin/env bash
+#
+# Compares the default build with the fast-startup build (AOT-processed context, CDS
+# archive, lazy initialization) for the gateway and the business services. Each service
+# is started on its own while config-server, eureka-server and MySQL are up, and the
+# time until /actuator/health reports UP and the resident memory at that point are
+# recorded. The CDS archives are trained here because a training run needs the same
+# infrastructure to reach a refreshed context.
+#
+# Usage: scripts/startup-benchmark.sh [--skip-build] [--runs N] [module ...]
+
+set -euo pipefail
+
+source "$(dirname "$0")/common.sh"
+
+WORK_DIR="$ROOT/target/startup-benchmark"
+LOG_DIR="$WORK_DIR/logs"
+RUNS=3
+BUILD=true
+MODULES=()
+
+INFRASTRUCTURE=("config-server:8888" "eureka-server:8761")
+declare -A PORTS=(
+    [api-gateway]=8080
+    [parking-space-service]=8081
+    [vehicle-service]=8082
+    [user-service]=8083
+    [payment-service]=8084
+)
+
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --skip-build) BUILD=false ;;
+        --runs) RUNS="$2"; shift ;;
+        *) MODULES+=("$1") ;;
+    esac
+    shift
+done
+if [ ${#MODULES[@]} -eq 0 ]; then
+    MODULES=(api-gateway parking-space-service vehicle-service user-service payment-service)
+fi
+
+INFRA_PIDS=()
+
+stop_infrastructure() {
+    for pid in "${INFRA_PIDS[@]:-}"; do
+        [ -n "$pid" ] && kill "$pid" 2>/dev/null || true
+    done
+}
+trap stop_infrastructure EXIT
+
+build() {
+    echo "Building the default jars"
+    (cd "$ROOT" && mvn -B -q clean package -DskipTests)
+    rm -rf "$WORK_DIR/baseline" "$WORK_DIR/fast"
+    mkdir -p "$WORK_DIR/baseline"
+    for module in "${INFRASTRUCTURE[@]%%:*}" "${MODULES[@]}"; do
+        cp "$(executable_jar "$module")" "$WORK_DIR/baseline/$module.jar"
+    done
+
+    echo "Building the fast-startup jars"
+    (cd "$ROOT" && mvn -B -q clean package -DskipTests -Pfast-startup)
+    for module in "${MODULES[@]}"; do
+        mkdir -p "$WORK_DIR/fast/$module"
+        cp "$ROOT/$module/target/$module-1.0.0.jar" "$WORK_DIR/fast/$module/$module.jar"
+        cp -r "$ROOT/$module/target/lib" "$WORK_DIR/fast/$module/lib"
+    done
+}
+
+start_infrastructure() {
+    for entry in "${INFRASTRUCTURE[@]}"; do
+        local module="${entry%%:*}" port="${entry##*:}" started
+        if curl -fs "http://localhost:$port/actuator/health" > /dev/null 2>&1; then
+            continue
+        fi
+        started="$(now_ms)"
+        java -jar "$WORK_DIR/baseline/$module.jar" > "$LOG_DIR/$module.log" 2>&1 &
+        INFRA_PIDS+=("$!")
+        if [ "$(wait_until_up "$port" "$started")" = "timeout" ]; then
+            echo "$module did not start, see $LOG_DIR/$module.log" >&2
+            exit 1
+        fi
+    done
+}
+
+# The training run stops right after the context refresh, dumping every class loaded
+# up to that point into the archive
+train() {
+    local module="$1" dir="$WORK_DIR/fast/$1"
+    [ -f "$dir/$module.jsa" ] && return
+    echo "Training the CDS archive for $module"
+    (cd "$dir" && java -XX:ArchiveClassesAtExit="$module.jsa" -Dspring.aot.enabled=true \
+        -Dspring.profiles.active=fast-startup -Dspring.context.exit=onRefresh \
+        -jar "$module.jar" > "$LOG_DIR/$module-training.log" 2>&1)
+}
+
+# Prints "<ready ms> <rss MB>" for one start of the module
+measure() {
+    local module="$1" mode="$2" run="$3" port="${PORTS[$1]}" started pid ready rss
+    started="$(now_ms)"
+    if [ "$mode" = "fast" ]; then
+        (cd "$WORK_DIR/fast/$module" && exec java -XX:SharedArchiveFile="$module.jsa" -Dspring.aot.enabled=true \
+            -Dspring.profiles.active=fast-startup -jar "$module.jar") > "$LOG_DIR/$module-$mode-$run.log" 2>&1 &
+    else
+        java -jar "$WORK_DIR/baseline/$module.jar" > "$LOG_DIR/$module-$mode-$run.log" 2>&1 &
+    fi
+    pid="$!"
+    ready="$(wait_until_up "$port" "$started")"
+    rss="$(rss_mb "$pid")"
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    echo "$ready $rss"
+}
+
+report() {
+    local module="$1" mode="$2" total_ready=0 total_rss=0 ready rss
+    for run in $(seq 1 "$RUNS"); do
+        read -r ready rss < <(measure "$module" "$mode" "$run")
+        if [ "$ready" = "timeout" ]; then
+            printf '%-24s %-9s %12s %10s\n' "$module" "$mode" "timeout" "-"
+            return
+        fi
+        total_ready=$(( total_ready + ready ))
+        total_rss=$(( total_rss + rss ))
+    done
+    printf '%-24s %-9s %12s %10s\n' "$module" "$mode" "$(( total_ready / RUNS ))" "$(( total_rss / RUNS ))"
+}
+
+mkdir -p "$LOG_DIR"
+if [ "$BUILD" = true ]; then
+    build
+fi
+start_infrastructure
+for module in "${MODULES[@]}"; do
+    train "$module"
+done
+
+printf '\nAverage of %s runs\n%-24s %-9s %12s %10s\n' "$RUNS" "service" "build" "ready (ms)" "RSS (MB)"
+for module in "${MODULES[@]}"; do
+    report "$module" default
+    report "$module" fast
+done
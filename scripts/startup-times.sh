@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+#
+# Starts the whole stack from the built jars and reports how long each service takes
+# to report UP on /actuator/health. Runs once with an empty config-server cache (cold)
+# and once with the snapshot left by the first run (warm).
+#
+# Usage: scripts/startup-times.sh [cold|warm|both]   (build first: mvn clean package -DskipTests)
+
+set -euo pipefail
+
+source "$(dirname "$0")/common.sh"
+
+MODE="${1:-both}"
+CONFIG_CACHE="${SPMS_CONFIG_CACHE:-$HOME/.spms/config-cache}"
+LOG_DIR="$ROOT/target/startup"
+
+# module:port, in start order; the services after eureka-server start together
+INFRASTRUCTURE=("config-server:8888" "eureka-server:8761")
+SERVICES=("api-gateway:8080" "parking-space-service:8081" "vehicle-service:8082" "user-service:8083" "payment-service:8084")
+
+PIDS=()
+
+stop_all() {
+    for pid in "${PIDS[@]:-}"; do
+        [ -n "$pid" ] && kill "$pid" 2>/dev/null || true
+    done
+    for pid in "${PIDS[@]:-}"; do
+        [ -n "$pid" ] && wait "$pid" 2>/dev/null || true
+    done
+    PIDS=()
+}
+trap stop_all EXIT
+
+start() {
+    local module="$1" run="$2"
+    local jar
+    jar="$(executable_jar "$module")"
+    java -Dspms.config.cache-dir="$CONFIG_CACHE" -jar "$jar" > "$LOG_DIR/$run-$module.log" 2>&1 &
+    PIDS+=("$!")
+}
+
+run_stack() {
+    local run="$1"
+    local stack_started
+    stack_started="$(now_ms)"
+    printf '\n%s start\n%-24s %12s\n' "$run" "service" "ready (ms)"
+
+    for entry in "${INFRASTRUCTURE[@]}"; do
+        local module="${entry%%:*}" port="${entry##*:}" started
+        started="$(now_ms)"
+        start "$module" "$run"
+        printf '%-24s %12s\n' "$module" "$(wait_until_up "$port" "$started")"
+    done
+
+    local started
+    started="$(now_ms)"
+    for entry in "${SERVICES[@]}"; do
+        start "${entry%%:*}" "$run"
+    done
+    for entry in "${SERVICES[@]}"; do
+        printf '%-24s %12s\n' "${entry%%:*}" "$(wait_until_up "${entry##*:}" "$started")"
+    done
+
+    printf '%-24s %12s\n' "whole stack" "$(( $(now_ms) - stack_started ))"
+    stop_all
+}
+
+mkdir -p "$LOG_DIR"
+
+if [ "$MODE" = "cold" ] || [ "$MODE" = "both" ]; then
+    rm -rf "$CONFIG_CACHE"
+    run_stack cold
+fi
+if [ "$MODE" = "warm" ] || [ "$MODE" = "both" ]; then
+    run_stack warm
+fi
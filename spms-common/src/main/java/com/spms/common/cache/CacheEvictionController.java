@@ -0,0 +1,22 @@
+package com.spms.common.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Receives the second-level cache evictions of the other instances
+@RestController
+@RequestMapping(SecondLevelCacheBroadcast.EVICTIONS_PATH)
+public class CacheEvictionController {
+    
+    @Autowired
+    private SecondLevelCacheBroadcast secondLevelCacheBroadcast;
+    
+    @PostMapping
+    public ResponseEntity<Void> evict(@RequestBody List<SecondLevelCacheBroadcast.CacheEviction> evictions) {
+        secondLevelCacheBroadcast.evictLocally(evictions);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
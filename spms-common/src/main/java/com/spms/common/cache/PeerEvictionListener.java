@@ -0,0 +1,8 @@
+package com.spms.common.cache;
+
+// Implemented by beans in this service that cache entities outside Hibernate, so they drop what
+// the other instances changed. Called on the request thread of the broadcast that carried it.
+public interface PeerEvictionListener {
+    
+    void onPeerEviction(String entityName, Long id);
+}
\ No newline at end of file
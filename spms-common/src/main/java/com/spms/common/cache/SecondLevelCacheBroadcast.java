@@ -0,0 +1,209 @@
+package com.spms.common.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// The second-level cache is local to each instance. Every committed change to a cached entity
+// is passed on to the other instances of the same service and shard, which evict the entity and
+// invalidate their cached query results over its tables. Sent in batches and at most once: a lost
+// batch leaves an entry stale until its region expires it (see the service's application.conf).
+@Component
+@Lazy(false)
+public class SecondLevelCacheBroadcast implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+    
+    public static final String EVICTIONS_PATH = "/api/cache/evictions";
+    
+    private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheBroadcast.class);
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private DiscoveryClient discoveryClient;
+    
+    @Autowired(required = false)
+    private Registration registration;
+    
+    @Autowired(required = false)
+    private List<PeerEvictionListener> peerEvictionListeners = List.of();
+    
+    @Value("${spring.application.name}")
+    private String serviceId;
+    
+    @Value("${spms.shard.id:0}")
+    private String shardId;
+    
+    @Value("${spms.cache.broadcast.interval-ms:200}")
+    private long intervalMs;
+    
+    private final RestTemplate restTemplate;
+    private final Queue<CacheEviction> pending = new ConcurrentLinkedQueue<>();
+    private ScheduledExecutorService broadcastThread;
+    
+    public SecondLevelCacheBroadcast(RestTemplateBuilder restTemplateBuilder,
+                                     @Value("${spms.cache.broadcast.timeout:1s}") Duration timeout) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+    }
+    
+    @PostConstruct
+    public void start() {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        
+        broadcastThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "l2-cache-broadcast");
+            thread.setDaemon(true);
+            return thread;
+        });
+        broadcastThread.scheduleWithFixedDelay(this::broadcast, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() {
+        broadcastThread.shutdownNow();
+    }
+    
+    // Inserts matter too: another instance may hold cached query results the new row belongs in
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        enqueue(event.getPersister(), event.getId());
+    }
+    
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        enqueue(event.getPersister(), event.getId());
+    }
+    
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        enqueue(event.getPersister(), event.getId());
+    }
+    
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+    
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+    
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+    
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+    
+    // Called with the evictions broadcast by another instance. The tables behind each entity are
+    // marked as updated in the timestamps cache, as a local commit would, so only cached queries
+    // over those tables go stale instead of the whole query region.
+    public void evictLocally(List<CacheEviction> evictions) {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        CacheImplementor cache = sessionFactory.getCache();
+        Set<String> spaces = new LinkedHashSet<>();
+        for (CacheEviction eviction : evictions) {
+            cache.evictEntityData(eviction.entity(), eviction.id());
+            for (PeerEvictionListener listener : peerEvictionListeners) {
+                listener.onPeerEviction(eviction.entity(), eviction.id());
+            }
+            EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(eviction.entity());
+            for (Object space : persister.getPropertySpaces()) {
+                spaces.add(String.valueOf(space));
+            }
+        }
+        if (spaces.isEmpty()) {
+            return;
+        }
+        try (Session session = sessionFactory.openSession()) {
+            cache.getTimestampsCache().invalidate(spaces.toArray(String[]::new),
+                    (SharedSessionContractImplementor) session);
+        }
+    }
+    
+    private void enqueue(EntityPersister persister, Object id) {
+        if (persister.canWriteToCache()) {
+            pending.add(new CacheEviction(persister.getEntityName(), (Long) id));
+        }
+    }
+    
+    private void broadcast() {
+        Set<CacheEviction> batch = new LinkedHashSet<>();
+        for (CacheEviction eviction; (eviction = pending.poll()) != null; ) {
+            batch.add(eviction);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        
+        List<CacheEviction> evictions = new ArrayList<>(batch);
+        for (ServiceInstance peer : peers()) {
+            try {
+                restTemplate.postForEntity(UriComponentsBuilder.fromUri(peer.getUri()).path(EVICTIONS_PATH).build().toUri(),
+                        evictions, Void.class);
+            } catch (RestClientException e) {
+                log.debug("Could not send {} cache evictions to {}", evictions.size(), peer.getUri(), e);
+            } catch (RuntimeException e) {
+                log.warn("Cache eviction broadcast to {} failed", peer.getUri(), e);
+            }
+        }
+    }
+    
+    private List<ServiceInstance> peers() {
+        String self = registration != null ? registration.getInstanceId() : null;
+        return discoveryClient.getInstances(serviceId).stream()
+                .filter(instance -> !instance.getInstanceId().equals(self))
+                .filter(instance -> shardId.equals(instance.getMetadata().getOrDefault("shard", "0")))
+                .toList();
+    }
+    
+    // Every cached entity in this service has a Long id
+    public record CacheEviction(String entity, Long id) {
+    }
+}
\ No newline at end of file
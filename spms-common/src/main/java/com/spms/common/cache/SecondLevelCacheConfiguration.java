@@ -0,0 +1,10 @@
+package com.spms.common.cache;
+
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+
+// Imported by the services that keep a second-level cache, to keep their instances' caches in step
+@Configuration
+@ComponentScan(basePackageClasses = SecondLevelCacheConfiguration.class)
+public class SecondLevelCacheConfiguration {
+}
\ No newline at end of file
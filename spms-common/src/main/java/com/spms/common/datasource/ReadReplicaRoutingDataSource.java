@@ -0,0 +1,55 @@
+package com.spms.common.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Routes connections for read-only transactions to the replica and everything else to the
+// primary. Read-only reads fall back to the primary while the replica is down or lagging.
+// Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only set once the
+// transaction has begun, so the physical connection has to be fetched after that.
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    
+    private enum Pool {
+        PRIMARY, REPLICA
+    }
+    
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+    
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                        MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.writes = Counter.builder("spms.datasource.routing").tags("transaction", "read-write", "pool", "primary")
+                .description("Connections handed out per transaction type and pool")
+                .register(meterRegistry);
+        this.replicaReads = Counter.builder("spms.datasource.routing").tags("transaction", "read-only", "pool", "replica")
+                .description("Connections handed out per transaction type and pool")
+                .register(meterRegistry);
+        this.primaryReads = Counter.builder("spms.datasource.routing").tags("transaction", "read-only", "pool", "primary")
+                .description("Connections handed out per transaction type and pool")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return Pool.PRIMARY;
+        }
+        if (lagMonitor.isReplicaUsable()) {
+            replicaReads.increment();
+            return Pool.REPLICA;
+        }
+        primaryReads.increment();
+        return Pool.PRIMARY;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package com.spms.common.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Checks the replica on a fixed delay. Reads stay on the primary until the first check
+// passes, after a check fails, and while the replica is more than max-lag behind.
+public class ReplicaLagMonitor {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    
+    private final DataSource replica;
+    private final String lagQuery;
+    private final String lagColumn;
+    private final Duration maxLag;
+    
+    private volatile boolean replicaUsable;
+    private volatile long lagSeconds = -1;
+    
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, String lagColumn, Duration maxLag,
+                             MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+        this.maxLag = maxLag;
+        Gauge.builder("spms.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Seconds the replica was behind the primary at the last check, -1 if unknown")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("spms.datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("Whether read-only transactions currently go to the replica")
+                .register(meterRegistry);
+    }
+    
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+    
+    @Scheduled(fixedDelayString = "${spms.datasource.replica.check-interval-ms:5000}")
+    public void check() {
+        boolean usable;
+        try (Connection connection = replica.getConnection()) {
+            lagSeconds = StringUtils.hasText(lagQuery) ? queryLag(connection) : 0;
+            usable = lagSeconds >= 0 && lagSeconds <= maxLag.toSeconds();
+        } catch (SQLException e) {
+            lagSeconds = -1;
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica check failed, sending reads to the primary: {}", e.getMessage());
+            }
+        }
+        
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Replica is {}s behind, sending read-only transactions to it", lagSeconds);
+            } else if (lagSeconds >= 0) {
+                log.warn("Replica is {}s behind (max {}s), sending reads to the primary", lagSeconds, maxLag.toSeconds());
+            }
+        }
+        replicaUsable = usable;
+    }
+    
+    // No row means the instance is not replicating from anything, such as a second local
+    // instance in development; a null lag means replication is configured but stopped
+    private long queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+            long lag = resultSet.getLong(lagColumn);
+            return resultSet.wasNull() ? -1 : lag;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.spms.common.event;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+// What subscribers receive. Delivery is at least once; within one aggregate, ids increase
+// in commit order, so a subscriber can drop any event at or below the last id it applied
+// for that aggregate.
+public record DomainEvent(Long id,
+                          String source,
+                          String aggregateType,
+                          String aggregateId,
+                          String type,
+                          JsonNode payload,
+                          LocalDateTime occurredAt) {
+}
\ No newline at end of file
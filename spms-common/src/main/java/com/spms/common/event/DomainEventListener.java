@@ -0,0 +1,8 @@
+package com.spms.common.event;
+
+// Implemented by beans in this service that keep read models or caches in step with the
+// outbox. Called on the relay thread; throwing makes the batch be delivered again.
+public interface DomainEventListener {
+    
+    void onEvent(DomainEvent event);
+}
\ No newline at end of file
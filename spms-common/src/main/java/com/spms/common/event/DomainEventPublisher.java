@@ -0,0 +1,65 @@
+package com.spms.common.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class DomainEventPublisher {
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Writes to the outbox in the caller's transaction, so an event exists exactly when the
+    // state change it describes was committed. OutboxRelay sends it on afterwards. The returned
+    // event has its id once the transaction has committed.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent publish(String aggregateType, Object aggregateId, String type, Object payload) {
+        try {
+            OutboxEvent event = new OutboxEvent(aggregateType, String.valueOf(aggregateId), type,
+                    objectMapper.writeValueAsString(payload));
+            pendingEvents().add(event);
+            return event;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " event", e);
+        }
+    }
+    
+    // Events are inserted just before commit, after the state changes are flushed. The flush
+    // locks every changed aggregate's row before its events get their ids, so transactions
+    // changing the same aggregate get ids in commit order, and batched updates stay batched.
+    @SuppressWarnings("unchecked")
+    private List<OutboxEvent> pendingEvents() {
+        List<OutboxEvent> pending = (List<OutboxEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        
+        List<OutboxEvent> events = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, events);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                outboxEventRepository.flush();
+                outboxEventRepository.saveAll(events);
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DomainEventPublisher.this);
+            }
+        });
+        return events;
+    }
+}
\ No newline at end of file
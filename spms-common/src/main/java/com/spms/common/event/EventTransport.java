@@ -0,0 +1,12 @@
+package com.spms.common.event;
+
+import java.util.List;
+
+// Carries relayed events to subscribers. Events arrive in outbox order, which keeps each
+// aggregate's events in the order they were committed. Returning normally acknowledges the
+// whole batch; throwing leaves it in the outbox to be sent again. A message broker would
+// be one more implementation, publishing with the aggregate id as the partition key.
+public interface EventTransport {
+    
+    void send(List<DomainEvent> events);
+}
\ No newline at end of file
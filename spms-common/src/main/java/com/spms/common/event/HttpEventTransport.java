@@ -0,0 +1,70 @@
+package com.spms.common.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+// POSTs each batch to every subscriber. An lb://<service-id>/<path> subscriber gets it on
+// every registered instance, since each instance keeps its own caches; with no instance
+// registered there is nothing to keep up to date. Other URLs are posted to as they are.
+// The service token, when set, tells the gateway the batch comes from one of the services.
+@Component
+@ConditionalOnProperty("spms.events.http.subscribers")
+public class HttpEventTransport implements EventTransport {
+    
+    private static final String SERVICE_TOKEN_HEADER = "X-SPMS-Service-Token";
+    
+    @Autowired
+    private DiscoveryClient discoveryClient;
+    
+    @Value("${spms.events.http.subscribers}")
+    private List<URI> subscribers;
+    
+    @Value("${spms.events.http.service-token:}")
+    private String serviceToken;
+    
+    private final RestTemplate restTemplate;
+    
+    public HttpEventTransport(RestTemplateBuilder restTemplateBuilder,
+                              @Value("${spms.events.http.timeout:5s}") Duration timeout) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+    }
+    
+    @Override
+    public void send(List<DomainEvent> events) {
+        HttpHeaders headers = new HttpHeaders();
+        if (StringUtils.hasText(serviceToken)) {
+            headers.set(SERVICE_TOKEN_HEADER, serviceToken);
+        }
+        HttpEntity<List<DomainEvent>> batch = new HttpEntity<>(events, headers);
+        for (URI subscriber : subscribers) {
+            if (!"lb".equals(subscriber.getScheme())) {
+                restTemplate.postForEntity(subscriber, batch, Void.class);
+                continue;
+            }
+            for (ServiceInstance instance : discoveryClient.getInstances(subscriber.getHost())) {
+                URI target = UriComponentsBuilder.fromUri(instance.getUri())
+                        .path(subscriber.getPath())
+                        .build()
+                        .toUri();
+                restTemplate.postForEntity(target, batch, Void.class);
+            }
+        }
+    }
+}
\ No newline at end of file
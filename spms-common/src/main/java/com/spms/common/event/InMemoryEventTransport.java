@@ -0,0 +1,22 @@
+package com.spms.common.event;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class InMemoryEventTransport implements EventTransport {
+    
+    @Autowired(required = false)
+    private List<DomainEventListener> listeners = List.of();
+    
+    @Override
+    public void send(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            for (DomainEventListener listener : listeners) {
+                listener.onEvent(event);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.spms.common.event;
+
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+
+// Imported by the services that publish domain events. Registering the package lets Boot's
+// entity and repository scanning find OutboxEvent and its repository next to the service's own.
+@Configuration
+@ComponentScan(basePackageClasses = OutboxConfiguration.class)
+@AutoConfigurationPackage(basePackageClasses = OutboxConfiguration.class)
+public class OutboxConfiguration {
+}
\ No newline at end of file
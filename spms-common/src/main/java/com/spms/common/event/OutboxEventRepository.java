@@ -0,0 +1,56 @@
+package com.spms.common.event;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Unpublished events no relay holds a live claim on. Rows another relay is claiming right now
+    // are skipped rather than waited for (-2 is Hibernate's LockOptions.SKIP_LOCKED).
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL "
+            + "AND (e.claimedUntil IS NULL OR e.claimedUntil < :now) ORDER BY e.id")
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    // [id, aggregateType, aggregateId] of every unpublished event up to maxId of the given
+    // aggregates, claimed or not, in order
+    @Query("SELECT e.id, e.aggregateType, e.aggregateId FROM OutboxEvent e WHERE e.publishedAt IS NULL "
+            + "AND e.id <= :maxId AND e.aggregateId IN :aggregateIds ORDER BY e.id")
+    List<Object[]> findUnpublished(@Param("maxId") Long maxId, @Param("aggregateIds") Collection<String> aggregateIds);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :now, e.attempts = e.attempts + 1, e.claimedUntil = NULL "
+            + "WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Only while the claim is still this relay's, so a relay whose claim ran out does not
+    // release events another relay has taken over
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.claimedUntil = NULL "
+            + "WHERE e.id IN :ids AND e.claimedUntil = :claimedUntil")
+    int release(@Param("ids") Collection<Long> ids, @Param("claimedUntil") LocalDateTime claimedUntil);
+    
+    long countByPublishedAtIsNull();
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    // [aggregateId, last event id] for every aggregate of the type still in the outbox
+    @Query("SELECT e.aggregateId, MAX(e.id) FROM OutboxEvent e WHERE e.aggregateType = :aggregateType GROUP BY e.aggregateId")
+    List<Object[]> findLastEventIds(@Param("aggregateType") String aggregateType);
+}
\ No newline at end of file
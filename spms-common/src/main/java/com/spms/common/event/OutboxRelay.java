@@ -0,0 +1,243 @@
+package com.spms.common.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Runs on its own thread rather than the shared scheduler, so a slow subscriber cannot delay
+// the service's other scheduled work. Never lazy: nothing else depends on this bean, and it
+// has to run for events to leave the outbox.
+@Component
+@Lazy(false)
+public class OutboxRelay {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private List<EventTransport> transports;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${spring.application.name}")
+    private String source;
+    
+    @Value("${spms.events.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${spms.events.relay-interval-ms:500}")
+    private long relayIntervalMs;
+    
+    // Longer than delivering a batch to every subscriber instance can take
+    @Value("${spms.events.lease:60s}")
+    private Duration lease;
+    
+    @Value("${spms.events.retention:7d}")
+    private Duration retention;
+    
+    @Value("${spms.events.purge-interval-ms:3600000}")
+    private long purgeIntervalMs;
+    
+    private ScheduledExecutorService relayThread;
+    private TransactionTemplate transactionTemplate;
+    private Counter publishedCounter;
+    private Counter failedCounter;
+    
+    @PostConstruct
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        publishedCounter = Counter.builder("outbox.events").tag("outcome", "published").register(meterRegistry);
+        failedCounter = Counter.builder("outbox.events").tag("outcome", "failed").register(meterRegistry);
+        Gauge.builder("outbox.events.pending", outboxEventRepository, OutboxEventRepository::countByPublishedAtIsNull)
+                .description("Events written but not yet acknowledged by every transport")
+                .register(meterRegistry);
+        
+        relayThread = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        relayThread.scheduleWithFixedDelay(this::relay, relayIntervalMs, relayIntervalMs, TimeUnit.MILLISECONDS);
+        relayThread.scheduleWithFixedDelay(this::purge, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        relayThread.shutdown();
+        relayThread.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    // Keeps going while full batches are published, so a backlog drains without waiting for
+    // the next tick; a failure ends the round and the next tick retries
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            // An exception would cancel the scheduled task, so the relay would never run again
+            log.warn("Outbox relay failed, retrying in {} ms", relayIntervalMs, e);
+        }
+    }
+    
+    public void purge() {
+        try {
+            Integer purged = transactionTemplate.execute(status ->
+                    outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+            if (purged != null && purged > 0) {
+                log.debug("Purged {} published outbox events", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Purging published outbox events failed", e);
+        }
+    }
+    
+    // Claiming a batch and recording the outcome are short transactions of their own, and the
+    // subscribers are called in between outside of any, so the outbox table is never locked
+    // while a slow subscriber answers. Events still claimed when the lease runs out, because
+    // this instance died or delivery hung, are taken over by the next relay.
+    private int relayBatch() {
+        LocalDateTime claimedUntil = LocalDateTime.now().plus(lease).truncatedTo(ChronoUnit.SECONDS);
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claim(claimedUntil));
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        if (deliver(batch)) {
+            markPublished(batch);
+            return batch.size();
+        }
+        
+        // Retry aggregate by aggregate, so one subscriber rejecting one aggregate's events does
+        // not hold back the others. An aggregate's events stay together and in order, so a
+        // failed event also holds back everything after it for the same aggregate.
+        Map<String, List<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            byAggregate.computeIfAbsent(aggregateKey(event.getAggregateType(), event.getAggregateId()),
+                    key -> new ArrayList<>()).add(event);
+        }
+        int published = 0;
+        for (List<OutboxEvent> events : byAggregate.values()) {
+            if (deliver(events)) {
+                markPublished(events);
+                published += events.size();
+            } else {
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxEventRepository.release(ids(events), claimedUntil));
+                failedCounter.increment(events.size());
+            }
+        }
+        return published;
+    }
+    
+    // Other relays skip the rows this one is claiming, so an aggregate's next event may be
+    // claimable while an earlier one is being claimed or delivered elsewhere. Each aggregate's
+    // claim therefore stops at its first unpublished event that is not in the batch.
+    private List<OutboxEvent> claim(LocalDateTime claimedUntil) {
+        List<OutboxEvent> candidates = outboxEventRepository.findClaimable(LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        
+        Set<Long> candidateIds = new HashSet<>(ids(candidates));
+        Set<String> aggregateIds = new HashSet<>();
+        candidates.forEach(event -> aggregateIds.add(event.getAggregateId()));
+        Long maxId = candidates.get(candidates.size() - 1).getId();
+        
+        Set<Long> claimed = new HashSet<>();
+        Set<String> heldBack = new HashSet<>();
+        for (Object[] row : outboxEventRepository.findUnpublished(maxId, aggregateIds)) {
+            Long id = (Long) row[0];
+            String aggregate = aggregateKey((String) row[1], (String) row[2]);
+            if (!heldBack.contains(aggregate) && candidateIds.contains(id)) {
+                claimed.add(id);
+            } else {
+                heldBack.add(aggregate);
+            }
+        }
+        
+        List<OutboxEvent> batch = candidates.stream()
+                .filter(event -> claimed.contains(event.getId()))
+                .toList();
+        batch.forEach(event -> event.claim(claimedUntil));
+        return batch;
+    }
+    
+    private void markPublished(List<OutboxEvent> events) {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxEventRepository.markPublished(ids(events), LocalDateTime.now()));
+        publishedCounter.increment(events.size());
+    }
+    
+    private static List<Long> ids(List<OutboxEvent> events) {
+        return events.stream().map(OutboxEvent::getId).toList();
+    }
+    
+    private static String aggregateKey(String aggregateType, String aggregateId) {
+        return aggregateType + ":" + aggregateId;
+    }
+    
+    private boolean deliver(List<OutboxEvent> events) {
+        List<DomainEvent> domainEvents = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            domainEvents.add(toDomainEvent(event));
+        }
+        for (EventTransport transport : transports) {
+            try {
+                transport.send(domainEvents);
+            } catch (RuntimeException e) {
+                OutboxEvent first = events.get(0);
+                log.warn("{} could not deliver {} events starting at {} {} (attempt {}): {}",
+                        transport.getClass().getSimpleName(), events.size(), first.getAggregateType(),
+                        first.getAggregateId(), first.getAttempts() + 1, e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private DomainEvent toDomainEvent(OutboxEvent event) {
+        try {
+            return new DomainEvent(event.getId(), source, event.getAggregateType(), event.getAggregateId(),
+                    event.getEventType(), objectMapper.readTree(event.getPayload()), event.getCreatedAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox event " + event.getId() + " has an unreadable payload", e);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.spms.common.projection;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// What a list response is narrowed to: the fields named in ?fields=, or ?view=compact
+public record Fieldset(Set<String> fields, boolean compact) {
+    
+    public static final String FULL = "full";
+    public static final String COMPACT = "compact";
+    
+    // Null when neither narrows the response, so the full entities are returned
+    public static Fieldset of(String fields, String view) {
+        if (view != null && !FULL.equals(view) && !COMPACT.equals(view)) {
+            throw new IllegalArgumentException("Unknown view: " + view);
+        }
+        if (fields != null && view != null) {
+            throw new IllegalArgumentException("Use either fields or view");
+        }
+        if (COMPACT.equals(view)) {
+            return new Fieldset(Set.of(), true);
+        }
+        if (fields == null) {
+            return null;
+        }
+        return new Fieldset(Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toUnmodifiableSet()), false);
+    }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.spms.common.projection;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// The response of a list endpoint: the full entities, or only what ?fields= or ?view=compact
+// asks for, loaded without the other columns. An unknown field or view is a bad request.
+public final class ProjectedList {
+    
+    private ProjectedList() {}
+    
+    public static ResponseEntity<List<?>> respond(String fields, String view, Supplier<List<?>> full,
+                                                  Function<Fieldset, List<?>> projected) {
+        try {
+            Fieldset fieldset = Fieldset.of(fields, view);
+            return ResponseEntity.ok(fieldset == null ? full.get() : projected.apply(fieldset));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.spms.common.projection;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Entity lists that load only the columns the response carries. A fieldset selects just its
+// columns, always with the id; the compact view is a constructor projection into the summary.
+// Subclasses name the entity, its alias in the where conditions, the selectable fields in
+// response order and the summary's constructor arguments.
+public abstract class ProjectionRepository<S> {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final String from;
+    private final String alias;
+    private final List<String> fields;
+    private final Class<S> summaryType;
+    private final String summarySelect;
+    
+    protected ProjectionRepository(String entityName, String alias, List<String> fields, Class<S> summaryType,
+                                   String summaryArguments) {
+        this.from = " FROM " + entityName + " " + alias;
+        this.alias = alias;
+        this.fields = fields;
+        this.summaryType = summaryType;
+        this.summarySelect = "SELECT new " + summaryType.getName() + "(" + summaryArguments + ")";
+    }
+    
+    // where is a JPQL condition on the alias with positional parameters, or empty for every row
+    public List<?> find(Fieldset fieldset, String where, Object... parameters) {
+        if (fieldset.compact()) {
+            return query(summarySelect, summaryType, where, parameters).getResultList();
+        }
+        
+        for (String field : fieldset.fields()) {
+            if (!fields.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        List<String> columns = fields.stream()
+                .filter(field -> field.equals("id") || fieldset.fields().contains(field))
+                .toList();
+        String select = columns.stream()
+                .map(field -> alias + "." + field)
+                .collect(Collectors.joining(", ", "SELECT ", ""));
+        
+        return query(select, Tuple.class, where, parameters).getResultStream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 0; i < columns.size(); i++) {
+                        row.put(columns.get(i), tuple.get(i));
+                    }
+                    return row;
+                })
+                .toList();
+    }
+    
+    private <T> TypedQuery<T> query(String select, Class<T> type, String where, Object[] parameters) {
+        TypedQuery<T> query = entityManager.createQuery(
+                select + from + (where.isEmpty() ? "" : " WHERE " + where), type);
+        for (int i = 0; i < parameters.length; i++) {
+            query.setParameter(i + 1, parameters[i]);
+        }
+        return query;
+    }
+}
\ No newline at end of file
@@ -1,11 +1,15 @@
 package com.spms.user;
 
+import com.spms.common.cache.SecondLevelCacheConfiguration;
+import com.spms.common.datasource.ReadReplicaConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import({ReadReplicaConfig.class, SecondLevelCacheConfiguration.class})
 public class UserServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(UserServiceApplication.class, args);
@@ -0,0 +1,154 @@
+package com.spms.user.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.spms.common.cache.PeerEvictionListener;
+import com.spms.user.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Changes made through other instances arrive with their second-level cache evictions, batched
+// every spms.cache.broadcast.interval-ms. A lost batch leaves a user stale for at most the TTL.
+@Component
+public class UserCache implements PeerEvictionListener {
+    
+    private static final int EVICTION_STRIPES = 1024;
+    
+    // Users are stored once, keyed by ID. Username and email only map to the ID,
+    // so all three lookups share a single cached copy and a single eviction.
+    private final Cache<Long, User> usersById;
+    private final Cache<String, Long> idsByUsername;
+    private final Cache<String, Long> idsByEmail;
+    
+    // Every eviction takes the next sequence number and records it for the ID's stripe. A loaded
+    // user is only cached if no eviction in its stripe happened since the load began, so a
+    // reader that loaded the row before a commit cannot put it back after the commit's eviction.
+    private final AtomicLong evictionSequence = new AtomicLong();
+    private final AtomicLongArray lastEvictions = new AtomicLongArray(EVICTION_STRIPES);
+    
+    public UserCache(@Value("${spms.cache.users.maximum-size:10000}") long maximumSize,
+                     @Value("${spms.cache.users.ttl:10m}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users");
+    }
+    
+    public Optional<User> getById(Long id, Function<Long, Optional<User>> loader) {
+        User cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long loadStart = evictionSequence.get();
+        return loader.apply(id).map(user -> put(user, loadStart));
+    }
+    
+    public Optional<User> getByUsername(String username, Supplier<Optional<User>> loader) {
+        Long id = idsByUsername.getIfPresent(username);
+        User cached = id != null ? usersById.getIfPresent(id) : null;
+        if (cached != null && username.equals(cached.getUsername())) {
+            return Optional.of(cached);
+        }
+        long loadStart = evictionSequence.get();
+        return loader.get().map(user -> put(user, loadStart));
+    }
+    
+    public Optional<User> getByEmail(String email, Supplier<Optional<User>> loader) {
+        Long id = idsByEmail.getIfPresent(email);
+        User cached = id != null ? usersById.getIfPresent(id) : null;
+        if (cached != null && email.equals(cached.getEmail())) {
+            return Optional.of(cached);
+        }
+        long loadStart = evictionSequence.get();
+        return loader.get().map(user -> put(user, loadStart));
+    }
+    
+    // Evicting again after commit stops a concurrent reader from re-caching the old row
+    // between our eviction and the write becoming visible.
+    public void evict(User user) {
+        Long id = user.getId();
+        String username = user.getUsername();
+        String email = user.getEmail();
+        
+        Runnable eviction = () -> {
+            evict(id);
+            idsByUsername.invalidate(username);
+            idsByEmail.invalidate(email);
+        };
+        
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+    
+    // The username and email mappings of the other instance's change may stay behind; a lookup
+    // through them checks the cached user and reloads on a mismatch
+    @Override
+    public void onPeerEviction(String entityName, Long id) {
+        if (User.class.getName().equals(entityName)) {
+            evict(id);
+        }
+    }
+    
+    private void evict(Long id) {
+        lastEvictions.accumulateAndGet(stripe(id), evictionSequence.incrementAndGet(), Math::max);
+        usersById.invalidate(id);
+    }
+    
+    private User put(User user, long loadStart) {
+        User copy = withoutPassword(user);
+        Long id = copy.getId();
+        User stored = usersById.asMap().compute(id, (key, existing) ->
+                existing != null || lastEvictions.get(stripe(id)) > loadStart ? existing : copy);
+        if (stored == copy) {
+            idsByUsername.put(copy.getUsername(), id);
+            idsByEmail.put(copy.getEmail(), id);
+        }
+        return copy;
+    }
+    
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), EVICTION_STRIPES);
+    }
+    
+    // Cached entries are detached copies that never carry the password hash
+    private User withoutPassword(User user) {
+        User copy = new User(user.getUsername(), user.getEmail(), null, user.getFirstName(),
+                user.getLastName(), user.getPhoneNumber(), user.getUserType());
+        copy.setId(user.getId());
+        copy.setIsActive(user.getIsActive());
+        copy.setCreatedAt(user.getCreatedAt());
+        copy.setUpdatedAt(user.getUpdatedAt());
+        copy.setLastLogin(user.getLastLogin());
+        return copy;
+    }
+}
\ No newline at end of file
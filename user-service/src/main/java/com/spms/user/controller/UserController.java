@@ -1,6 +1,8 @@
 package com.spms.user.controller;
 
+import com.spms.common.projection.ProjectedList;
 import com.spms.user.entity.User;
+import com.spms.user.service.TokenService;
 import com.spms.user.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,10 +21,13 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private TokenService tokenService;
+    
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<?>> getAllUsers(@RequestParam(required = false) String fields,
+                                               @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, userService::getAllUsers, userService::getAllUsers);
     }
     
     @GetMapping("/{id}")
@@ -47,27 +52,33 @@ public class UserController {
     }
     
     @GetMapping("/type/{userType}")
-    public ResponseEntity<List<User>> getUsersByType(@PathVariable User.UserType userType) {
-        List<User> users = userService.getUsersByType(userType);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<?>> getUsersByType(@PathVariable User.UserType userType,
+                                                  @RequestParam(required = false) String fields,
+                                                  @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> userService.getUsersByType(userType),
+                fieldset -> userService.getUsersByType(userType, fieldset));
     }
     
     @GetMapping("/active")
-    public ResponseEntity<List<User>> getActiveUsers() {
-        List<User> users = userService.getActiveUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<?>> getActiveUsers(@RequestParam(required = false) String fields,
+                                                  @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, userService::getActiveUsers, userService::getActiveUsers);
     }
     
     @GetMapping("/active/type/{userType}")
-    public ResponseEntity<List<User>> getActiveUsersByType(@PathVariable User.UserType userType) {
-        List<User> users = userService.getActiveUsersByType(userType);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<?>> getActiveUsersByType(@PathVariable User.UserType userType,
+                                                        @RequestParam(required = false) String fields,
+                                                        @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> userService.getActiveUsersByType(userType),
+                fieldset -> userService.getActiveUsersByType(userType, fieldset));
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<User>> searchUsersByName(@RequestParam String name) {
-        List<User> users = userService.searchUsersByName(name);
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<?>> searchUsersByName(@RequestParam String name,
+                                                     @RequestParam(required = false) String fields,
+                                                     @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> userService.searchUsersByName(name),
+                fieldset -> userService.searchUsersByName(name, fieldset));
     }
     
     @PostMapping("/register")
@@ -81,7 +92,7 @@ public class UserController {
     }
     
     @PostMapping("/authenticate")
-    public ResponseEntity<User> authenticateUser(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<Map<String, Object>> authenticateUser(@RequestBody Map<String, String> credentials) {
         try {
             String usernameOrEmail = credentials.get("usernameOrEmail");
             String password = credentials.get("password");
@@ -91,12 +102,22 @@ public class UserController {
             }
             
             User authenticatedUser = userService.authenticateUser(usernameOrEmail, password);
-            return ResponseEntity.ok(authenticatedUser);
+            String accessToken = tokenService.issueToken(authenticatedUser);
+            return ResponseEntity.ok(Map.of(
+                    "accessToken", accessToken,
+                    "tokenType", "Bearer",
+                    "expiresIn", tokenService.getTtl().toSeconds(),
+                    "user", authenticatedUser));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
     
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> getPublicKeys() {
+        return ResponseEntity.ok(tokenService.getPublicKeys());
+    }
+    
     @PutMapping("/{id}")
     public ResponseEntity<User> updateUser(@PathVariable Long id, @Valid @RequestBody User userDetails) {
         try {
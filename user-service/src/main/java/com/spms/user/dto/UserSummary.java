@@ -0,0 +1,8 @@
+package com.spms.user.dto;
+
+import com.spms.user.entity.User;
+
+// The compact view of a user, for mobile clients
+public record UserSummary(Long id, String username, String firstName, String lastName,
+                          User.UserType userType, Boolean isActive) {
+}
\ No newline at end of file
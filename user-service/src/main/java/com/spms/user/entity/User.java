@@ -1,14 +1,21 @@
 package com.spms.user.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
+// Users rarely change and two concurrent changes to one user are rarer still, so cached copies
+// are just evicted after a commit instead of being soft-locked
 @Entity
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class User {
     
     @Id
@@ -25,9 +32,11 @@ public class User {
     @Column(name = "email", unique = true, nullable = false)
     private String email;
     
+    // Accepted on registration, but the BCrypt hash is never written back out
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     @Column(name = "password", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     
     @NotBlank(message = "First name is required")
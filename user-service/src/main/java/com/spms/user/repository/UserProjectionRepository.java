@@ -0,0 +1,20 @@
+package com.spms.user.repository;
+
+import com.spms.common.projection.ProjectionRepository;
+import com.spms.user.dto.UserSummary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// The password is not a field, so it can never be selected
+@Repository
+public class UserProjectionRepository extends ProjectionRepository<UserSummary> {
+    
+    public UserProjectionRepository() {
+        super("User", "u",
+                List.of("id", "username", "email", "firstName", "lastName", "phoneNumber", "userType", "isActive",
+                        "createdAt", "updatedAt", "lastLogin"),
+                UserSummary.class,
+                "u.id, u.username, u.firstName, u.lastName, u.userType, u.isActive");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.spms.user.service;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.spms.user.entity.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+@Service
+public class TokenService {
+    
+    @Autowired
+    private JwtEncoder jwtEncoder;
+    
+    @Autowired
+    private RSAKey jwtSigningKey;
+    
+    @Value("${spms.jwt.issuer:spms-user-service}")
+    private String issuer;
+    
+    @Value("${spms.jwt.ttl:15m}")
+    private Duration ttl;
+    
+    public String issueToken(User user) {
+        Instant now = Instant.now();
+        
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(issuer)
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .subject(String.valueOf(user.getId()))
+                .claim("username", user.getUsername())
+                .claim("userType", user.getUserType().name())
+                .build();
+        
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256)
+                .keyId(jwtSigningKey.getKeyID())
+                .build();
+        
+        return jwtEncoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+    
+    public Duration getTtl() {
+        return ttl;
+    }
+    
+    public Map<String, Object> getPublicKeys() {
+        return new JWKSet(jwtSigningKey.toPublicJWK()).toJSONObject();
+    }
+}
\ No newline at end of file
@@ -1,6 +1,9 @@
 package com.spms.user.service;
 
+import com.spms.common.projection.Fieldset;
+import com.spms.user.cache.UserCache;
 import com.spms.user.entity.User;
+import com.spms.user.repository.UserProjectionRepository;
 import com.spms.user.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -18,40 +21,78 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserProjectionRepository userProjectionRepository;
+    
+    @Autowired
+    private UserCache userCache;
+    
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
     
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getAllUsers(Fieldset fieldset) {
+        return userProjectionRepository.find(fieldset, "");
+    }
+    
+    // Cache loads stay on the primary: a copy read from a lagging replica would be served
+    // for the whole TTL after the write that evicted it
     public Optional<User> getUserById(Long id) {
-        return userRepository.findById(id);
+        return userCache.getById(id, userRepository::findById);
     }
     
     public Optional<User> getUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userCache.getByUsername(username, () -> userRepository.findByUsername(username));
     }
     
     public Optional<User> getUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return userCache.getByEmail(email, () -> userRepository.findByEmail(email));
     }
     
+    @Transactional(readOnly = true)
     public List<User> getUsersByType(User.UserType userType) {
         return userRepository.findByUserType(userType);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getUsersByType(User.UserType userType, Fieldset fieldset) {
+        return userProjectionRepository.find(fieldset, "u.userType = ?1", userType);
+    }
+    
+    @Transactional(readOnly = true)
     public List<User> getActiveUsers() {
         return userRepository.findByIsActive(true);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getActiveUsers(Fieldset fieldset) {
+        return userProjectionRepository.find(fieldset, "u.isActive = true");
+    }
+    
+    @Transactional(readOnly = true)
     public List<User> getActiveUsersByType(User.UserType userType) {
         return userRepository.findByUserTypeAndIsActive(userType, true);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getActiveUsersByType(User.UserType userType, Fieldset fieldset) {
+        return userProjectionRepository.find(fieldset, "u.userType = ?1 AND u.isActive = true", userType);
+    }
+    
+    @Transactional(readOnly = true)
     public List<User> searchUsersByName(String name) {
         return userRepository.findByNameContaining(name);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> searchUsersByName(String name, Fieldset fieldset) {
+        return userProjectionRepository.find(fieldset, "u.firstName LIKE ?1 OR u.lastName LIKE ?1", "%" + name + "%");
+    }
+    
     public User registerUser(User user) {
         // Check if username already exists
         if (userRepository.existsByUsername(user.getUsername())) {
@@ -87,6 +128,7 @@ public class UserService {
         }
         
         // Update last login time
+        userCache.evict(user);
         user.setLastLogin(LocalDateTime.now());
         userRepository.save(user);
         
@@ -97,6 +139,8 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
+        userCache.evict(user);
+        
         // Check if new username already exists (if changed)
         if (!user.getUsername().equals(userDetails.getUsername())) {
             if (userRepository.existsByUsername(userDetails.getUsername())) {
@@ -125,6 +169,8 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
+        userCache.evict(user);
+        
         if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
             throw new RuntimeException("Current password is incorrect");
         }
@@ -137,6 +183,8 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
+        userCache.evict(user);
+        
         user.setIsActive(false);
         return userRepository.save(user);
     }
@@ -145,6 +193,8 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
+        userCache.evict(user);
+        
         user.setIsActive(true);
         return userRepository.save(user);
     }
@@ -153,13 +203,17 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
+        userCache.evict(user);
+        
         userRepository.delete(user);
     }
     
+    @Transactional(readOnly = true)
     public Long getActiveUsersCount() {
         return userRepository.countActiveUsersByType(User.UserType.REGULAR_USER);
     }
     
+    @Transactional(readOnly = true)
     public Long getParkingOwnersCount() {
         return userRepository.countActiveUsersByType(User.UserType.PARKING_OWNER);
     }
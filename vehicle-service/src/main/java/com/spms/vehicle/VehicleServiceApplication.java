@@ -1,11 +1,18 @@
 package com.spms.vehicle;
 
+import com.spms.common.cache.SecondLevelCacheConfiguration;
+import com.spms.common.datasource.ReadReplicaConfig;
+import com.spms.common.event.OutboxConfiguration;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import({OutboxConfiguration.class, ReadReplicaConfig.class, SecondLevelCacheConfiguration.class})
+@EnableScheduling
 public class VehicleServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(VehicleServiceApplication.class, args);
@@ -0,0 +1,143 @@
+package com.spms.vehicle.analytics;
+
+import com.spms.vehicle.entity.Vehicle;
+import com.spms.vehicle.repository.VehicleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class DwellTimeAnalytics {
+    
+    private static final Logger log = LoggerFactory.getLogger(DwellTimeAnalytics.class);
+    
+    @Autowired
+    private ParkingSpaceZoneResolver zoneResolver;
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${spms.analytics.window:1d}")
+    private Duration window;
+    
+    @Value("${spms.analytics.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${spms.analytics.percentiles:50,90,99}")
+    private double[] percentiles;
+    
+    // Events are folded in on a single thread so recording never slows down a check-in
+    // or check-out; the zone lookup it may need happens there as well.
+    private final Map<String, ZoneStatistics> zones = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor worker;
+    private Counter droppedCounter;
+    
+    @PostConstruct
+    public void start() {
+        worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dwell-time-analytics");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        droppedCounter = Counter.builder("parking.analytics.events.dropped").register(meterRegistry);
+        Gauge.builder("parking.analytics.zones", zones, Map::size).register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+    
+    // Vehicles already parked when the service starts count towards occupancy. They are read
+    // from the database, since the parked vehicle registry is only loaded by another
+    // ApplicationReadyEvent listener that may not have run yet.
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOccupancy() {
+        List<Vehicle> parked = vehicleRepository.findByCurrentParkingSpaceIdIsNotNull();
+        submit(() -> {
+            Map<String, Integer> parkedByZone = new HashMap<>();
+            for (Vehicle vehicle : parked) {
+                parkedByZone.merge(zoneResolver.resolve(vehicle.getCurrentParkingSpaceId()), 1, Integer::sum);
+            }
+            parkedByZone.forEach((zone, count) -> zoneStatistics(zone).seedOccupancy(count));
+            log.info("Dwell time analytics seeded with {} parked vehicles in {} zones", parked.size(), parkedByZone.size());
+        });
+    }
+    
+    public void recordEntry(Long parkingSpaceId, LocalDateTime entryTime) {
+        submit(() -> zoneStatistics(zoneResolver.resolve(parkingSpaceId)).recordEntry(entryTime, Instant.now()));
+    }
+    
+    public void recordExit(Long parkingSpaceId, LocalDateTime entryTime, LocalDateTime exitTime) {
+        submit(() -> zoneStatistics(zoneResolver.resolve(parkingSpaceId)).recordExit(entryTime, exitTime, Instant.now()));
+    }
+    
+    public Optional<Map<String, Object>> getDwellTime(String city, String zone, Integer hour, boolean previousWindow) {
+        if (hour != null && (hour < 0 || hour > 23)) {
+            throw new RuntimeException("Hour must be between 0 and 23");
+        }
+        return find(city, zone).map(statistics -> statistics.dwellTime(hour, previousWindow, percentiles, Instant.now()));
+    }
+    
+    public Optional<Map<String, Object>> getTurnover(String city, String zone, boolean previousWindow) {
+        return find(city, zone).map(statistics -> statistics.turnover(previousWindow, Instant.now()));
+    }
+    
+    public Optional<Map<String, Object>> getOccupancy(String city, String zone, boolean previousWindow) {
+        return find(city, zone).map(statistics -> statistics.occupancy(previousWindow, Instant.now()));
+    }
+    
+    public Set<String> getZones() {
+        return Set.copyOf(zones.keySet());
+    }
+    
+    private Optional<ZoneStatistics> find(String city, String zone) {
+        return Optional.ofNullable(zones.get(ParkingSpaceZoneResolver.zoneKey(city, zone)));
+    }
+    
+    private ZoneStatistics zoneStatistics(String zone) {
+        return zones.computeIfAbsent(zone, key -> new ZoneStatistics(window, Instant.now()));
+    }
+    
+    private void submit(Runnable task) {
+        try {
+            worker.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Failed to record a dwell time event", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            droppedCounter.increment();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.spms.vehicle.analytics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ParkingSpaceZoneResolver {
+    
+    public static final String UNKNOWN_ZONE = "UNKNOWN";
+    
+    private static final Logger log = LoggerFactory.getLogger(ParkingSpaceZoneResolver.class);
+    
+    @Autowired
+    private RestTemplate loadBalancedRestTemplate;
+    
+    // A space never moves between zones in practice, so a resolved zone is kept for good.
+    // Failed lookups are not cached and are retried on the next event for that space.
+    private final Map<Long, String> zonesBySpaceId = new ConcurrentHashMap<>();
+    
+    public String resolve(Long parkingSpaceId) {
+        String zone = zonesBySpaceId.get(parkingSpaceId);
+        if (zone != null) {
+            return zone;
+        }
+        
+        try {
+            Map<?, ?> space = loadBalancedRestTemplate.getForObject(
+                    "http://parking-space-service/api/parking-spaces/{id}", Map.class, parkingSpaceId);
+            if (space == null) {
+                return UNKNOWN_ZONE;
+            }
+            zone = zoneKey(String.valueOf(space.get("city")), String.valueOf(space.get("zone")));
+            zonesBySpaceId.put(parkingSpaceId, zone);
+            return zone;
+        } catch (RestClientException e) {
+            log.debug("Could not resolve the zone of parking space {}", parkingSpaceId, e);
+            return UNKNOWN_ZONE;
+        }
+    }
+    
+    public static String zoneKey(String city, String zone) {
+        return city + "/" + zone;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,161 @@
+package com.spms.vehicle.analytics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.IntCountsHistogram;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Statistics for one zone over a current and a previous window. Every histogram and
+// counter is allocated up front and reset on rollover, so memory per zone stays the
+// same no matter how many events are recorded.
+class ZoneStatistics {
+    
+    private static final int HOURS = 24;
+    private static final long MAX_DWELL_SECONDS = Duration.ofDays(7).toSeconds();
+    private static final int SIGNIFICANT_DIGITS = 2;
+    
+    private final Duration window;
+    
+    private Histogram[] currentDwellByHour = newHistograms();
+    private Histogram[] previousDwellByHour = newHistograms();
+    private long[] currentExitsByHour = new long[HOURS];
+    private long[] previousExitsByHour = new long[HOURS];
+    private int[] currentPeakByHour = new int[HOURS];
+    private int[] previousPeakByHour = new int[HOURS];
+    
+    private Instant windowStart;
+    private int occupancy;
+    
+    ZoneStatistics(Duration window, Instant now) {
+        this.window = window;
+        this.windowStart = now;
+    }
+    
+    synchronized void recordEntry(LocalDateTime entryTime, Instant now) {
+        rollIfDue(now);
+        occupancy++;
+        int hour = entryTime.getHour();
+        currentPeakByHour[hour] = Math.max(currentPeakByHour[hour], occupancy);
+    }
+    
+    synchronized void recordExit(LocalDateTime entryTime, LocalDateTime exitTime, Instant now) {
+        rollIfDue(now);
+        occupancy = Math.max(0, occupancy - 1);
+        
+        long dwellSeconds = Math.max(1, Math.min(MAX_DWELL_SECONDS, Duration.between(entryTime, exitTime).getSeconds()));
+        currentDwellByHour[entryTime.getHour()].recordValue(dwellSeconds);
+        currentExitsByHour[exitTime.getHour()]++;
+    }
+    
+    synchronized void seedOccupancy(int parkedVehicles) {
+        occupancy = parkedVehicles;
+    }
+    
+    synchronized Map<String, Object> dwellTime(Integer hour, boolean previousWindow, double[] percentiles, Instant now) {
+        rollIfDue(now);
+        Histogram[] byHour = previousWindow ? previousDwellByHour : currentDwellByHour;
+        
+        Histogram histogram;
+        if (hour != null) {
+            histogram = byHour[hour];
+        } else {
+            histogram = new IntCountsHistogram(MAX_DWELL_SECONDS, SIGNIFICANT_DIGITS);
+            for (Histogram hourly : byHour) {
+                histogram.add(hourly);
+            }
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("count", histogram.getTotalCount());
+        if (histogram.getTotalCount() > 0) {
+            result.put("meanSeconds", histogram.getMean());
+            result.put("maxSeconds", histogram.getMaxValue());
+            Map<String, Long> percentileValues = new LinkedHashMap<>();
+            for (double percentile : percentiles) {
+                percentileValues.put("p" + formatPercentile(percentile), histogram.getValueAtPercentile(percentile));
+            }
+            result.put("percentilesSeconds", percentileValues);
+        }
+        return result;
+    }
+    
+    synchronized Map<String, Object> turnover(boolean previousWindow, Instant now) {
+        rollIfDue(now);
+        long[] exitsByHour = previousWindow ? previousExitsByHour : currentExitsByHour;
+        
+        long exits = 0;
+        for (long hourlyExits : exitsByHour) {
+            exits += hourlyExits;
+        }
+        double elapsedHours = previousWindow
+                ? window.toSeconds() / 3600.0
+                : Math.max(1, Duration.between(windowStart, now).getSeconds()) / 3600.0;
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("exits", exits);
+        result.put("exitsPerHour", exits / elapsedHours);
+        result.put("exitsByHourOfDay", exitsByHour.clone());
+        return result;
+    }
+    
+    synchronized Map<String, Object> occupancy(boolean previousWindow, Instant now) {
+        rollIfDue(now);
+        int[] peakByHour = previousWindow ? previousPeakByHour : currentPeakByHour;
+        
+        int peak = 0;
+        for (int hourlyPeak : peakByHour) {
+            peak = Math.max(peak, hourlyPeak);
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("currentOccupancy", occupancy);
+        result.put("peakOccupancy", peak);
+        result.put("peakOccupancyByHourOfDay", peakByHour.clone());
+        return result;
+    }
+    
+    private void rollIfDue(Instant now) {
+        if (now.isBefore(windowStart.plus(window))) {
+            return;
+        }
+        
+        // Swap and reset instead of reallocating, so rollover never grows the heap
+        Histogram[] histograms = previousDwellByHour;
+        previousDwellByHour = currentDwellByHour;
+        currentDwellByHour = histograms;
+        for (Histogram histogram : currentDwellByHour) {
+            histogram.reset();
+        }
+        
+        long[] exits = previousExitsByHour;
+        previousExitsByHour = currentExitsByHour;
+        currentExitsByHour = exits;
+        Arrays.fill(currentExitsByHour, 0);
+        
+        int[] peaks = previousPeakByHour;
+        previousPeakByHour = currentPeakByHour;
+        currentPeakByHour = peaks;
+        Arrays.fill(currentPeakByHour, 0);
+        
+        // Skip over windows with no events so windowStart stays aligned to the period
+        long elapsedWindows = Duration.between(windowStart, now).toMillis() / window.toMillis();
+        windowStart = windowStart.plus(window.multipliedBy(elapsedWindows));
+    }
+    
+    private static Histogram[] newHistograms() {
+        Histogram[] histograms = new Histogram[HOURS];
+        for (int i = 0; i < HOURS; i++) {
+            histograms[i] = new IntCountsHistogram(MAX_DWELL_SECONDS, SIGNIFICANT_DIGITS);
+        }
+        return histograms;
+    }
+    
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+}
\ No newline at end of file
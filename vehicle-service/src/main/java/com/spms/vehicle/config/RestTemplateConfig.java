@@ -0,0 +1,30 @@
+package com.spms.vehicle.config;
+
+import com.spms.vehicle.loadbalancer.ParkingShardLoadBalancerConfiguration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+@LoadBalancerClient(name = "parking-space-service", configuration = ParkingShardLoadBalancerConfiguration.class)
+public class RestTemplateConfig {
+    
+    // Zone lookups run on the single analytics worker, so a hung call would hold up every
+    // dwell-time recording behind it
+    @Bean
+    @LoadBalanced
+    public RestTemplate loadBalancedRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                                 @Value("${spms.parking-space-service.connect-timeout:1s}") Duration connectTimeout,
+                                                 @Value("${spms.parking-space-service.read-timeout:2s}") Duration readTimeout) {
+        return restTemplateBuilder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.spms.vehicle.controller;
+
+import com.spms.vehicle.analytics.DwellTimeAnalytics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/vehicles/analytics")
+public class AnalyticsController {
+    
+    @Autowired
+    private DwellTimeAnalytics dwellTimeAnalytics;
+    
+    @GetMapping("/zones")
+    public ResponseEntity<Set<String>> getZones() {
+        return ResponseEntity.ok(dwellTimeAnalytics.getZones());
+    }
+    
+    @GetMapping("/{city}/{zone}/dwell-time")
+    public ResponseEntity<Map<String, Object>> getDwellTime(@PathVariable String city,
+                                                            @PathVariable String zone,
+                                                            @RequestParam(required = false) Integer hour,
+                                                            @RequestParam(defaultValue = "false") boolean previousWindow) {
+        try {
+            return dwellTimeAnalytics.getDwellTime(city, zone, hour, previousWindow)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/{city}/{zone}/turnover")
+    public ResponseEntity<Map<String, Object>> getTurnover(@PathVariable String city,
+                                                           @PathVariable String zone,
+                                                           @RequestParam(defaultValue = "false") boolean previousWindow) {
+        return dwellTimeAnalytics.getTurnover(city, zone, previousWindow)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{city}/{zone}/occupancy")
+    public ResponseEntity<Map<String, Object>> getOccupancy(@PathVariable String city,
+                                                            @PathVariable String zone,
+                                                            @RequestParam(defaultValue = "false") boolean previousWindow) {
+        return dwellTimeAnalytics.getOccupancy(city, zone, previousWindow)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
\ No newline at end of file
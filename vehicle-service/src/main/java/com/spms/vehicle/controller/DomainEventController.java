@@ -0,0 +1,25 @@
+package com.spms.vehicle.controller;
+
+import com.spms.common.event.DomainEvent;
+import com.spms.common.event.InMemoryEventTransport;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Receives this service's own relayed events, so that every instance's read models see the
+// writes made through the others. Listeners skip events they have already applied.
+@RestController
+@RequestMapping("/api/events")
+public class DomainEventController {
+    
+    @Autowired
+    private InMemoryEventTransport inMemoryEventTransport;
+    
+    @PostMapping
+    public ResponseEntity<Void> receive(@RequestBody List<DomainEvent> events) {
+        inMemoryEventTransport.send(events);
+        return ResponseEntity.noContent().build();
+    }
+}
\ No newline at end of file
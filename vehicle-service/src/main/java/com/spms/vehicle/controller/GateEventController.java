@@ -0,0 +1,70 @@
+package com.spms.vehicle.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.vehicle.dto.GateEvent;
+import com.spms.vehicle.service.GateEventIngestor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/vehicles/gate-events")
+public class GateEventController {
+    
+    @Autowired
+    private GateEventIngestor gateEventIngestor;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestGateEvents(@RequestBody List<GateEvent> events) {
+        return ingest(events);
+    }
+    
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Map<String, Object>> ingestGateEventStream(@RequestBody String body) {
+        List<GateEvent> events = new ArrayList<>();
+        try {
+            for (String line : body.split("\n")) {
+                if (!line.isBlank()) {
+                    events.add(objectMapper.readValue(line, GateEvent.class));
+                }
+            }
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ingest(events);
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Integer>> getIngestStats() {
+        return ResponseEntity.ok(Map.of("queueDepth", gateEventIngestor.getQueueDepth()));
+    }
+    
+    private ResponseEntity<Map<String, Object>> ingest(List<GateEvent> events) {
+        if (events.size() > gateEventIngestor.getMaxBatchSize()) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                    .body(Map.of("accepted", 0, "maxBatchSize", gateEventIngestor.getMaxBatchSize()));
+        }
+        try {
+            if (!gateEventIngestor.submit(events)) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(Map.of("accepted", 0, "queueDepth", gateEventIngestor.getQueueDepth()));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(Map.of("accepted", events.size(), "queueDepth", gateEventIngestor.getQueueDepth()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
\ No newline at end of file
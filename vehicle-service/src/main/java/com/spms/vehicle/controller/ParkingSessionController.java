@@ -0,0 +1,56 @@
+package com.spms.vehicle.controller;
+
+import com.spms.vehicle.dto.CursorPage;
+import com.spms.vehicle.entity.ParkingSession;
+import com.spms.vehicle.service.ParkingSessionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/vehicles/sessions")
+public class ParkingSessionController {
+    
+    @Autowired
+    private ParkingSessionService parkingSessionService;
+    
+    @GetMapping("/vehicle/{vehicleId}")
+    public ResponseEntity<CursorPage<ParkingSession>> getSessionsByVehicleId(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(parkingSessionService.getSessionsByVehicleId(vehicleId, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/parking-space/{parkingSpaceId}")
+    public ResponseEntity<CursorPage<ParkingSession>> getSessionsByParkingSpaceId(
+            @PathVariable Long parkingSpaceId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(parkingSessionService.getSessionsByParkingSpaceId(parkingSpaceId, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/date-range")
+    public ResponseEntity<CursorPage<ParkingSession>> getSessionsBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(parkingSessionService.getSessionsBetween(startDate, endDate, cursor, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.spms.vehicle.controller;
 
+import com.spms.common.projection.ProjectedList;
 import com.spms.vehicle.entity.Vehicle;
 import com.spms.vehicle.service.VehicleService;
 import jakarta.validation.Valid;
@@ -20,9 +21,10 @@ public class VehicleController {
     private VehicleService vehicleService;
     
     @GetMapping
-    public ResponseEntity<List<Vehicle>> getAllVehicles() {
-        List<Vehicle> vehicles = vehicleService.getAllVehicles();
-        return ResponseEntity.ok(vehicles);
+    public ResponseEntity<List<?>> getAllVehicles(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, vehicleService::getAllVehicles, vehicleService::getAllVehicles);
     }
     
     @GetMapping("/{id}")
@@ -34,34 +36,55 @@ public class VehicleController {
     
     @GetMapping("/license-plate/{licensePlate}")
     public ResponseEntity<Vehicle> getVehicleByLicensePlate(@PathVariable String licensePlate) {
+        if (vehicleService.isLicensePlateAmbiguous(licensePlate)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         Optional<Vehicle> vehicle = vehicleService.getVehicleByLicensePlate(licensePlate);
         return vehicle.map(ResponseEntity::ok)
                      .orElse(ResponseEntity.notFound().build());
     }
     
+    @GetMapping("/license-plate/{licensePlate}/lookup")
+    public ResponseEntity<Map<String, Long>> lookupLicensePlate(@PathVariable String licensePlate) {
+        if (vehicleService.isLicensePlateAmbiguous(licensePlate)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return vehicleService.resolveLicensePlate(licensePlate)
+                .map(entry -> ResponseEntity.ok(Map.of("vehicleId", entry.vehicleId(), "userId", entry.userId())))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Vehicle>> getVehiclesByUserId(@PathVariable Long userId) {
-        List<Vehicle> vehicles = vehicleService.getVehiclesByUserId(userId);
-        return ResponseEntity.ok(vehicles);
+    public ResponseEntity<List<?>> getVehiclesByUserId(
+            @PathVariable Long userId, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> vehicleService.getVehiclesByUserId(userId),
+                fieldset -> vehicleService.getVehiclesByUserId(userId, fieldset));
     }
     
     @GetMapping("/type/{vehicleType}")
-    public ResponseEntity<List<Vehicle>> getVehiclesByType(@PathVariable Vehicle.VehicleType vehicleType) {
-        List<Vehicle> vehicles = vehicleService.getVehiclesByType(vehicleType);
-        return ResponseEntity.ok(vehicles);
+    public ResponseEntity<List<?>> getVehiclesByType(
+            @PathVariable Vehicle.VehicleType vehicleType, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> vehicleService.getVehiclesByType(vehicleType),
+                fieldset -> vehicleService.getVehiclesByType(vehicleType, fieldset));
     }
     
     @GetMapping("/make/{make}")
-    public ResponseEntity<List<Vehicle>> getVehiclesByMake(@PathVariable String make) {
-        List<Vehicle> vehicles = vehicleService.getVehiclesByMake(make);
-        return ResponseEntity.ok(vehicles);
+    public ResponseEntity<List<?>> getVehiclesByMake(
+            @PathVariable String make, @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> vehicleService.getVehiclesByMake(make),
+                fieldset -> vehicleService.getVehiclesByMake(make, fieldset));
     }
     
     @GetMapping("/make/{make}/model/{model}")
-    public ResponseEntity<List<Vehicle>> getVehiclesByMakeAndModel(
-            @PathVariable String make, @PathVariable String model) {
-        List<Vehicle> vehicles = vehicleService.getVehiclesByMakeAndModel(make, model);
-        return ResponseEntity.ok(vehicles);
+    public ResponseEntity<List<?>> getVehiclesByMakeAndModel(
+            @PathVariable String make, @PathVariable String model,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view) {
+        return ProjectedList.respond(fields, view, () -> vehicleService.getVehiclesByMakeAndModel(make, model),
+                fieldset -> vehicleService.getVehiclesByMakeAndModel(make, model, fieldset));
     }
     
     @GetMapping("/parked")
@@ -76,6 +99,13 @@ public class VehicleController {
         return ResponseEntity.ok(vehicles);
     }
     
+    @GetMapping("/parked/space/{parkingSpaceId}")
+    public ResponseEntity<Vehicle> getVehicleByParkingSpaceId(@PathVariable Long parkingSpaceId) {
+        Optional<Vehicle> vehicle = vehicleService.getVehicleByParkingSpaceId(parkingSpaceId);
+        return vehicle.map(ResponseEntity::ok)
+                     .orElse(ResponseEntity.notFound().build());
+    }
+    
     @PostMapping
     public ResponseEntity<Vehicle> createVehicle(@Valid @RequestBody Vehicle vehicle) {
         try {
@@ -113,9 +143,10 @@ public class VehicleController {
     }
     
     @PutMapping("/{id}/exit")
-    public ResponseEntity<Vehicle> simulateVehicleExit(@PathVariable Long id) {
+    public ResponseEntity<Vehicle> simulateVehicleExit(
+            @PathVariable Long id, @RequestParam(required = false) Long parkingSpaceId) {
         try {
-            Vehicle vehicle = vehicleService.simulateVehicleExit(id);
+            Vehicle vehicle = vehicleService.simulateVehicleExit(id, parkingSpaceId);
             return ResponseEntity.ok(vehicle);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
@@ -0,0 +1,61 @@
+package com.spms.vehicle.dto;
+
+import java.time.LocalDateTime;
+
+public class GateEvent {
+    
+    private String plate;
+    
+    private Long spaceId;
+    
+    private LocalDateTime timestamp;
+    
+    private Direction direction;
+    
+    public enum Direction {
+        ENTRY, EXIT
+    }
+    
+    // Constructors
+    public GateEvent() {}
+    
+    public GateEvent(String plate, Long spaceId, LocalDateTime timestamp, Direction direction) {
+        this.plate = plate;
+        this.spaceId = spaceId;
+        this.timestamp = timestamp;
+        this.direction = direction;
+    }
+    
+    // Getters and Setters
+    public String getPlate() {
+        return plate;
+    }
+    
+    public void setPlate(String plate) {
+        this.plate = plate;
+    }
+    
+    public Long getSpaceId() {
+        return spaceId;
+    }
+    
+    public void setSpaceId(Long spaceId) {
+        this.spaceId = spaceId;
+    }
+    
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+    
+    public Direction getDirection() {
+        return direction;
+    }
+    
+    public void setDirection(Direction direction) {
+        this.direction = direction;
+    }
+}
\ No newline at end of file
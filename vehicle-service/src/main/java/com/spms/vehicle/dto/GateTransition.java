@@ -0,0 +1,5 @@
+package com.spms.vehicle.dto;
+
+import java.time.LocalDateTime;
+
+public record GateTransition(long vehicleId, Long parkingSpaceId, LocalDateTime time, GateEvent.Direction direction) {}
\ No newline at end of file
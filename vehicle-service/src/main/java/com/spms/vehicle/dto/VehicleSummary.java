@@ -0,0 +1,8 @@
+package com.spms.vehicle.dto;
+
+import com.spms.vehicle.entity.Vehicle;
+
+// The compact view of a vehicle, for mobile clients
+public record VehicleSummary(Long id, String licensePlate, String make, String model,
+                             Vehicle.VehicleType vehicleType, Long userId, Long currentParkingSpaceId) {
+}
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.spms.vehicle.entity;
+
+import jakarta.persistence.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "parking_sessions", indexes = {
+        @Index(name = "idx_parking_sessions_vehicle", columnList = "vehicle_id, id"),
+        @Index(name = "idx_parking_sessions_space", columnList = "parking_space_id, id"),
+        @Index(name = "idx_parking_sessions_entry_time", columnList = "entry_time, id")
+})
+public class ParkingSession {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "vehicle_id", nullable = false)
+    private Long vehicleId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "parking_space_id", nullable = false)
+    private Long parkingSpaceId;
+    
+    @Column(name = "entry_time", nullable = false)
+    private LocalDateTime entryTime;
+    
+    @Column(name = "exit_time", nullable = false)
+    private LocalDateTime exitTime;
+    
+    @Column(name = "duration_seconds", nullable = false)
+    private Long durationSeconds;
+    
+    // Constructors
+    public ParkingSession() {}
+    
+    public ParkingSession(Long vehicleId, Long userId, Long parkingSpaceId, LocalDateTime entryTime, LocalDateTime exitTime) {
+        this.vehicleId = vehicleId;
+        this.userId = userId;
+        this.parkingSpaceId = parkingSpaceId;
+        this.entryTime = entryTime;
+        this.exitTime = exitTime;
+        this.durationSeconds = Duration.between(entryTime, exitTime).getSeconds();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getVehicleId() {
+        return vehicleId;
+    }
+    
+    public void setVehicleId(Long vehicleId) {
+        this.vehicleId = vehicleId;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Long getParkingSpaceId() {
+        return parkingSpaceId;
+    }
+    
+    public void setParkingSpaceId(Long parkingSpaceId) {
+        this.parkingSpaceId = parkingSpaceId;
+    }
+    
+    public LocalDateTime getEntryTime() {
+        return entryTime;
+    }
+    
+    public void setEntryTime(LocalDateTime entryTime) {
+        this.entryTime = entryTime;
+    }
+    
+    public LocalDateTime getExitTime() {
+        return exitTime;
+    }
+    
+    public void setExitTime(LocalDateTime exitTime) {
+        this.exitTime = exitTime;
+    }
+    
+    public Long getDurationSeconds() {
+        return durationSeconds;
+    }
+    
+    public void setDurationSeconds(Long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+}
\ No newline at end of file
@@ -1,12 +1,21 @@
 package com.spms.vehicle.entity;
 
+import com.spms.vehicle.util.LicensePlates;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
+// Entry and exit update a vehicle while other requests read it, so cached copies are
+// soft-locked while a change is in flight
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+        @Index(name = "idx_vehicles_current_parking_space", columnList = "current_parking_space_id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Vehicle {
     
     @Id
@@ -17,6 +26,9 @@ public class Vehicle {
     @Column(name = "license_plate", unique = true, nullable = false)
     private String licensePlate;
     
+    @Column(name = "normalized_license_plate", unique = true)
+    private String normalizedLicensePlate;
+    
     @NotBlank(message = "Make is required")
     @Column(name = "make", nullable = false)
     private String make;
@@ -63,11 +75,17 @@ public class Vehicle {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        normalizedLicensePlate = LicensePlates.normalize(licensePlate);
     }
     
+    // A null normalized plate marks a legacy vehicle whose plate collides with another one
+    // after normalization. It is left alone, so the vehicle can still enter, exit and be saved.
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        if (normalizedLicensePlate != null) {
+            normalizedLicensePlate = LicensePlates.normalize(licensePlate);
+        }
     }
     
     // Constructors
@@ -100,6 +118,14 @@ public class Vehicle {
         this.licensePlate = licensePlate;
     }
     
+    public String getNormalizedLicensePlate() {
+        return normalizedLicensePlate;
+    }
+    
+    public void setNormalizedLicensePlate(String normalizedLicensePlate) {
+        this.normalizedLicensePlate = normalizedLicensePlate;
+    }
+    
     public String getMake() {
         return make;
     }
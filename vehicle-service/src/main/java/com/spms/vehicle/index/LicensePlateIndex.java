@@ -0,0 +1,220 @@
+package com.spms.vehicle.index;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+public class LicensePlateIndex {
+    
+    // Normalized plates of up to 12 characters are packed into a base-37 long, so the
+    // index is three parallel primitive arrays with linear probing: 24 bytes per slot,
+    // no String, Long or node objects per vehicle. Longer plates fall back to a map.
+    private static final int MAX_PACKED_LENGTH = 12;
+    private static final int INITIAL_CAPACITY = 1 << 16;
+    private static final double LOAD_FACTOR = 0.75;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Entry> unpackedPlates = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> ambiguousPlates = new ConcurrentHashMap<>();
+    
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private long[] vehicleIds = new long[INITIAL_CAPACITY];
+    private long[] userIds = new long[INITIAL_CAPACITY];
+    private int mask = INITIAL_CAPACITY - 1;
+    private int size;
+    
+    public record Entry(long vehicleId, long userId) {}
+    
+    // An ambiguous plate resolves to nothing, so a read of it never moves the vehicle that
+    // happens to hold the normalized value
+    public Optional<Entry> get(String normalizedPlate) {
+        if (isAmbiguous(normalizedPlate)) {
+            return Optional.empty();
+        }
+        long key = pack(normalizedPlate);
+        if (key == 0) {
+            return Optional.ofNullable(unpackedPlates.get(normalizedPlate));
+        }
+        
+        lock.readLock().lock();
+        try {
+            int slot = find(key);
+            return slot < 0 ? Optional.empty() : Optional.of(new Entry(vehicleIds[slot], userIds[slot]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public void put(String normalizedPlate, long vehicleId, long userId) {
+        long key = pack(normalizedPlate);
+        if (key == 0) {
+            unpackedPlates.put(normalizedPlate, new Entry(vehicleId, userId));
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (size + 1 > keys.length * LOAD_FACTOR) {
+                resize(keys.length << 1);
+            }
+            int slot = home(key);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                size++;
+            }
+            vehicleIds[slot] = vehicleId;
+            userIds[slot] = userId;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public void remove(String normalizedPlate) {
+        long key = pack(normalizedPlate);
+        if (key == 0) {
+            unpackedPlates.remove(normalizedPlate);
+            return;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            int gap = find(key);
+            if (gap < 0) {
+                return;
+            }
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int slot = gap;
+            while (true) {
+                slot = (slot + 1) & mask;
+                if (keys[slot] == 0) {
+                    break;
+                }
+                int home = home(keys[slot]);
+                boolean movable = slot > gap ? (home <= gap || home > slot) : (home <= gap && home > slot);
+                if (movable) {
+                    keys[gap] = keys[slot];
+                    vehicleIds[gap] = vehicleIds[slot];
+                    userIds[gap] = userIds[slot];
+                    gap = slot;
+                }
+            }
+            keys[gap] = 0;
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Marks a plate that the given vehicle shares with another one after normalization
+    public void markAmbiguous(String normalizedPlate, long vehicleId) {
+        ambiguousPlates.computeIfAbsent(normalizedPlate, plate -> ConcurrentHashMap.newKeySet()).add(vehicleId);
+    }
+    
+    // The plate resolves again once none of the vehicles sharing it is left
+    public void clearAmbiguous(String normalizedPlate, long vehicleId) {
+        ambiguousPlates.computeIfPresent(normalizedPlate, (plate, vehicleIds) -> {
+            vehicleIds.remove(vehicleId);
+            return vehicleIds.isEmpty() ? null : vehicleIds;
+        });
+    }
+    
+    public boolean isAmbiguous(String normalizedPlate) {
+        return !ambiguousPlates.isEmpty() && ambiguousPlates.containsKey(normalizedPlate);
+    }
+    
+    public int ambiguousCount() {
+        return ambiguousPlates.size();
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size + unpackedPlates.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public long primitiveTableBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) keys.length * Long.BYTES * 3;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private int find(long key) {
+        int slot = home(key);
+        while (keys[slot] != 0) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+    
+    private int home(long key) {
+        // MurmurHash3 finalizer; packed plates share long prefixes, so spread the bits first
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+    
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldVehicleIds = vehicleIds;
+        long[] oldUserIds = userIds;
+        
+        keys = new long[capacity];
+        vehicleIds = new long[capacity];
+        userIds = new long[capacity];
+        mask = capacity - 1;
+        
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = home(oldKeys[i]);
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                vehicleIds[slot] = oldVehicleIds[i];
+                userIds[slot] = oldUserIds[i];
+            }
+        }
+    }
+    
+    // Returns 0 when the plate cannot be packed; 0 is also the empty-slot marker
+    static long pack(String normalizedPlate) {
+        if (normalizedPlate == null || normalizedPlate.isEmpty() || normalizedPlate.length() > MAX_PACKED_LENGTH) {
+            return 0;
+        }
+        
+        long packed = 0;
+        for (int i = 0; i < normalizedPlate.length(); i++) {
+            char c = normalizedPlate.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0' + 1;
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 11;
+            } else {
+                return 0;
+            }
+            packed = packed * 37 + digit;
+        }
+        return packed;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package com.spms.vehicle.index;
+
+import com.spms.vehicle.entity.Vehicle;
+import com.spms.vehicle.repository.VehicleRepository;
+import com.spms.vehicle.util.LicensePlates;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class LicensePlateIndexLoader {
+    
+    private static final Logger log = LoggerFactory.getLogger(LicensePlateIndexLoader.class);
+    private static final int BATCH_SIZE = 10000;
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    @Autowired
+    private LicensePlateIndex licensePlateIndex;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        backfillNormalizedPlates();
+        
+        long lastId = 0;
+        List<Object[]> batch;
+        do {
+            batch = vehicleRepository.findPlateIndexEntries(lastId, PageRequest.of(0, BATCH_SIZE));
+            for (Object[] row : batch) {
+                long vehicleId = (Long) row[0];
+                licensePlateIndex.put((String) row[2], vehicleId, (Long) row[1]);
+                lastId = vehicleId;
+            }
+        } while (batch.size() == BATCH_SIZE);
+        
+        Gauge.builder("vehicles.plate.index.size", licensePlateIndex, LicensePlateIndex::size)
+                .register(meterRegistry);
+        Gauge.builder("vehicles.plate.index.table.bytes", licensePlateIndex, LicensePlateIndex::primitiveTableBytes)
+                .register(meterRegistry);
+        Gauge.builder("vehicles.plate.index.ambiguous", licensePlateIndex, LicensePlateIndex::ambiguousCount)
+                .register(meterRegistry);
+        
+        log.info("License plate index loaded with {} vehicles", licensePlateIndex.size());
+    }
+    
+    // Rows created before the normalized column existed are filled in once at startup. When two
+    // plates normalize to the same value, the vehicle that already holds it, or else the oldest
+    // one, keeps it in the column. The others keep a null normalized plate and the plate is
+    // marked ambiguous, so neither vehicle can be found by it until the plates are corrected;
+    // they stay reachable by id and are retried on every start.
+    private void backfillNormalizedPlates() {
+        int collisions = 0;
+        for (Vehicle vehicle : vehicleRepository.findByNormalizedLicensePlateIsNullOrderByIdAsc()) {
+            String normalizedPlate = LicensePlates.normalize(vehicle.getLicensePlate());
+            vehicle.setNormalizedLicensePlate(normalizedPlate);
+            try {
+                vehicleRepository.save(vehicle);
+            } catch (DataIntegrityViolationException e) {
+                collisions++;
+                licensePlateIndex.markAmbiguous(normalizedPlate, vehicle.getId());
+                log.warn("License plate {} of vehicle {} collides with another vehicle after normalization; "
+                        + "the plate is rejected until one of them is corrected", vehicle.getLicensePlate(), vehicle.getId());
+            }
+        }
+        if (collisions > 0) {
+            log.warn("{} vehicles share a normalized license plate with another vehicle; plate lookups and gate "
+                    + "reads for those plates are rejected until they are corrected", collisions);
+        }
+    }
+}
\ No newline at end of file
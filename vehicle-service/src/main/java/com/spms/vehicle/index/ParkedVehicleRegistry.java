@@ -0,0 +1,187 @@
+package com.spms.vehicle.index;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.common.event.DomainEvent;
+import com.spms.common.event.DomainEventListener;
+import com.spms.common.event.OutboxEventRepository;
+import com.spms.vehicle.entity.Vehicle;
+import com.spms.vehicle.repository.VehicleRepository;
+import com.spms.vehicle.service.VehicleService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Every instance keeps its own registry. Entries and exits reach it as VehicleEntered and
+// VehicleExited events, from this instance's relay and through /api/events from the others,
+// so it follows writes made anywhere.
+@Component
+public class ParkedVehicleRegistry implements DomainEventListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(ParkedVehicleRegistry.class);
+    
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Reads go straight to the concurrent maps; writes are serialized so the three
+    // views never disagree about a vehicle for longer than a single update.
+    private final Map<Long, Vehicle> vehiclesById = new ConcurrentHashMap<>();
+    private final Map<Long, Long> vehicleIdsBySpace = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> vehicleIdsByUser = new ConcurrentHashMap<>();
+    
+    // The outbox id of the last event applied per vehicle, so redelivered and late events
+    // never take a vehicle back to an older state
+    private final Map<Long, Long> lastEventIds = new HashMap<>();
+    
+    // Events relayed while this runs are applied as they arrive; the last event id per
+    // vehicle, read before the rows, tells which of the two is newer.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Long, Long> loadedEventIds = new HashMap<>();
+        for (Object[] row : outboxEventRepository.findLastEventIds(VehicleService.AGGREGATE_TYPE)) {
+            loadedEventIds.put(Long.valueOf((String) row[0]), (Long) row[1]);
+        }
+        List<Vehicle> parked = vehicleRepository.findByCurrentParkingSpaceIdIsNotNull();
+        load(parked, loadedEventIds);
+        log.info("Parked vehicle registry loaded with {} vehicles", parked.size());
+    }
+    
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (!VehicleService.AGGREGATE_TYPE.equals(event.aggregateType())
+                || !("VehicleEntered".equals(event.type()) || "VehicleExited".equals(event.type()))) {
+            return;
+        }
+        try {
+            apply(event.id(), objectMapper.treeToValue(event.payload().get("vehicle"), Vehicle.class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read the vehicle of event " + event.id(), e);
+        }
+    }
+    
+    // Applies the state a committed entry or exit left the vehicle in, unless an event at
+    // least as new has been applied already
+    public synchronized void apply(long eventId, Vehicle vehicle) {
+        if (lastEventIds.getOrDefault(vehicle.getId(), 0L) >= eventId) {
+            return;
+        }
+        lastEventIds.put(vehicle.getId(), eventId);
+        refresh(vehicle);
+    }
+    
+    private synchronized void load(List<Vehicle> parked, Map<Long, Long> loadedEventIds) {
+        Map<Long, Vehicle> parkedById = new HashMap<>();
+        for (Vehicle vehicle : parked) {
+            parkedById.put(vehicle.getId(), vehicle);
+        }
+        Set<Long> vehicleIds = new HashSet<>(parkedById.keySet());
+        vehicleIds.addAll(vehiclesById.keySet());
+        
+        for (Long vehicleId : vehicleIds) {
+            long loadedEventId = loadedEventIds.getOrDefault(vehicleId, 0L);
+            if (lastEventIds.getOrDefault(vehicleId, 0L) > loadedEventId) {
+                continue;
+            }
+            if (loadedEventId > 0) {
+                lastEventIds.put(vehicleId, loadedEventId);
+            }
+            Vehicle vehicle = parkedById.get(vehicleId);
+            if (vehicle != null) {
+                refresh(vehicle);
+            } else {
+                remove(vehicleId);
+            }
+        }
+    }
+    
+    // Registers the vehicle if it is parked and removes it otherwise, so callers can
+    // hand over the committed state without caring which transition happened.
+    public synchronized void refresh(Vehicle vehicle) {
+        remove(vehicle.getId());
+        if (vehicle.getCurrentParkingSpaceId() == null) {
+            return;
+        }
+        
+        Vehicle snapshot = snapshotOf(vehicle);
+        vehiclesById.put(snapshot.getId(), snapshot);
+        vehicleIdsBySpace.put(snapshot.getCurrentParkingSpaceId(), snapshot.getId());
+        vehicleIdsByUser.computeIfAbsent(snapshot.getUserId(), userId -> ConcurrentHashMap.newKeySet())
+                .add(snapshot.getId());
+    }
+    
+    public synchronized void remove(Long vehicleId) {
+        Vehicle previous = vehiclesById.remove(vehicleId);
+        if (previous == null) {
+            return;
+        }
+        
+        vehicleIdsBySpace.remove(previous.getCurrentParkingSpaceId(), vehicleId);
+        Set<Long> userVehicles = vehicleIdsByUser.get(previous.getUserId());
+        if (userVehicles != null) {
+            userVehicles.remove(vehicleId);
+            if (userVehicles.isEmpty()) {
+                vehicleIdsByUser.remove(previous.getUserId());
+            }
+        }
+    }
+    
+    public List<Vehicle> getAll() {
+        return new ArrayList<>(vehiclesById.values());
+    }
+    
+    public List<Vehicle> getByUserId(Long userId) {
+        Set<Long> vehicleIds = vehicleIdsByUser.get(userId);
+        if (vehicleIds == null) {
+            return List.of();
+        }
+        
+        List<Vehicle> vehicles = new ArrayList<>(vehicleIds.size());
+        for (Long vehicleId : vehicleIds) {
+            Vehicle vehicle = vehiclesById.get(vehicleId);
+            if (vehicle != null) {
+                vehicles.add(vehicle);
+            }
+        }
+        return vehicles;
+    }
+    
+    public Optional<Vehicle> getByParkingSpaceId(Long parkingSpaceId) {
+        Long vehicleId = vehicleIdsBySpace.get(parkingSpaceId);
+        return vehicleId == null ? Optional.empty() : Optional.ofNullable(vehiclesById.get(vehicleId));
+    }
+    
+    public long count() {
+        return vehiclesById.size();
+    }
+    
+    private Vehicle snapshotOf(Vehicle vehicle) {
+        Vehicle snapshot = new Vehicle(vehicle.getLicensePlate(), vehicle.getMake(), vehicle.getModel(),
+                vehicle.getYear(), vehicle.getColor(), vehicle.getVehicleType(), vehicle.getUserId());
+        snapshot.setId(vehicle.getId());
+        snapshot.setNormalizedLicensePlate(vehicle.getNormalizedLicensePlate());
+        snapshot.setCurrentParkingSpaceId(vehicle.getCurrentParkingSpaceId());
+        snapshot.setEntryTime(vehicle.getEntryTime());
+        snapshot.setExitTime(vehicle.getExitTime());
+        snapshot.setCreatedAt(vehicle.getCreatedAt());
+        snapshot.setUpdatedAt(vehicle.getUpdatedAt());
+        return snapshot;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.spms.vehicle.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Sends calls for one parking space to the instances of the shard in the top bits of its
+// id (see parking-space-service's ShardIds). Other calls may go to any instance.
+public class ParkingShardServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+    
+    private static final int SHARD_SHIFT = 40;
+    private static final Pattern SPACE_PATH = Pattern.compile("^/api/parking-spaces/(\\d+)(?:/.*)?$");
+    
+    public ParkingShardServiceInstanceListSupplier(ServiceInstanceListSupplier delegate) {
+        super(delegate);
+    }
+    
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return delegate.get();
+    }
+    
+    @Override
+    public Flux<List<ServiceInstance>> get(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext context) || context.getClientRequest() == null) {
+            return delegate.get(request);
+        }
+        Matcher space = SPACE_PATH.matcher(context.getClientRequest().getUrl().getPath());
+        if (!space.matches()) {
+            return delegate.get(request);
+        }
+        String shard = String.valueOf(Long.parseLong(space.group(1)) >>> SHARD_SHIFT);
+        return delegate.get(request).map(instances -> instances.stream()
+                .filter(instance -> shard.equals(instance.getMetadata().getOrDefault("shard", "0")))
+                .toList());
+    }
+}
\ No newline at end of file
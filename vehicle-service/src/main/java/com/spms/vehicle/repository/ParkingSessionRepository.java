@@ -0,0 +1,34 @@
+package com.spms.vehicle.repository;
+
+import com.spms.vehicle.entity.ParkingSession;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ParkingSessionRepository extends JpaRepository<ParkingSession, Long> {
+    
+    @Query("SELECT s FROM ParkingSession s WHERE s.vehicleId = :vehicleId AND s.id < :beforeId ORDER BY s.id DESC")
+    List<ParkingSession> findByVehicleIdBefore(@Param("vehicleId") Long vehicleId, 
+                                               @Param("beforeId") Long beforeId, 
+                                               Pageable pageable);
+    
+    @Query("SELECT s FROM ParkingSession s WHERE s.parkingSpaceId = :parkingSpaceId AND s.id < :beforeId ORDER BY s.id DESC")
+    List<ParkingSession> findByParkingSpaceIdBefore(@Param("parkingSpaceId") Long parkingSpaceId, 
+                                                    @Param("beforeId") Long beforeId, 
+                                                    Pageable pageable);
+    
+    @Query("SELECT s FROM ParkingSession s WHERE s.entryTime >= :startTime AND s.entryTime < :endTime " +
+           "AND (s.entryTime > :afterEntryTime OR (s.entryTime = :afterEntryTime AND s.id > :afterId)) " +
+           "ORDER BY s.entryTime, s.id")
+    List<ParkingSession> findByEntryTimeBetweenAfter(@Param("startTime") LocalDateTime startTime, 
+                                                     @Param("endTime") LocalDateTime endTime, 
+                                                     @Param("afterEntryTime") LocalDateTime afterEntryTime, 
+                                                     @Param("afterId") Long afterId, 
+                                                     Pageable pageable);
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.spms.vehicle.repository;
+
+import com.spms.common.projection.ProjectionRepository;
+import com.spms.vehicle.dto.VehicleSummary;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public class VehicleProjectionRepository extends ProjectionRepository<VehicleSummary> {
+    
+    public VehicleProjectionRepository() {
+        super("Vehicle", "v",
+                List.of("id", "licensePlate", "normalizedLicensePlate", "make", "model", "year", "color",
+                        "vehicleType", "userId", "currentParkingSpaceId", "entryTime", "exitTime", "createdAt",
+                        "updatedAt"),
+                VehicleSummary.class,
+                "v.id, v.licensePlate, v.make, v.model, v.vehicleType, v.userId, v.currentParkingSpaceId");
+    }
+}
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.spms.vehicle.repository;
 
 import com.spms.vehicle.entity.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +18,17 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     
     Optional<Vehicle> findByLicensePlate(String licensePlate);
     
+    boolean existsByNormalizedLicensePlate(String normalizedLicensePlate);
+    
+    List<Vehicle> findByNormalizedLicensePlateIsNullOrderByIdAsc();
+    
+    // Vehicles whose plate collided with another vehicle's after normalization have none and stay out of the index
+    @Query("SELECT v.id, v.userId, v.normalizedLicensePlate FROM Vehicle v "
+            + "WHERE v.id > :afterId AND v.normalizedLicensePlate IS NOT NULL ORDER BY v.id")
+    List<Object[]> findPlateIndexEntries(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Behind the dashboard's vehicle list; plate lookups go through the in-memory plate index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Vehicle> findByUserId(Long userId);
     
     List<Vehicle> findByVehicleType(Vehicle.VehicleType vehicleType);
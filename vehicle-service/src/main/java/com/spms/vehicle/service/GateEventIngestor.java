@@ -0,0 +1,292 @@
+package com.spms.vehicle.service;
+
+import com.spms.vehicle.dto.GateEvent;
+import com.spms.vehicle.dto.GateTransition;
+import com.spms.vehicle.index.LicensePlateIndex;
+import com.spms.vehicle.util.LicensePlates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class GateEventIngestor {
+    
+    private static final Logger log = LoggerFactory.getLogger(GateEventIngestor.class);
+    
+    @Autowired
+    private VehicleService vehicleService;
+    
+    @Autowired
+    private LicensePlateIndex licensePlateIndex;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${spms.gate.workers:4}")
+    private int workerCount;
+    
+    @Value("${spms.gate.queue-capacity:10000}")
+    private int queueCapacity;
+    
+    @Value("${spms.gate.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${spms.gate.dedupe-window:30s}")
+    private Duration dedupeWindow;
+    
+    @Value("${spms.gate.max-attempts:3}")
+    private int maxAttempts;
+    
+    @Value("${spms.gate.retry-backoff:200ms}")
+    private Duration retryBackoff;
+    
+    // Events are partitioned by normalized plate, so every read of one vehicle lands on
+    // the same worker: transitions stay in order and de-duplication needs no locking.
+    private List<BlockingQueue<QueuedEvent>> partitions;
+    private ExecutorService workers;
+    private volatile boolean running;
+    
+    private Counter acceptedCounter;
+    private Counter rejectedCounter;
+    private Counter duplicateCounter;
+    private Counter unknownPlateCounter;
+    private Counter ambiguousPlateCounter;
+    private Counter appliedCounter;
+    private Counter ignoredCounter;
+    private Counter failedCounter;
+    private Timer lagTimer;
+    
+    private record QueuedEvent(String normalizedPlate, GateEvent event, long receivedAtNanos) {}
+    
+    private record Read(String dedupeKey, GateTransition transition) {}
+    
+    @PostConstruct
+    public void start() {
+        partitions = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            partitions.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        
+        acceptedCounter = Counter.builder("gate.events").tag("outcome", "accepted").register(meterRegistry);
+        rejectedCounter = Counter.builder("gate.events").tag("outcome", "rejected").register(meterRegistry);
+        duplicateCounter = Counter.builder("gate.events").tag("outcome", "duplicate").register(meterRegistry);
+        unknownPlateCounter = Counter.builder("gate.events").tag("outcome", "unknown_plate").register(meterRegistry);
+        ambiguousPlateCounter = Counter.builder("gate.events").tag("outcome", "ambiguous_plate").register(meterRegistry);
+        appliedCounter = Counter.builder("gate.events").tag("outcome", "applied").register(meterRegistry);
+        ignoredCounter = Counter.builder("gate.events").tag("outcome", "ignored").register(meterRegistry);
+        failedCounter = Counter.builder("gate.events").tag("outcome", "failed").register(meterRegistry);
+        lagTimer = Timer.builder("gate.events.lag")
+                .description("Time from ingest to the batch containing the event being committed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("gate.events.queue.depth", this, GateEventIngestor::getQueueDepth).register(meterRegistry);
+        
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "gate-event-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (BlockingQueue<QueuedEvent> partition : partitions) {
+            workers.submit(() -> drain(partition));
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+    
+    // All-or-nothing: either every event of the request is queued or none is, so a
+    // client receiving 429 can simply retry the same payload.
+    public synchronized boolean submit(List<GateEvent> events) {
+        int[] needed = new int[partitions.size()];
+        List<QueuedEvent> queued = new ArrayList<>(events.size());
+        long now = System.nanoTime();
+        for (GateEvent event : events) {
+            if (event.getPlate() == null || event.getDirection() == null) {
+                throw new RuntimeException("Gate events require a plate and a direction");
+            }
+            if (event.getTimestamp() == null) {
+                event.setTimestamp(LocalDateTime.now());
+            }
+            String normalizedPlate = LicensePlates.normalize(event.getPlate());
+            queued.add(new QueuedEvent(normalizedPlate, event, now));
+            needed[partitionOf(normalizedPlate)]++;
+        }
+        
+        for (int i = 0; i < needed.length; i++) {
+            if (partitions.get(i).remainingCapacity() < needed[i]) {
+                rejectedCounter.increment(events.size());
+                return false;
+            }
+        }
+        
+        // Only this method adds to the queues, so the capacity checked above is still there
+        for (QueuedEvent event : queued) {
+            partitions.get(partitionOf(event.normalizedPlate())).offer(event);
+        }
+        acceptedCounter.increment(events.size());
+        return true;
+    }
+    
+    // A request larger than one partition's queue might never fit, however long the client waits
+    public int getMaxBatchSize() {
+        return queueCapacity;
+    }
+    
+    public int getQueueDepth() {
+        int depth = 0;
+        for (BlockingQueue<QueuedEvent> partition : partitions) {
+            depth += partition.size();
+        }
+        return depth;
+    }
+    
+    private int partitionOf(String normalizedPlate) {
+        return Math.floorMod(normalizedPlate.hashCode(), partitions.size());
+    }
+    
+    private void drain(BlockingQueue<QueuedEvent> partition) {
+        Map<String, LocalDateTime> lastSeen = new HashMap<>();
+        List<QueuedEvent> batch = new ArrayList<>(batchSize);
+        
+        while (running || !partition.isEmpty()) {
+            try {
+                QueuedEvent first = partition.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.drainTo(batch, batchSize - 1);
+                process(batch, lastSeen);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to apply a batch of {} gate events", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    // A read is only remembered for de-duplication once it is committed, so the reads of a
+    // batch that fails are not dropped as duplicates of themselves when they are applied again
+    private void process(List<QueuedEvent> batch, Map<String, LocalDateTime> lastSeen) throws InterruptedException {
+        Map<String, LocalDateTime> seenInBatch = new HashMap<>();
+        List<Read> reads = new ArrayList<>(batch.size());
+        for (QueuedEvent queued : batch) {
+            GateEvent event = queued.event();
+            
+            // Cameras re-read the same plate several times while a vehicle sits at the barrier
+            String dedupeKey = queued.normalizedPlate() + '|' + event.getDirection();
+            LocalDateTime previous = seenInBatch.getOrDefault(dedupeKey, lastSeen.get(dedupeKey));
+            if (previous != null && Duration.between(previous, event.getTimestamp()).abs().compareTo(dedupeWindow) <= 0) {
+                duplicateCounter.increment();
+                continue;
+            }
+            seenInBatch.put(dedupeKey, event.getTimestamp());
+            
+            // Several vehicles share this plate after normalization; the read cannot tell which
+            if (licensePlateIndex.isAmbiguous(queued.normalizedPlate())) {
+                lastSeen.put(dedupeKey, event.getTimestamp());
+                ambiguousPlateCounter.increment();
+                log.warn("Rejected a gate read of license plate {} shared by several vehicles", event.getPlate());
+                continue;
+            }
+            
+            Optional<LicensePlateIndex.Entry> entry = licensePlateIndex.get(queued.normalizedPlate());
+            if (entry.isEmpty()) {
+                // Nothing to commit
+                lastSeen.put(dedupeKey, event.getTimestamp());
+                unknownPlateCounter.increment();
+                continue;
+            }
+            reads.add(new Read(dedupeKey, new GateTransition(entry.get().vehicleId(), event.getSpaceId(),
+                    event.getTimestamp(), event.getDirection())));
+        }
+        
+        if (!reads.isEmpty()) {
+            apply(reads, lastSeen);
+        }
+        
+        long now = System.nanoTime();
+        for (QueuedEvent queued : batch) {
+            lagTimer.record(now - queued.receivedAtNanos(), TimeUnit.NANOSECONDS);
+        }
+        
+        if (lastSeen.size() > queueCapacity) {
+            LocalDateTime cutoff = LocalDateTime.now().minus(dedupeWindow);
+            lastSeen.values().removeIf(seen -> seen.isBefore(cutoff));
+        }
+    }
+    
+    // The events were acknowledged with 202, so a failed batch is not given up on: it is retried
+    // for transient failures such as a lost connection, and then applied one read at a time so
+    // that a read that cannot be applied only costs itself
+    private void apply(List<Read> reads, Map<String, LocalDateTime> lastSeen) throws InterruptedException {
+        List<GateTransition> transitions = reads.stream().map(Read::transition).toList();
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                applied(reads, vehicleService.applyGateTransitions(transitions), lastSeen);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Applying a batch of {} gate transitions failed (attempt {} of {})",
+                        transitions.size(), attempt, maxAttempts, e);
+            }
+            if (attempt < maxAttempts) {
+                Thread.sleep(retryBackoff.toMillis() * attempt);
+            }
+        }
+        
+        int failed = 0;
+        RuntimeException firstFailure = null;
+        for (Read read : reads) {
+            try {
+                applied(List.of(read), vehicleService.applyGateTransitions(List.of(read.transition())), lastSeen);
+            } catch (RuntimeException e) {
+                failed++;
+                firstFailure = firstFailure != null ? firstFailure : e;
+            }
+        }
+        if (failed > 0) {
+            failedCounter.increment(failed);
+            log.error("Dropped {} of {} gate transitions that could not be applied one by one either",
+                    failed, reads.size(), firstFailure);
+        }
+    }
+    
+    private void applied(List<Read> reads, int applied, Map<String, LocalDateTime> lastSeen) {
+        appliedCounter.increment(applied);
+        ignoredCounter.increment(reads.size() - applied);
+        for (Read read : reads) {
+            lastSeen.put(read.dedupeKey(), read.transition().time());
+        }
+    }
+}
\ No newline at end of file
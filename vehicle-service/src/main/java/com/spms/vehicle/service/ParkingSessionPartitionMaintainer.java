@@ -0,0 +1,62 @@
+package com.spms.vehicle.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@Component
+public class ParkingSessionPartitionMaintainer {
+    
+    private static final Logger log = LoggerFactory.getLogger(ParkingSessionPartitionMaintainer.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${spms.sessions.partitions-ahead:2}")
+    private int partitionsAhead;
+    
+    // Keeps one partition per month from the current month up to partitionsAhead months out.
+    // Only applies when parking_sessions was created from db/parking_sessions.sql.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${spms.sessions.partition-cron:0 0 3 * * *}")
+    public void ensureMonthlyPartitions() {
+        List<String> partitions;
+        try {
+            partitions = jdbcTemplate.queryForList(
+                    "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'parking_sessions' AND PARTITION_NAME IS NOT NULL",
+                    String.class);
+        } catch (DataAccessException e) {
+            log.debug("Partition metadata is not available, skipping parking session partition maintenance", e);
+            return;
+        }
+        
+        if (!partitions.contains("p_future")) {
+            return;
+        }
+        
+        YearMonth month = YearMonth.now();
+        for (int i = 0; i <= partitionsAhead; i++, month = month.plusMonths(1)) {
+            String name = "p" + month.format(PARTITION_SUFFIX);
+            if (partitions.contains(name)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE parking_sessions REORGANIZE PARTITION p_future INTO (" +
+                    "PARTITION " + name + " VALUES LESS THAN (TO_DAYS('" + month.plusMonths(1).atDay(1) + "')), " +
+                    "PARTITION p_future VALUES LESS THAN MAXVALUE)");
+            log.info("Added parking session partition {}", name);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.spms.vehicle.service;
+
+import com.spms.vehicle.entity.ParkingSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class ParkingSessionRecorder {
+    
+    private static final String INSERT_SQL = "INSERT INTO parking_sessions " +
+            "(vehicle_id, user_id, parking_space_id, entry_time, exit_time, duration_seconds) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${spms.sessions.batch-size:500}")
+    private int batchSize;
+    
+    // Sessions are written in the exit's own transaction, so a session exists exactly when the
+    // exit was committed. They are inserted together just before commit, which keeps the exits
+    // of a gate event batch to one JDBC batch instead of a single-row insert each.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ParkingSession session) {
+        pendingSessions().add(session);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<ParkingSession> pendingSessions() {
+        List<ParkingSession> pending = (List<ParkingSession>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        
+        List<ParkingSession> sessions = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, sessions);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                insert(sessions);
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ParkingSessionRecorder.this);
+            }
+        });
+        return sessions;
+    }
+    
+    private void insert(List<ParkingSession> sessions) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, sessions, batchSize, (ps, session) -> {
+            ps.setLong(1, session.getVehicleId());
+            ps.setLong(2, session.getUserId());
+            ps.setLong(3, session.getParkingSpaceId());
+            ps.setTimestamp(4, Timestamp.valueOf(session.getEntryTime()));
+            ps.setTimestamp(5, Timestamp.valueOf(session.getExitTime()));
+            ps.setLong(6, session.getDurationSeconds());
+        });
+    }
+}
\ No newline at end of file
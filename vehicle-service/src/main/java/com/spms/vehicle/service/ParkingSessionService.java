@@ -0,0 +1,77 @@
+package com.spms.vehicle.service;
+
+import com.spms.vehicle.dto.CursorPage;
+import com.spms.vehicle.entity.ParkingSession;
+import com.spms.vehicle.repository.ParkingSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Transactional(readOnly = true)
+public class ParkingSessionService {
+    
+    private static final int MAX_PAGE_SIZE = 500;
+    
+    @Autowired
+    private ParkingSessionRepository parkingSessionRepository;
+    
+    public CursorPage<ParkingSession> getSessionsByVehicleId(Long vehicleId, String cursor, int limit) {
+        List<ParkingSession> sessions = parkingSessionRepository.findByVehicleIdBefore(
+                vehicleId, parseIdCursor(cursor), PageRequest.of(0, pageSize(limit)));
+        return new CursorPage<>(sessions, nextIdCursor(sessions, limit));
+    }
+    
+    public CursorPage<ParkingSession> getSessionsByParkingSpaceId(Long parkingSpaceId, String cursor, int limit) {
+        List<ParkingSession> sessions = parkingSessionRepository.findByParkingSpaceIdBefore(
+                parkingSpaceId, parseIdCursor(cursor), PageRequest.of(0, pageSize(limit)));
+        return new CursorPage<>(sessions, nextIdCursor(sessions, limit));
+    }
+    
+    // The time-window cursor is "<entryTime>_<id>" so pages stay stable when several
+    // sessions share an entry time, and each page is a range scan on (entry_time, id).
+    public CursorPage<ParkingSession> getSessionsBetween(LocalDateTime startTime, LocalDateTime endTime, String cursor, int limit) {
+        LocalDateTime afterEntryTime = startTime;
+        long afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            int separator = cursor.lastIndexOf('_');
+            if (separator < 0) {
+                throw new RuntimeException("Invalid cursor: " + cursor);
+            }
+            afterEntryTime = LocalDateTime.parse(cursor.substring(0, separator));
+            afterId = Long.parseLong(cursor.substring(separator + 1));
+        }
+        
+        List<ParkingSession> sessions = parkingSessionRepository.findByEntryTimeBetweenAfter(
+                startTime, endTime, afterEntryTime, afterId, PageRequest.of(0, pageSize(limit)));
+        
+        String nextCursor = null;
+        if (sessions.size() == pageSize(limit)) {
+            ParkingSession last = sessions.get(sessions.size() - 1);
+            nextCursor = last.getEntryTime() + "_" + last.getId();
+        }
+        return new CursorPage<>(sessions, nextCursor);
+    }
+    
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    private long parseIdCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        return Long.parseLong(cursor);
+    }
+    
+    private String nextIdCursor(List<ParkingSession> sessions, int limit) {
+        if (sessions.size() < pageSize(limit)) {
+            return null;
+        }
+        return String.valueOf(sessions.get(sessions.size() - 1).getId());
+    }
+}
\ No newline at end of file
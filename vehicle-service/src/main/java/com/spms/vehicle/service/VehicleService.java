@@ -1,64 +1,156 @@
 package com.spms.vehicle.service;
 
+import com.spms.common.event.DomainEventPublisher;
+import com.spms.common.event.OutboxEvent;
+import com.spms.common.projection.Fieldset;
+import com.spms.vehicle.analytics.DwellTimeAnalytics;
+import com.spms.vehicle.dto.GateEvent;
+import com.spms.vehicle.dto.GateTransition;
+import com.spms.vehicle.entity.ParkingSession;
 import com.spms.vehicle.entity.Vehicle;
+import com.spms.vehicle.index.LicensePlateIndex;
+import com.spms.vehicle.index.ParkedVehicleRegistry;
+import com.spms.vehicle.repository.VehicleProjectionRepository;
 import com.spms.vehicle.repository.VehicleRepository;
+import com.spms.vehicle.util.LicensePlates;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional
 public class VehicleService {
     
+    public static final String AGGREGATE_TYPE = "Vehicle";
+    
     @Autowired
     private VehicleRepository vehicleRepository;
     
+    @Autowired
+    private VehicleProjectionRepository vehicleProjectionRepository;
+    
+    @Autowired
+    private LicensePlateIndex licensePlateIndex;
+    
+    @Autowired
+    private ParkingSessionRecorder parkingSessionRecorder;
+    
+    @Autowired
+    private ParkedVehicleRegistry parkedVehicleRegistry;
+    
+    @Autowired
+    private DwellTimeAnalytics dwellTimeAnalytics;
+    
+    @Autowired
+    private DomainEventPublisher domainEventPublisher;
+    
+    @Transactional(readOnly = true)
     public List<Vehicle> getAllVehicles() {
         return vehicleRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getAllVehicles(Fieldset fieldset) {
+        return vehicleProjectionRepository.find(fieldset, "");
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Vehicle> getVehicleById(Long id) {
         return vehicleRepository.findById(id);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Vehicle> getVehicleByLicensePlate(String licensePlate) {
-        return vehicleRepository.findByLicensePlate(licensePlate);
+        return licensePlateIndex.get(LicensePlates.normalize(licensePlate))
+                .flatMap(entry -> vehicleRepository.findById(entry.vehicleId()));
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<LicensePlateIndex.Entry> resolveLicensePlate(String licensePlate) {
+        return licensePlateIndex.get(LicensePlates.normalize(licensePlate));
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean isLicensePlateAmbiguous(String licensePlate) {
+        return licensePlateIndex.isAmbiguous(LicensePlates.normalize(licensePlate));
+    }
+    
+    @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByUserId(Long userId) {
         return vehicleRepository.findByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getVehiclesByUserId(Long userId, Fieldset fieldset) {
+        return vehicleProjectionRepository.find(fieldset, "v.userId = ?1", userId);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByType(Vehicle.VehicleType vehicleType) {
         return vehicleRepository.findByVehicleType(vehicleType);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getVehiclesByType(Vehicle.VehicleType vehicleType, Fieldset fieldset) {
+        return vehicleProjectionRepository.find(fieldset, "v.vehicleType = ?1", vehicleType);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByMake(String make) {
         return vehicleRepository.findByMake(make);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getVehiclesByMake(String make, Fieldset fieldset) {
+        return vehicleProjectionRepository.find(fieldset, "v.make = ?1", make);
+    }
+    
+    @Transactional(readOnly = true)
     public List<Vehicle> getVehiclesByMakeAndModel(String make, String model) {
         return vehicleRepository.findByMakeAndModel(make, model);
     }
     
+    @Transactional(readOnly = true)
+    public List<?> getVehiclesByMakeAndModel(String make, String model, Fieldset fieldset) {
+        return vehicleProjectionRepository.find(fieldset, "v.make = ?1 AND v.model = ?2", make, model);
+    }
+    
+    // The parked vehicle reads are answered from memory, so they open no transaction and
+    // never pick a data source
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Vehicle> getParkedVehicles() {
-        return vehicleRepository.findByCurrentParkingSpaceIdIsNotNull();
+        return parkedVehicleRegistry.getAll();
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<Vehicle> getParkedVehiclesByUserId(Long userId) {
-        return vehicleRepository.findParkedVehiclesByUserId(userId);
+        return parkedVehicleRegistry.getByUserId(userId);
+    }
+    
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<Vehicle> getVehicleByParkingSpaceId(Long parkingSpaceId) {
+        return parkedVehicleRegistry.getByParkingSpaceId(parkingSpaceId);
     }
     
     public Vehicle createVehicle(Vehicle vehicle) {
         // Check if license plate already exists
-        if (vehicleRepository.findByLicensePlate(vehicle.getLicensePlate()).isPresent()) {
+        if (licensePlateExists(vehicle.getLicensePlate())) {
             throw new RuntimeException("Vehicle with license plate " + vehicle.getLicensePlate() + " already exists");
         }
-        return vehicleRepository.save(vehicle);
+        Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        indexAfterCommit(savedVehicle);
+        return savedVehicle;
     }
     
     public Vehicle updateVehicle(Long id, Vehicle vehicleDetails) {
@@ -66,20 +158,38 @@ public class VehicleService {
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + id));
         
         // Check if new license plate already exists (if changed)
-        if (!vehicle.getLicensePlate().equals(vehicleDetails.getLicensePlate())) {
-            if (vehicleRepository.findByLicensePlate(vehicleDetails.getLicensePlate()).isPresent()) {
+        String previousPlate = LicensePlates.normalize(vehicle.getLicensePlate());
+        String normalizedPlate = LicensePlates.normalize(vehicleDetails.getLicensePlate());
+        boolean plateChanged = !previousPlate.equals(normalizedPlate);
+        if (plateChanged) {
+            if (licensePlateExists(vehicleDetails.getLicensePlate())) {
                 throw new RuntimeException("Vehicle with license plate " + vehicleDetails.getLicensePlate() + " already exists");
             }
         }
         
+        // A vehicle without a normalized plate shares it with another vehicle, which keeps the
+        // index entry; it only takes one once its plate is corrected
+        boolean heldPlate = vehicle.getNormalizedLicensePlate() != null;
+        
         vehicle.setLicensePlate(vehicleDetails.getLicensePlate());
         vehicle.setMake(vehicleDetails.getMake());
         vehicle.setModel(vehicleDetails.getModel());
         vehicle.setYear(vehicleDetails.getYear());
         vehicle.setColor(vehicleDetails.getColor());
         vehicle.setVehicleType(vehicleDetails.getVehicleType());
+        if (heldPlate || plateChanged) {
+            vehicle.setNormalizedLicensePlate(normalizedPlate);
+        }
         
-        return vehicleRepository.save(vehicle);
+        Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        if (heldPlate) {
+            afterCommit(() -> licensePlateIndex.remove(previousPlate));
+        } else if (plateChanged) {
+            afterCommit(() -> licensePlateIndex.clearAmbiguous(previousPlate, id));
+        }
+        indexAfterCommit(savedVehicle);
+        afterCommit(() -> parkedVehicleRegistry.refresh(savedVehicle));
+        return savedVehicle;
     }
     
     public Vehicle simulateVehicleEntry(Long vehicleId, Long parkingSpaceId) {
@@ -90,27 +200,64 @@ public class VehicleService {
             throw new RuntimeException("Vehicle is already parked");
         }
         
-        vehicle.setCurrentParkingSpaceId(parkingSpaceId);
-        vehicle.setEntryTime(LocalDateTime.now());
-        vehicle.setExitTime(null);
+        enterParkingSpace(vehicle, parkingSpaceId, LocalDateTime.now());
         
         return vehicleRepository.save(vehicle);
     }
     
     public Vehicle simulateVehicleExit(Long vehicleId) {
+        return simulateVehicleExit(vehicleId, null);
+    }
+    
+    // With a parking space given, the vehicle only exits if it is parked in that space
+    public Vehicle simulateVehicleExit(Long vehicleId, Long parkingSpaceId) {
         Vehicle vehicle = vehicleRepository.findById(vehicleId)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
         
         if (vehicle.getCurrentParkingSpaceId() == null) {
             throw new RuntimeException("Vehicle is not currently parked");
         }
+        if (parkingSpaceId != null && !parkingSpaceId.equals(vehicle.getCurrentParkingSpaceId())) {
+            throw new RuntimeException("Vehicle is not parked in parking space " + parkingSpaceId);
+        }
         
-        vehicle.setCurrentParkingSpaceId(null);
-        vehicle.setExitTime(LocalDateTime.now());
+        exitParkingSpace(vehicle, LocalDateTime.now());
         
         return vehicleRepository.save(vehicle);
     }
     
+    // Applies a batch of resolved gate reads in one transaction. Reads that do not match
+    // the vehicle's state (entry while parked, exit while not parked) are skipped.
+    public int applyGateTransitions(List<GateTransition> transitions) {
+        Set<Long> vehicleIds = new HashSet<>();
+        for (GateTransition transition : transitions) {
+            vehicleIds.add(transition.vehicleId());
+        }
+        Map<Long, Vehicle> vehicles = new HashMap<>();
+        for (Vehicle vehicle : vehicleRepository.findAllById(vehicleIds)) {
+            vehicles.put(vehicle.getId(), vehicle);
+        }
+        
+        int applied = 0;
+        for (GateTransition transition : transitions) {
+            Vehicle vehicle = vehicles.get(transition.vehicleId());
+            if (vehicle == null) {
+                continue;
+            }
+            boolean parked = vehicle.getCurrentParkingSpaceId() != null;
+            if (transition.direction() == GateEvent.Direction.ENTRY && !parked && transition.parkingSpaceId() != null) {
+                enterParkingSpace(vehicle, transition.parkingSpaceId(), transition.time());
+                applied++;
+            } else if (transition.direction() == GateEvent.Direction.EXIT && parked) {
+                exitParkingSpace(vehicle, transition.time());
+                applied++;
+            }
+        }
+        
+        vehicleRepository.saveAll(vehicles.values());
+        return applied;
+    }
+    
     public void deleteVehicle(Long id) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + id));
@@ -120,9 +267,80 @@ public class VehicleService {
         }
         
         vehicleRepository.delete(vehicle);
+        String normalizedPlate = LicensePlates.normalize(vehicle.getLicensePlate());
+        if (vehicle.getNormalizedLicensePlate() != null) {
+            afterCommit(() -> licensePlateIndex.remove(normalizedPlate));
+        } else {
+            afterCommit(() -> licensePlateIndex.clearAmbiguous(normalizedPlate, id));
+        }
+        afterCommit(() -> parkedVehicleRegistry.remove(id));
     }
     
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Long getParkedVehiclesCount() {
-        return vehicleRepository.countParkedVehicles();
+        return parkedVehicleRegistry.count();
+    }
+    
+    private void enterParkingSpace(Vehicle vehicle, Long parkingSpaceId, LocalDateTime entryTime) {
+        vehicle.setCurrentParkingSpaceId(parkingSpaceId);
+        vehicle.setEntryTime(entryTime);
+        vehicle.setExitTime(null);
+        afterCommit(() -> dwellTimeAnalytics.recordEntry(parkingSpaceId, entryTime));
+        OutboxEvent event = domainEventPublisher.publish(AGGREGATE_TYPE, vehicle.getId(), "VehicleEntered", Map.of(
+                "vehicleId", vehicle.getId(),
+                "userId", vehicle.getUserId(),
+                "parkingSpaceId", parkingSpaceId,
+                "entryTime", entryTime,
+                "vehicle", vehicle));
+        afterCommit(() -> parkedVehicleRegistry.apply(event.getId(), vehicle));
+    }
+    
+    private void exitParkingSpace(Vehicle vehicle, LocalDateTime exitTime) {
+        LocalDateTime entryTime = vehicle.getEntryTime() != null ? vehicle.getEntryTime() : exitTime;
+        Long parkingSpaceId = vehicle.getCurrentParkingSpaceId();
+        parkingSessionRecorder.record(new ParkingSession(
+                vehicle.getId(), vehicle.getUserId(), parkingSpaceId, entryTime, exitTime));
+        
+        vehicle.setCurrentParkingSpaceId(null);
+        vehicle.setExitTime(exitTime);
+        afterCommit(() -> dwellTimeAnalytics.recordExit(parkingSpaceId, entryTime, exitTime));
+        OutboxEvent event = domainEventPublisher.publish(AGGREGATE_TYPE, vehicle.getId(), "VehicleExited", Map.of(
+                "vehicleId", vehicle.getId(),
+                "userId", vehicle.getUserId(),
+                "parkingSpaceId", parkingSpaceId,
+                "entryTime", entryTime,
+                "exitTime", exitTime,
+                "vehicle", vehicle));
+        afterCommit(() -> parkedVehicleRegistry.apply(event.getId(), vehicle));
+    }
+    
+    private boolean licensePlateExists(String licensePlate) {
+        String normalizedPlate = LicensePlates.normalize(licensePlate);
+        return licensePlateIndex.get(normalizedPlate).isPresent()
+                || vehicleRepository.existsByNormalizedLicensePlate(normalizedPlate);
+    }
+    
+    private void indexAfterCommit(Vehicle vehicle) {
+        String normalizedPlate = vehicle.getNormalizedLicensePlate();
+        if (normalizedPlate == null) {
+            return;
+        }
+        Long vehicleId = vehicle.getId();
+        Long userId = vehicle.getUserId();
+        afterCommit(() -> licensePlateIndex.put(normalizedPlate, vehicleId, userId));
+    }
+    
+    // In-memory indexes only see changes once they are visible in the database
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
\ No newline at end of file
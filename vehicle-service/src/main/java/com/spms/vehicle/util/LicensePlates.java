@@ -0,0 +1,22 @@
+package com.spms.vehicle.util;
+
+public final class LicensePlates {
+    
+    private LicensePlates() {}
+    
+    // "ABC-1234", "abc 1234" and "ABC1234" all normalize to "ABC1234"
+    public static String normalize(String licensePlate) {
+        if (licensePlate == null) {
+            return null;
+        }
+        
+        StringBuilder normalized = new StringBuilder(licensePlate.length());
+        for (int i = 0; i < licensePlate.length(); i++) {
+            char c = Character.toUpperCase(licensePlate.charAt(i));
+            if ((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+-- Partitioned layout for the parking session history (MySQL 8).
+-- Create the table with this script before first start; Hibernate's schema update
+-- would otherwise create it unpartitioned. ParkingSessionPartitionMaintainer adds
+-- the upcoming monthly partitions by splitting p_future.
+CREATE TABLE IF NOT EXISTS parking_sessions (
+    id               BIGINT   NOT NULL AUTO_INCREMENT,
+    vehicle_id       BIGINT   NOT NULL,
+    user_id          BIGINT   NOT NULL,
+    parking_space_id BIGINT   NOT NULL,
+    entry_time       DATETIME(6) NOT NULL,
+    exit_time        DATETIME(6) NOT NULL,
+    duration_seconds BIGINT   NOT NULL,
+    PRIMARY KEY (id, entry_time),
+    KEY idx_parking_sessions_vehicle (vehicle_id, id),
+    KEY idx_parking_sessions_space (parking_space_id, id),
+    KEY idx_parking_sessions_entry_time (entry_time, id)
+)
+PARTITION BY RANGE (TO_DAYS(entry_time)) (
+    PARTITION p_history VALUES LESS THAN (TO_DAYS('2026-01-01')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);